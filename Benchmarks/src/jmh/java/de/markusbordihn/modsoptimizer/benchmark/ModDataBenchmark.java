@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.benchmark;
+
+import de.markusbordihn.modsoptimizer.config.ModsDatabaseConfig;
+import de.markusbordihn.modsoptimizer.data.ModData;
+import de.markusbordihn.modsoptimizer.data.ModFileData;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+public class ModDataBenchmark {
+
+  @Param({ModPackFixture.SAMPLE_PACK, "100", "500", "2000"})
+  public String pack;
+
+  @Param({"false", "true"})
+  public boolean scanCache;
+
+  private Path modsDir;
+  private List<Path> sampleModFiles;
+
+  @Setup
+  public void setup() throws IOException {
+    ModsDatabaseConfig.setScanCacheEnabled(this.scanCache);
+    this.modsDir = ModPackFixture.createModPack(this.pack);
+    this.sampleModFiles = ModPackFixture.getSampleModFiles();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    ModPackFixture.deleteModPack(this.modsDir);
+    ModsDatabaseConfig.reset();
+  }
+
+  @Benchmark
+  public void parseMods(Blackhole blackhole) {
+    ModData.parseMods(this.modsDir.toFile());
+    blackhole.consume(ModData.getKnownMods());
+  }
+
+  @Benchmark
+  public void readModInfo(Blackhole blackhole) {
+    for (Path sampleModFile : this.sampleModFiles) {
+      ModFileData modFileData = ModData.readModInfo(sampleModFile);
+      blackhole.consume(modFileData);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.benchmark;
+
+import de.markusbordihn.modsoptimizer.data.ModArchive;
+import de.markusbordihn.modsoptimizer.data.ModDescriptorSnapshot;
+import de.markusbordihn.modsoptimizer.data.ModFileData;
+import de.markusbordihn.modsoptimizer.data.JsonFileParser;
+import de.markusbordihn.modsoptimizer.data.ModFileParser;
+import de.markusbordihn.modsoptimizer.data.ModJsonData;
+import de.markusbordihn.modsoptimizer.data.ModJsonExtractor;
+import de.markusbordihn.modsoptimizer.data.ModsTomlData;
+import de.markusbordihn.modsoptimizer.data.ModsTomlExtractor;
+import de.markusbordihn.modsoptimizer.data.TomlFileParser;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for the loader specific parsers. The mod archives are kept open, so that every
+ * operation covers reading the descriptors from the central directory and parsing them.
+ */
+@State(Scope.Benchmark)
+public class ModFileParserBenchmark {
+
+  private static final String FORGE_MOD_FILE = "Botania-1.18.2-435.jar";
+  private static final String FABRIC_MOD_FILE = "3dskinlayers-fabric-1.5.6-mc1.20.2.jar";
+  private static final String MIXED_MOD_FILE = "explorify-v1.3.0-mc1.20.jar";
+
+  private ModArchive forgeModArchive;
+  private ModArchive fabricModArchive;
+  private ModArchive mixedModArchive;
+  private byte[] forgeModsToml;
+  private byte[] fabricModJson;
+
+  @Setup
+  public void setup() throws IOException {
+    this.forgeModArchive = ModArchive.open(ModPackFixture.getSampleModFile(FORGE_MOD_FILE));
+    this.fabricModArchive = ModArchive.open(ModPackFixture.getSampleModFile(FABRIC_MOD_FILE));
+    this.mixedModArchive = ModArchive.open(ModPackFixture.getSampleModFile(MIXED_MOD_FILE));
+    this.forgeModsToml = this.forgeModArchive.readEntry(ModArchive.MODS_TOML_FILE);
+    this.fabricModJson = this.fabricModArchive.readEntry(ModArchive.FABRIC_MOD_JSON_FILE);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    this.forgeModArchive.close();
+    this.fabricModArchive.close();
+    this.mixedModArchive.close();
+  }
+
+  @Benchmark
+  public ModFileData parseForgeModFile() throws IOException {
+    return ModFileParser.parseForgeModFile(createSnapshot(this.forgeModArchive));
+  }
+
+  @Benchmark
+  public ModFileData parseFabricModFile() throws IOException {
+    return ModFileParser.parseFabricModFile(createSnapshot(this.fabricModArchive));
+  }
+
+  @Benchmark
+  public ModFileData parseMixedModFile() throws IOException {
+    return ModFileParser.parseMixedModFile(createSnapshot(this.mixedModArchive));
+  }
+
+  @Benchmark
+  public ModsTomlData extractModsToml() {
+    return ModsTomlExtractor.extract(this.forgeModsToml);
+  }
+
+  /** Baseline for {@link #extractModsToml()} with the full TOML parser. */
+  @Benchmark
+  public ModsTomlData parseModsToml() {
+    return ModsTomlData.of(
+        TomlFileParser.readTomlFile(
+            this.forgeModsToml, Path.of(ModArchive.MODS_TOML_FILE), this.forgeModArchive));
+  }
+
+  @Benchmark
+  public ModJsonData extractFabricModJson() {
+    return ModJsonExtractor.extractFabricModJson(this.fabricModJson);
+  }
+
+  /** Baseline for {@link #extractFabricModJson()} with the full json tree. */
+  @Benchmark
+  public ModJsonData parseFabricModJson() {
+    return ModJsonData.ofFabricModJson(
+        JsonFileParser.readJsonFile(
+            this.fabricModJson, Path.of(ModArchive.FABRIC_MOD_JSON_FILE), this.fabricModArchive));
+  }
+
+  private static ModDescriptorSnapshot createSnapshot(ModArchive modArchive) throws IOException {
+    return ModDescriptorSnapshot.create(modArchive.getPath(), modArchive);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.benchmark;
+
+import de.markusbordihn.modsoptimizer.data.ModArchive;
+import de.markusbordihn.modsoptimizer.data.ModDescriptorSnapshot;
+import de.markusbordihn.modsoptimizer.fixtures.ModPackGenerator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/** Creates temporary mods directories for the benchmarks. */
+public class ModPackFixture {
+
+  public static final String SAMPLE_PACK = "sample";
+
+  private static final long GENERATOR_SEED = 20221104L;
+  private static final String SAMPLES_PROPERTY = "mods_optimizer.benchmark.samples";
+  private static final String DEFAULT_SAMPLES_PATH =
+      "../Common/src/test/resources/testfile/mods_sample";
+
+  protected ModPackFixture() {}
+
+  public static Path getSamplesPath() {
+    return Path.of(System.getProperty(SAMPLES_PROPERTY, DEFAULT_SAMPLES_PATH));
+  }
+
+  public static Path getSampleModFile(String name) {
+    try (Stream<Path> sampleModFiles = Files.walk(getSamplesPath())) {
+      return sampleModFiles
+          .filter(path -> path.getFileName().toString().equals(name))
+          .findFirst()
+          .orElseThrow(() -> new IllegalArgumentException("Unknown sample mod file " + name));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static List<Path> getSampleModFiles() {
+    try (Stream<Path> sampleModFiles = Files.walk(getSamplesPath())) {
+      return sampleModFiles
+          .filter(path -> path.getFileName().toString().endsWith(".jar"))
+          .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+          .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Returns the raw version numbers of all sample mod files from the mod descriptors and the
+   * manifest, like they are passed to the version parser.
+   */
+  public static List<String> getSampleVersions() throws IOException {
+    List<String> versions = new ArrayList<>();
+    for (Path sampleModFile : getSampleModFiles()) {
+      try (ModArchive modArchive = ModArchive.open(sampleModFile)) {
+        ModDescriptorSnapshot snapshot = ModDescriptorSnapshot.create(sampleModFile, modArchive);
+        addVersion(versions, snapshot.getModsTomlData().modVersion());
+        addVersion(versions, snapshot.getFabricModJsonData().version());
+        addVersion(versions, snapshot.getQuiltModJsonData().version());
+        Manifest manifest = snapshot.getManifest();
+        if (manifest != null) {
+          addVersion(versions, manifest.getMainAttributes().getValue("Implementation-Version"));
+        }
+      } catch (Exception e) {
+        // Broken sample mod files are expected and have no version.
+      }
+    }
+    return versions;
+  }
+
+  private static void addVersion(List<String> versions, String version) {
+    if (version != null && !version.isEmpty() && !version.startsWith("${")) {
+      versions.add(version);
+    }
+  }
+
+  /**
+   * Creates a flat mods directory with the given pack, which is either {@link #SAMPLE_PACK} for all
+   * sample mod files or the number of mod files, which are created by the {@link
+   * ModPackGenerator}.
+   */
+  public static Path createModPack(String pack) throws IOException {
+    Path modsDir = Files.createTempDirectory("mods_optimizer_benchmark_");
+    if (SAMPLE_PACK.equals(pack)) {
+      for (Path sampleModFile : getSampleModFiles()) {
+        Files.copy(sampleModFile, modsDir.resolve(sampleModFile.getFileName()));
+      }
+      return modsDir;
+    }
+
+    new ModPackGenerator(GENERATOR_SEED).generate(modsDir, Integer.parseInt(pack));
+    return modsDir;
+  }
+
+  public static void deleteModPack(Path modsDir) throws IOException {
+    if (modsDir == null || !Files.isDirectory(modsDir)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(modsDir)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+}
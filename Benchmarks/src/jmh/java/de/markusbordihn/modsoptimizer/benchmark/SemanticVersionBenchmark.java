@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.benchmark;
+
+import com.github.zafarkhaja.semver.Version;
+import de.markusbordihn.modsoptimizer.utils.SemanticVersionUtils;
+import java.io.IOException;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the version parsing with typical valid and invalid mod versions. The sample
+ * benchmarks compare the exception free parsing with the former exception based parsing for the
+ * versions of the mods_sample corpus.
+ */
+@State(Scope.Benchmark)
+public class SemanticVersionBenchmark {
+
+  private static final String[] VERSIONS = {
+    // @formatter:off
+    "1.0.0",
+    "2.4.7",
+    "1.5.6+mc1.20.2",
+    "1.0.0-beta.36+1.20.1",
+    "1.4.5.1",
+    "3.6",
+    "0.2.0.146",
+    "2.6.3_release",
+    "9.0+22",
+    "0.5.0.e",
+    "1.18-5.3.0.0",
+    "1.18-6.0.19",
+    "1.8-31",
+    "1.18.2-2.01.0",
+    "1.2+mc1.18.x",
+    "14.15-SNAPSHOT-348",
+    "1.18.2-Forge-1.3.1",
+    "1.18.2-1.4.5-build.43",
+    "1.18.1-forge39.0.9-1.1.2",
+    "1.18.2-1.0.966-RELEASE"
+    // @formatter:on
+  };
+
+  private List<String> sampleVersions;
+
+  @Setup
+  public void setup() throws IOException {
+    this.sampleVersions = ModPackFixture.getSampleVersions();
+  }
+
+  @Benchmark
+  public void parseVersion(Blackhole blackhole) {
+    for (String version : VERSIONS) {
+      Version parsedVersion = SemanticVersionUtils.parseVersion(version);
+      blackhole.consume(parsedVersion);
+    }
+  }
+
+  @Benchmark
+  public void normalizeVersion(Blackhole blackhole) {
+    for (String version : VERSIONS) {
+      blackhole.consume(SemanticVersionUtils.normalizeVersion(version));
+    }
+  }
+
+  @Benchmark
+  public void parseSampleVersions(Blackhole blackhole) {
+    for (String version : this.sampleVersions) {
+      blackhole.consume(SemanticVersionUtils.parseVersion(version));
+    }
+  }
+
+  @Benchmark
+  public void parseSampleVersionsWithExceptions(Blackhole blackhole) {
+    for (String version : this.sampleVersions) {
+      blackhole.consume(parseVersionWithExceptions(version));
+    }
+  }
+
+  /** Former exception based version parsing, which is only used as baseline. */
+  private static Version parseVersionWithExceptions(String version) {
+    try {
+      return Version.valueOf(version);
+    } catch (Exception e) {
+      // Try the normalized version instead.
+    }
+    try {
+      return Version.valueOf(SemanticVersionUtils.normalizeVersion(version));
+    } catch (Exception e) {
+      return SemanticVersionUtils.EMPTY_VERSION;
+    }
+  }
+}
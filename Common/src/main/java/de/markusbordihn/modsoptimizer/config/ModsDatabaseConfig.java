@@ -19,6 +19,7 @@
 
 package de.markusbordihn.modsoptimizer.config;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.moandjiezana.toml.Toml;
 import com.moandjiezana.toml.TomlWriter;
 import de.markusbordihn.modsoptimizer.Constants;
@@ -43,10 +44,32 @@ public class ModsDatabaseConfig {
 
   public static final String DEBUG_ENABLED = "debugEnabled";
   public static final String DEBUG_FORCE_SIDE = "debugForceSide";
+  public static final String PARALLEL_SCAN_ENABLED = "parallelScanEnabled";
+  public static final String PARALLEL_SCAN_THREADS = "parallelScanThreads";
+  public static final String SCAN_CACHE_ENABLED = "scanCacheEnabled";
+  public static final String SCAN_CACHE_CHECKSUM_ENABLED = "scanCacheChecksumEnabled";
+  public static final String WATCH_MODE_ENABLED = "watchModeEnabled";
+  public static final String WATCH_MODE_DELAY = "watchModeDelay";
+  public static final String FAST_START_ENABLED = "fastStartEnabled";
+  public static final String NESTED_SCAN_ENABLED = "nestedScanEnabled";
+  public static final String NESTED_SCAN_MEMORY_LIMIT = "nestedScanMemoryLimit";
   public static final String CONFIG_FILE_NAME = "config.toml";
+  private static final int MAX_AUTO_SCAN_THREADS = 8;
   private static final Map<String, String> modsMap = new HashMap<>();
   private static boolean debugEnabled = false;
   private static String debugForceSide = "default";
+  private static boolean parallelScanEnabled = true;
+  private static int parallelScanThreads = 0;
+  private static boolean scanCacheEnabled = true;
+  private static boolean scanCacheChecksumEnabled = false;
+  private static boolean watchModeEnabled = false;
+  private static int watchModeDelay = 2000;
+  private static boolean fastStartEnabled = false;
+  private static boolean nestedScanEnabled = false;
+  private static int nestedScanMemoryLimit = 64;
+  private static boolean configScanCacheEnabled = scanCacheEnabled;
+  private static boolean configNestedScanEnabled = nestedScanEnabled;
+  private static int configNestedScanMemoryLimit = nestedScanMemoryLimit;
 
   static {
     // Create config file if not exists.
@@ -57,6 +80,9 @@ public class ModsDatabaseConfig {
 
     // Read config file.
     readConfigFile(configFile);
+    configScanCacheEnabled = scanCacheEnabled;
+    configNestedScanEnabled = nestedScanEnabled;
+    configNestedScanMemoryLimit = nestedScanMemoryLimit;
   }
 
   protected ModsDatabaseConfig() {}
@@ -77,6 +103,74 @@ public class ModsDatabaseConfig {
     return debugForceSide;
   }
 
+  public static boolean isParallelScanEnabled() {
+    return parallelScanEnabled;
+  }
+
+  public static int getParallelScanThreads() {
+    if (!parallelScanEnabled) {
+      return 1;
+    }
+    if (parallelScanThreads > 0) {
+      return parallelScanThreads;
+    }
+    // Use all available processors, but keep some headroom for the loader itself.
+    return Math.max(
+        1, Math.min(Runtime.getRuntime().availableProcessors() - 1, MAX_AUTO_SCAN_THREADS));
+  }
+
+  public static boolean isScanCacheEnabled() {
+    return scanCacheEnabled;
+  }
+
+  @VisibleForTesting
+  public static void setScanCacheEnabled(boolean enabled) {
+    scanCacheEnabled = enabled;
+  }
+
+  public static boolean isScanCacheChecksumEnabled() {
+    return scanCacheChecksumEnabled;
+  }
+
+  public static boolean isWatchModeEnabled() {
+    return watchModeEnabled;
+  }
+
+  public static int getWatchModeDelay() {
+    return watchModeDelay;
+  }
+
+  public static boolean isFastStartEnabled() {
+    return fastStartEnabled && scanCacheEnabled;
+  }
+
+  public static boolean isNestedScanEnabled() {
+    return nestedScanEnabled;
+  }
+
+  @VisibleForTesting
+  public static void setNestedScanEnabled(boolean enabled) {
+    nestedScanEnabled = enabled;
+  }
+
+  /** Returns the memory limit in bytes for the embedded jar files, which are read at once. */
+  public static long getNestedScanMemoryLimit() {
+    return nestedScanMemoryLimit * 1024L * 1024L;
+  }
+
+  @VisibleForTesting
+  public static void setNestedScanMemoryLimit(int megabytes) {
+    nestedScanMemoryLimit = megabytes;
+  }
+
+  /** Restores the options, which could be changed by tests, to the values of the config file. */
+  @VisibleForTesting
+  public static void reset() {
+    scanCacheEnabled = configScanCacheEnabled;
+    nestedScanEnabled = configNestedScanEnabled;
+    nestedScanMemoryLimit = configNestedScanMemoryLimit;
+  }
+
   public static boolean containsMod(String modId) {
     return modsMap.containsKey(modId);
   }
@@ -130,6 +224,67 @@ public class ModsDatabaseConfig {
           debugForceSide = debug.get(DEBUG_FORCE_SIDE);
         }
       }
+
+      // Read scan options from config file.
+      if (config.containsKey("Scan")) {
+        Map<String, Object> scan = (Map<String, Object>) config.get("Scan");
+        if (scan.containsKey(PARALLEL_SCAN_ENABLED)) {
+          parallelScanEnabled =
+              Boolean.parseBoolean(String.valueOf(scan.get(PARALLEL_SCAN_ENABLED)));
+        }
+        if (scan.containsKey(PARALLEL_SCAN_THREADS)) {
+          try {
+            parallelScanThreads =
+                Math.max(0, Integer.parseInt(String.valueOf(scan.get(PARALLEL_SCAN_THREADS))));
+          } catch (NumberFormatException e) {
+            Constants.LOG.warn(
+                "⚠ Invalid {} value {} in config file {}!",
+                PARALLEL_SCAN_THREADS,
+                scan.get(PARALLEL_SCAN_THREADS),
+                file);
+          }
+        }
+        if (scan.containsKey(SCAN_CACHE_ENABLED)) {
+          scanCacheEnabled = Boolean.parseBoolean(String.valueOf(scan.get(SCAN_CACHE_ENABLED)));
+        }
+        if (scan.containsKey(SCAN_CACHE_CHECKSUM_ENABLED)) {
+          scanCacheChecksumEnabled =
+              Boolean.parseBoolean(String.valueOf(scan.get(SCAN_CACHE_CHECKSUM_ENABLED)));
+        }
+        if (scan.containsKey(WATCH_MODE_ENABLED)) {
+          watchModeEnabled = Boolean.parseBoolean(String.valueOf(scan.get(WATCH_MODE_ENABLED)));
+        }
+        if (scan.containsKey(WATCH_MODE_DELAY)) {
+          try {
+            watchModeDelay =
+                Math.max(100, Integer.parseInt(String.valueOf(scan.get(WATCH_MODE_DELAY))));
+          } catch (NumberFormatException e) {
+            Constants.LOG.warn(
+                "⚠ Invalid {} value {} in config file {}!",
+                WATCH_MODE_DELAY,
+                scan.get(WATCH_MODE_DELAY),
+                file);
+          }
+        }
+        if (scan.containsKey(FAST_START_ENABLED)) {
+          fastStartEnabled = Boolean.parseBoolean(String.valueOf(scan.get(FAST_START_ENABLED)));
+        }
+        if (scan.containsKey(NESTED_SCAN_ENABLED)) {
+          nestedScanEnabled = Boolean.parseBoolean(String.valueOf(scan.get(NESTED_SCAN_ENABLED)));
+        }
+        if (scan.containsKey(NESTED_SCAN_MEMORY_LIMIT)) {
+          try {
+            nestedScanMemoryLimit =
+                Math.max(1, Integer.parseInt(String.valueOf(scan.get(NESTED_SCAN_MEMORY_LIMIT))));
+          } catch (NumberFormatException e) {
+            Constants.LOG.warn(
+                "⚠ Invalid {} value {} in config file {}!",
+                NESTED_SCAN_MEMORY_LIMIT,
+                scan.get(NESTED_SCAN_MEMORY_LIMIT),
+                file);
+          }
+        }
+      }
     } catch (Exception exception) {
       Constants.LOG.error("There was an error, loading the config file {}:", file, exception);
     }
@@ -212,6 +367,35 @@ public class ModsDatabaseConfig {
       return null;
     }
 
+    // Define scan options, a thread count of 0 means auto-detect and the watch mode delay is the
+    // quiet period in milliseconds before changes in the mods directory are processed. The fast
+    // start requires the scan cache and verifies the cached mods data in the background. The
+    // nested scan is disabled by default, because it inflates all embedded jar files. Its memory
+    // limit for the embedded jar files is defined in megabytes.
+    Map<String, String> scanOptions = new HashMap<>();
+    scanOptions.put(PARALLEL_SCAN_ENABLED, parallelScanEnabled ? "true" : "false");
+    scanOptions.put(PARALLEL_SCAN_THREADS, String.valueOf(parallelScanThreads));
+    scanOptions.put(SCAN_CACHE_ENABLED, scanCacheEnabled ? "true" : "false");
+    scanOptions.put(SCAN_CACHE_CHECKSUM_ENABLED, scanCacheChecksumEnabled ? "true" : "false");
+    scanOptions.put(WATCH_MODE_ENABLED, watchModeEnabled ? "true" : "false");
+    scanOptions.put(WATCH_MODE_DELAY, String.valueOf(watchModeDelay));
+    scanOptions.put(FAST_START_ENABLED, fastStartEnabled ? "true" : "false");
+    scanOptions.put(NESTED_SCAN_ENABLED, nestedScanEnabled ? "true" : "false");
+    scanOptions.put(NESTED_SCAN_MEMORY_LIMIT, String.valueOf(nestedScanMemoryLimit));
+
+    // Add scan options to the toml config.
+    outputStream = new ByteArrayOutputStream();
+    try {
+      tomlWriter.write(scanOptions, outputStream);
+      textContent.append("\n");
+      textContent.append("[Scan]\n");
+      textContent.append(outputStream);
+    } catch (Exception exception) {
+      Constants.LOG.error(
+          "There was an error, adding the scan options to the config file {}:", file, exception);
+      return null;
+    }
+
     // Write config file.
     try {
       Files.writeString(file.toPath(), textContent, StandardOpenOption.CREATE_NEW);
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.data;
+
+import de.markusbordihn.modsoptimizer.data.ModFileData.ModType;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/** Default parsers for the mod descriptors of the supported mod loaders. */
+public enum DefaultModDescriptorParser implements ModDescriptorParser {
+  FORGE(
+      ModType.FORGE,
+      List.of(ModArchive.MODS_TOML_FILE),
+      snapshot ->
+          snapshot.has(ModDescriptorSnapshot.MODS_TOML)
+              && !snapshot.has(ModDescriptorSnapshot.FABRIC_MOD_JSON),
+      ModFileParser::parseForgeModFile),
+  // NeoForge mods are using the same descriptor and are never probed on their own. They are
+  // detected by file name, by manifest or by a neoforge dependency of a probed Forge mod.
+  NEOFORGE(
+      ModType.NEOFORGE,
+      List.of(ModArchive.MODS_TOML_FILE),
+      snapshot -> false,
+      ModFileParser::parseNeoForgeModFile),
+  FABRIC(
+      ModType.FABRIC,
+      List.of(ModArchive.FABRIC_MOD_JSON_FILE),
+      snapshot ->
+          snapshot.has(ModDescriptorSnapshot.FABRIC_MOD_JSON)
+              && !snapshot.has(ModDescriptorSnapshot.MODS_TOML),
+      ModFileParser::parseFabricModFile),
+  QUILT(
+      ModType.QUILT,
+      List.of(ModArchive.QUILT_MOD_JSON_FILE),
+      snapshot ->
+          snapshot.has(ModDescriptorSnapshot.QUILT_MOD_JSON)
+              && !snapshot.has(ModDescriptorSnapshot.MODS_TOML)
+              && !snapshot.has(ModDescriptorSnapshot.FABRIC_MOD_JSON),
+      ModFileParser::parseQuiltModFile),
+  MIXED(
+      ModType.MIXED,
+      List.of(ModArchive.MODS_TOML_FILE, ModArchive.FABRIC_MOD_JSON_FILE),
+      snapshot ->
+          snapshot.has(ModDescriptorSnapshot.MODS_TOML)
+              && snapshot.has(ModDescriptorSnapshot.FABRIC_MOD_JSON),
+      ModFileParser::parseMixedModFile);
+
+  private final ModType modType;
+  private final List<String> entryNames;
+  private final Predicate<ModDescriptorSnapshot> matcher;
+  private final Function<ModDescriptorSnapshot, ModFileData> parser;
+
+  DefaultModDescriptorParser(
+      ModType modType,
+      List<String> entryNames,
+      Predicate<ModDescriptorSnapshot> matcher,
+      Function<ModDescriptorSnapshot, ModFileData> parser) {
+    this.modType = modType;
+    this.entryNames = entryNames;
+    this.matcher = matcher;
+    this.parser = parser;
+  }
+
+  @Override
+  public ModType getModType() {
+    return this.modType;
+  }
+
+  @Override
+  public List<String> getEntryNames() {
+    return this.entryNames;
+  }
+
+  @Override
+  public boolean matches(ModDescriptorSnapshot snapshot) {
+    return this.matcher.test(snapshot);
+  }
+
+  @Override
+  public ModFileData parse(ModDescriptorSnapshot snapshot) {
+    return this.parser.apply(snapshot);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import java.io.CharArrayReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Inflater;
+
+/**
+ * Reusable buffers for the extraction of the mod descriptors, with an inflater, a byte buffer for
+ * the compressed data and a char buffer for the decoded descriptors. The buffers are kept per
+ * thread, so that scanning any number of mod files only needs a constant amount of memory.
+ *
+ * <p>The native memory of the inflater is freed with {@link #release()}, which should be called
+ * after a scan, because the mod loader needs the memory right after us.
+ */
+public class DescriptorBuffers {
+
+  private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+  private static final int MAX_REUSABLE_BUFFER_SIZE = 1024 * 1024;
+  private static final ThreadLocal<DescriptorBuffers> threadBuffers = new ThreadLocal<>();
+
+  private final CharsetDecoder decoder =
+      StandardCharsets.UTF_8
+          .newDecoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private Inflater inflater;
+  private ByteBuffer byteBuffer;
+  private CharBuffer charBuffer;
+
+  private DescriptorBuffers() {}
+
+  static DescriptorBuffers get() {
+    DescriptorBuffers descriptorBuffers = threadBuffers.get();
+    if (descriptorBuffers == null) {
+      descriptorBuffers = new DescriptorBuffers();
+      threadBuffers.set(descriptorBuffers);
+    }
+    return descriptorBuffers;
+  }
+
+  /** Frees the buffers and the native memory of the inflater of the current thread. */
+  public static void release() {
+    DescriptorBuffers descriptorBuffers = threadBuffers.get();
+    if (descriptorBuffers != null) {
+      if (descriptorBuffers.inflater != null) {
+        descriptorBuffers.inflater.end();
+      }
+      threadBuffers.remove();
+    }
+  }
+
+  /** Returns a reset inflater for raw deflated data. */
+  Inflater getInflater() {
+    if (this.inflater == null) {
+      this.inflater = new Inflater(true);
+    } else {
+      this.inflater.reset();
+    }
+    return this.inflater;
+  }
+
+  /**
+   * Returns a cleared little endian byte buffer with the given limit, which is only valid until the
+   * next call. Larger buffers than {@link #MAX_REUSABLE_BUFFER_SIZE} are not kept.
+   */
+  ByteBuffer getByteBuffer(int length) {
+    if (this.byteBuffer == null || this.byteBuffer.capacity() < length) {
+      ByteBuffer newByteBuffer =
+          ByteBuffer.allocate(Math.max(length, INITIAL_BUFFER_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+      if (length > MAX_REUSABLE_BUFFER_SIZE) {
+        return newByteBuffer.limit(length);
+      }
+      this.byteBuffer = newByteBuffer;
+    }
+    return this.byteBuffer.clear().limit(length);
+  }
+
+  /**
+   * Returns a reader for the UTF-8 encoded content, which is only valid until the next call.
+   * Malformed input is replaced like by an {@link java.io.InputStreamReader}.
+   */
+  Reader getReader(byte[] content) {
+    // UTF-8 content never has more chars than bytes.
+    CharBuffer targetBuffer = this.charBuffer;
+    if (targetBuffer == null || targetBuffer.capacity() < content.length) {
+      targetBuffer = CharBuffer.allocate(Math.max(content.length, INITIAL_BUFFER_SIZE));
+      if (content.length <= MAX_REUSABLE_BUFFER_SIZE) {
+        this.charBuffer = targetBuffer;
+      }
+    }
+    targetBuffer.clear();
+    this.decoder.reset();
+    this.decoder.decode(ByteBuffer.wrap(content), targetBuffer, true);
+    this.decoder.flush(targetBuffer);
+    return new CharArrayReader(targetBuffer.array(), 0, targetBuffer.position());
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.data;
+
+import de.markusbordihn.modsoptimizer.Constants;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Snapshot of the files of a single directory with their attributes, which is created with one
+ * directory walk. The mod scan uses the snapshot for the list of mod files, the scan cache
+ * validation and the timestamp fallback, so that every mod file is only stat'ed once.
+ *
+ * <p>The current snapshot is kept until it is invalidated, which happens after the mod scan and
+ * after every change of the mod files by this mod.
+ */
+public class DirectorySnapshot {
+
+  private static final String LOG_PREFIX = "[Directory Snapshot]";
+  private static volatile DirectorySnapshot currentSnapshot;
+
+  private final Path directory;
+  private final Map<String, Entry> entries;
+
+  private DirectorySnapshot(Path directory, Map<String, Entry> entries) {
+    this.directory = directory;
+    this.entries = Collections.unmodifiableMap(entries);
+  }
+
+  /** Creates a new snapshot of the given directory, without changing the current snapshot. */
+  public static DirectorySnapshot create(Path directory) throws IOException {
+    Path normalizedDirectory = directory.toAbsolutePath().normalize();
+    Map<String, Entry> entries = new TreeMap<>();
+    Files.walkFileTree(
+        normalizedDirectory,
+        EnumSet.of(FileVisitOption.FOLLOW_LINKS),
+        1,
+        new SimpleFileVisitor<>() {
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+            String name = file.getFileName().toString();
+            entries.put(name, new Entry(name, file, attributes));
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFileFailed(Path file, IOException exception)
+              throws IOException {
+            if (file.equals(normalizedDirectory)) {
+              throw exception;
+            }
+            // Ignore broken links and files which were removed during the walk.
+            Constants.LOG.debug("{} Ignore file {}: {}", LOG_PREFIX, file, exception);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    return new DirectorySnapshot(normalizedDirectory, entries);
+  }
+
+  /**
+   * Returns the current snapshot of the given directory or creates a new current snapshot, if there
+   * is no current snapshot for this directory.
+   *
+   * @return the snapshot or null, if the directory could not be read
+   */
+  public static DirectorySnapshot get(Path directory) {
+    Path normalizedDirectory = directory.toAbsolutePath().normalize();
+    DirectorySnapshot directorySnapshot = currentSnapshot;
+    if (directorySnapshot != null && directorySnapshot.directory.equals(normalizedDirectory)) {
+      return directorySnapshot;
+    }
+    try {
+      directorySnapshot = create(normalizedDirectory);
+    } catch (IOException e) {
+      Constants.LOG.error("{} ⚠ Unable to read directory {}: {}", LOG_PREFIX, directory, e);
+      return null;
+    }
+    currentSnapshot = directorySnapshot;
+    return directorySnapshot;
+  }
+
+  /** Drops the current snapshot, which must be called after any change of the directory. */
+  public static void invalidate() {
+    currentSnapshot = null;
+  }
+
+  /**
+   * Returns the attributes of the given file from the current snapshot, if the file is part of it.
+   * Otherwise, the attributes are read from the file system.
+   */
+  public static BasicFileAttributes readAttributes(Path file) throws IOException {
+    DirectorySnapshot directorySnapshot = currentSnapshot;
+    if (directorySnapshot != null) {
+      Path normalizedFile = file.toAbsolutePath().normalize();
+      if (directorySnapshot.directory.equals(normalizedFile.getParent())) {
+        Entry entry = directorySnapshot.entries.get(normalizedFile.getFileName().toString());
+        if (entry != null) {
+          return entry.attributes();
+        }
+      }
+    }
+    return Files.readAttributes(file, BasicFileAttributes.class);
+  }
+
+  public Path getDirectory() {
+    return this.directory;
+  }
+
+  /** Returns all entries sorted by their file name. */
+  public Collection<Entry> getEntries() {
+    return this.entries.values();
+  }
+
+  /** Returns the regular files with the given file extension sorted by their file name. */
+  public List<Entry> getFiles(String fileExtension) {
+    List<Entry> files = new ArrayList<>();
+    for (Entry entry : this.entries.values()) {
+      if (entry.attributes().isRegularFile() && entry.name().endsWith(fileExtension)) {
+        files.add(entry);
+      }
+    }
+    return files;
+  }
+
+  public Entry getEntry(String fileName) {
+    return this.entries.get(fileName);
+  }
+
+  public boolean contains(String fileName) {
+    return this.entries.containsKey(fileName);
+  }
+
+  /** Single file or directory with the attributes at the time of the snapshot. */
+  public record Entry(String name, Path path, BasicFileAttributes attributes) {}
+}
@@ -25,54 +25,56 @@ import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.stream.JsonReader;
 import de.markusbordihn.modsoptimizer.Constants;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.file.Path;
-import java.util.jar.JarFile;
-import java.util.zip.ZipEntry;
 
 public class JsonFileParser {
 
   private JsonFileParser() {}
 
-  public static JsonObject readJsonFile(JarFile jarFile, Path path) {
-    ZipEntry modsFile = jarFile.getEntry(path.toString().replace("\\", "/"));
-    if (modsFile != null && !modsFile.isDirectory()) {
-      try (InputStream inputStream = jarFile.getInputStream(modsFile)) {
-        return parseJson(inputStream, path, jarFile);
-      } catch (Exception e) {
-        Constants.LOG.error("Error reading json file {} from {}: {}", path, jarFile, e);
-      }
+  /**
+   * Parses the given json content. The content is kept in memory, so that a broken json file could
+   * be parsed again in lenient mode without reading the file again.
+   */
+  public static JsonObject readJsonFile(byte[] content, Path path, ModArchive modArchive) {
+    if (content != null) {
+      return parseJson(content, path, modArchive);
     } else {
       Constants.LOG.error(
-          "Json file {} not found in {}", path.toString().replace("\\", "/"), jarFile);
+          "Json file {} not found in {}", path.toString().replace("\\", "/"), modArchive);
     }
     return new JsonObject();
   }
 
-  private static JsonObject parseJson(InputStream inputStream, Path path, JarFile jarFile) {
+  private static JsonObject parseJson(byte[] content, Path path, ModArchive modArchive) {
     try {
-      JsonElement jsonElement = JsonParser.parseReader(new InputStreamReader(inputStream));
+      JsonElement jsonElement = JsonParser.parseReader(createReader(content));
       return jsonElement.getAsJsonObject();
     } catch (JsonSyntaxException e) {
-      Constants.LOG.warn("Invalid json file {} from {}:", path, jarFile, e);
-      return tryParsingWithLenient(inputStream, path, jarFile);
+      Constants.LOG.warn("Invalid json file {} from {}:", path, modArchive, e);
+      return tryParsingWithLenient(content, path, modArchive);
     } catch (Exception e) {
-      Constants.LOG.error("Error parsing json file {} from {}: {}", path, jarFile, e);
+      Constants.LOG.error("Error parsing json file {} from {}: {}", path, modArchive, e);
     }
     return new JsonObject();
   }
 
   private static JsonObject tryParsingWithLenient(
-      InputStream inputStream, Path path, JarFile jarFile) {
+      byte[] content, Path path, ModArchive modArchive) {
     try {
-      JsonReader reader = new JsonReader(new InputStreamReader(inputStream));
+      JsonReader reader = new JsonReader(createReader(content));
       reader.setLenient(true);
       JsonElement jsonElement = JsonParser.parseReader(reader);
-      return jsonElement.getAsJsonObject();
+      JsonObject jsonObject = jsonElement.getAsJsonObject();
+      ScanMetrics.count(ScanMetrics.Heuristic.JSON_LENIENT_PARSING);
+      return jsonObject;
     } catch (Exception e) {
-      Constants.LOG.error("Unable to parse invalid json file {} from {}: {}", path, jarFile, e);
+      Constants.LOG.error("Unable to parse invalid json file {} from {}: {}", path, modArchive, e);
     }
     return new JsonObject();
   }
+
+  private static Reader createReader(byte[] content) {
+    return DescriptorBuffers.get().getReader(content);
+  }
 }
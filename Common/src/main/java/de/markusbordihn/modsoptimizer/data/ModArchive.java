@@ -0,0 +1,575 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Lightweight read-only jar reader, which only reads the end of central directory record and the
+ * central directory itself. Only the requested entries are indexed and only their data is read and
+ * inflated, all other entries are skipped without creating any objects for them.
+ */
+public class ModArchive implements Closeable {
+
+  public static final String MANIFEST_FILE = "META-INF/MANIFEST.MF";
+  public static final String MODS_TOML_FILE = "META-INF/mods.toml";
+  public static final String FABRIC_MOD_JSON_FILE = "fabric.mod.json";
+  public static final String QUILT_MOD_JSON_FILE = "quilt.mod.json";
+  public static final String TRANSFORMATION_SERVICE_FILE =
+      "META-INF/services/cpw.mods.modlauncher.api.ITransformationService";
+  public static final List<String> DEFAULT_ENTRY_NAMES =
+      List.of(
+          MANIFEST_FILE,
+          MODS_TOML_FILE,
+          FABRIC_MOD_JSON_FILE,
+          QUILT_MOD_JSON_FILE,
+          TRANSFORMATION_SERVICE_FILE);
+
+  private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+  private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE = 56;
+  private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+  private static final int ZIP64_LOCATOR_SIZE = 20;
+  private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+  private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+  private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+  private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+  private static final int LOCAL_FILE_HEADER_SIZE = 30;
+  private static final int MAX_COMMENT_SIZE = 0xFFFF;
+  private static final int INITIAL_TAIL_SIZE = 1024;
+  private static final int MAX_ENTRY_SIZE = 16 * 1024 * 1024;
+  private static final int METHOD_STORED = 0;
+  private static final int METHOD_DEFLATED = 8;
+
+  private final String name;
+  private final Path path;
+  private final FileChannel fileChannel;
+  private final ByteBuffer data;
+  private final long size;
+  private final ByteBuffer centralDirectory;
+  private final long offsetBias;
+  private final int numEntries;
+  private final Map<String, Entry> entries = new HashMap<>();
+  private int entryMask = 0;
+
+  private ModArchive(String name, Path path, FileChannel fileChannel, ByteBuffer data, long size)
+      throws IOException {
+    this.name = name;
+    this.path = path;
+    this.fileChannel = fileChannel;
+    this.data = data;
+    this.size = size;
+
+    // Locate and read central directory.
+    long[] centralDirectoryInfo = readEndOfCentralDirectory();
+    long centralDirectorySize = centralDirectoryInfo[1];
+    long centralDirectoryOffset = centralDirectoryInfo[2];
+    if (centralDirectorySize > Integer.MAX_VALUE
+        || centralDirectoryOffset < 0
+        || centralDirectoryOffset + centralDirectorySize > size) {
+      throw new ZipException("Invalid central directory in " + name);
+    }
+    this.numEntries = (int) Math.min(centralDirectoryInfo[0], Integer.MAX_VALUE);
+    this.offsetBias = centralDirectoryInfo[3];
+    this.centralDirectory = read(centralDirectoryOffset, (int) centralDirectorySize);
+  }
+
+  public static ModArchive open(Path path) throws IOException {
+    return open(path, DEFAULT_ENTRY_NAMES);
+  }
+
+  public static ModArchive open(Path path, List<String> entryNames) throws IOException {
+    FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      ModArchive modArchive =
+          new ModArchive(path.toString(), path, fileChannel, null, fileChannel.size());
+      modArchive.indexEntries(entryNames);
+      return modArchive;
+    } catch (IOException | RuntimeException e) {
+      fileChannel.close();
+      throw e;
+    }
+  }
+
+  public static ModArchive open(String name, ByteBuffer data, List<String> entryNames)
+      throws IOException {
+    ModArchive modArchive = new ModArchive(name, null, null, data.slice(), data.remaining());
+    modArchive.indexEntries(entryNames);
+    return modArchive;
+  }
+
+  public String getName() {
+    return this.name;
+  }
+
+  public Path getPath() {
+    return this.path;
+  }
+
+  public int getNumEntries() {
+    return this.numEntries;
+  }
+
+  public long getSize() {
+    return this.size;
+  }
+
+  /**
+   * Returns the CRC-32 of the central directory, which includes the names, sizes and CRC-32 of all
+   * entries and therefore changes with the content of the archive.
+   */
+  public long getCentralDirectoryChecksum() {
+    CRC32 crc32 = new CRC32();
+    crc32.update(this.centralDirectory.duplicate());
+    return crc32.getValue();
+  }
+
+  /**
+   * Returns a bitmask of the found entries, where bit {@code i} is set if the {@code i}-th
+   * requested entry name is present in the archive.
+   */
+  public int getEntryMask() {
+    return this.entryMask;
+  }
+
+  public boolean hasEntry(String entryName) {
+    return this.entries.containsKey(entryName);
+  }
+
+  public byte[] readEntry(String entryName) throws IOException {
+    Entry entry = this.entries.get(entryName);
+    if (entry == null || entry.isDirectory()) {
+      return null;
+    }
+    return readEntry(entry);
+  }
+
+  /** Returns the uncompressed size of the given indexed entry or -1, if it is not indexed. */
+  public long getEntrySize(String entryName) {
+    Entry entry = this.entries.get(entryName);
+    return entry != null ? entry.uncompressedSize() : -1;
+  }
+
+  /** Returns true, if the given indexed entry is not too large to be read into memory. */
+  public boolean isEntryReadable(String entryName) {
+    Entry entry = this.entries.get(entryName);
+    return entry != null && isEntryReadable(entry);
+  }
+
+  public InputStream getInputStream(String entryName) throws IOException {
+    byte[] entryData = readEntry(entryName);
+    return entryData != null ? new ByteArrayInputStream(entryData) : null;
+  }
+
+  public Manifest getManifest() throws IOException {
+    byte[] manifestData = readEntry(MANIFEST_FILE);
+    return manifestData != null ? new Manifest(new ByteArrayInputStream(manifestData)) : null;
+  }
+
+  /** Returns the names of all entries, which should be only used for rare special cases. */
+  public List<String> getEntryNames() {
+    List<String> entryNames = new ArrayList<>(this.numEntries);
+    visitEntryNames(
+        (nameBuffer, offset, length) -> {
+          entryNames.add(decodeName(offset, length));
+          return true;
+        });
+    return entryNames;
+  }
+
+  /**
+   * Visits the raw names of all entries in the order of the central directory, without creating any
+   * objects for them. The iteration stops as soon as the visitor returns {@code false}.
+   */
+  public void visitEntryNames(EntryNameVisitor visitor) {
+    int position = 0;
+    int limit = this.centralDirectory.limit();
+    while (position + CENTRAL_DIRECTORY_HEADER_SIZE <= limit
+        && this.centralDirectory.getInt(position) == CENTRAL_DIRECTORY_SIGNATURE) {
+      int nameLength = getUnsignedShort(this.centralDirectory, position + 28);
+      if (!visitor.visit(
+          this.centralDirectory, position + CENTRAL_DIRECTORY_HEADER_SIZE, nameLength)) {
+        return;
+      }
+      position = getNextEntryPosition(position);
+    }
+  }
+
+  /**
+   * Indexes all files in the given directories (including their sub-directories) with the given
+   * file extension, like the embedded jar files of a mod file, so that they could be read with
+   * {@link #readEntry(String)}. The entry mask is not changed by these entries.
+   *
+   * @return the names of the indexed entries in the order of the central directory
+   */
+  public List<String> indexEntries(List<String> directories, String fileExtension)
+      throws ZipException {
+    byte[][] directoryBytes = new byte[directories.size()][];
+    for (int i = 0; i < directories.size(); i++) {
+      directoryBytes[i] = directories.get(i).getBytes(StandardCharsets.UTF_8);
+    }
+    byte[] fileExtensionBytes = fileExtension.getBytes(StandardCharsets.UTF_8);
+
+    List<String> entryNames = new ArrayList<>();
+    int position = 0;
+    int limit = this.centralDirectory.limit();
+    while (position + CENTRAL_DIRECTORY_HEADER_SIZE <= limit) {
+      if (this.centralDirectory.getInt(position) != CENTRAL_DIRECTORY_SIGNATURE) {
+        throw new ZipException("Invalid central directory header in " + this.name);
+      }
+      int nameLength = getUnsignedShort(this.centralDirectory, position + 28);
+      int namePosition = position + CENTRAL_DIRECTORY_HEADER_SIZE;
+      if (nameLength > fileExtensionBytes.length
+          && matchesName(
+              namePosition + nameLength - fileExtensionBytes.length,
+              fileExtensionBytes.length,
+              fileExtensionBytes)) {
+        for (byte[] directory : directoryBytes) {
+          if (nameLength > directory.length + fileExtensionBytes.length
+              && matchesName(namePosition, directory.length, directory)) {
+            String entryName = decodeName(namePosition, nameLength);
+            if (this.entries.putIfAbsent(entryName, readEntryHeader(position, nameLength))
+                == null) {
+              entryNames.add(entryName);
+            }
+            break;
+          }
+        }
+      }
+      position = getNextEntryPosition(position);
+    }
+    return entryNames;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.fileChannel != null) {
+      this.fileChannel.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.name;
+  }
+
+  private void indexEntries(List<String> entryNames) throws ZipException {
+    if (entryNames.size() > Integer.SIZE) {
+      throw new IllegalArgumentException("Too many entry names: " + entryNames.size());
+    }
+    byte[][] entryNameBytes = new byte[entryNames.size()][];
+    int maxNameLength = 0;
+    for (int i = 0; i < entryNames.size(); i++) {
+      entryNameBytes[i] = entryNames.get(i).getBytes(StandardCharsets.UTF_8);
+      maxNameLength = Math.max(maxNameLength, entryNameBytes[i].length);
+    }
+
+    // Group the entry names by their length, so that every central directory entry is only
+    // compared with the entry names of the same length, independent of the number of entry names.
+    int[] nameLengthMasks = new int[maxNameLength + 1];
+    for (int i = 0; i < entryNameBytes.length; i++) {
+      nameLengthMasks[entryNameBytes[i].length] |= 1 << i;
+    }
+
+    int position = 0;
+    int limit = this.centralDirectory.limit();
+    while (position + CENTRAL_DIRECTORY_HEADER_SIZE <= limit) {
+      if (this.centralDirectory.getInt(position) != CENTRAL_DIRECTORY_SIGNATURE) {
+        throw new ZipException("Invalid central directory header in " + this.name);
+      }
+      int nameLength = getUnsignedShort(this.centralDirectory, position + 28);
+      int namePosition = position + CENTRAL_DIRECTORY_HEADER_SIZE;
+      int candidates = nameLength <= maxNameLength ? nameLengthMasks[nameLength] : 0;
+      while (candidates != 0) {
+        int i = Integer.numberOfTrailingZeros(candidates);
+        candidates &= candidates - 1;
+        if (matchesName(namePosition, nameLength, entryNameBytes[i])) {
+          if (this.entries.putIfAbsent(entryNames.get(i), readEntryHeader(position, nameLength))
+              == null) {
+            this.entryMask |= 1 << i;
+          }
+          break;
+        }
+      }
+      position = getNextEntryPosition(position);
+    }
+  }
+
+  private int getNextEntryPosition(int position) {
+    return position
+        + CENTRAL_DIRECTORY_HEADER_SIZE
+        + getUnsignedShort(this.centralDirectory, position + 28)
+        + getUnsignedShort(this.centralDirectory, position + 30)
+        + getUnsignedShort(this.centralDirectory, position + 32);
+  }
+
+  private boolean matchesName(int namePosition, int nameLength, byte[] entryName) {
+    if (nameLength != entryName.length) {
+      return false;
+    }
+    for (int i = 0; i < nameLength; i++) {
+      if (this.centralDirectory.get(namePosition + i) != entryName[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String decodeName(int namePosition, int nameLength) {
+    byte[] nameBytes = new byte[nameLength];
+    this.centralDirectory.get(namePosition, nameBytes);
+    return new String(nameBytes, StandardCharsets.UTF_8);
+  }
+
+  private Entry readEntryHeader(int position, int nameLength) {
+    int method = getUnsignedShort(this.centralDirectory, position + 10);
+    long compressedSize = getUnsignedInt(this.centralDirectory, position + 20);
+    long uncompressedSize = getUnsignedInt(this.centralDirectory, position + 24);
+    int extraLength = getUnsignedShort(this.centralDirectory, position + 30);
+    long localHeaderOffset = getUnsignedInt(this.centralDirectory, position + 42);
+    boolean isDirectory =
+        nameLength > 0
+            && this.centralDirectory.get(position + CENTRAL_DIRECTORY_HEADER_SIZE + nameLength - 1)
+                == '/';
+
+    // Read Zip64 extra field, if any of the values is too large for the normal header.
+    if (uncompressedSize == 0xFFFFFFFFL
+        || compressedSize == 0xFFFFFFFFL
+        || localHeaderOffset == 0xFFFFFFFFL) {
+      int extraPosition = position + CENTRAL_DIRECTORY_HEADER_SIZE + nameLength;
+      int extraLimit = extraPosition + extraLength;
+      while (extraPosition + 4 <= extraLimit) {
+        int headerId = getUnsignedShort(this.centralDirectory, extraPosition);
+        int dataSize = getUnsignedShort(this.centralDirectory, extraPosition + 2);
+        if (headerId == ZIP64_EXTRA_FIELD_ID) {
+          int valuePosition = extraPosition + 4;
+          if (uncompressedSize == 0xFFFFFFFFL) {
+            uncompressedSize = this.centralDirectory.getLong(valuePosition);
+            valuePosition += 8;
+          }
+          if (compressedSize == 0xFFFFFFFFL) {
+            compressedSize = this.centralDirectory.getLong(valuePosition);
+            valuePosition += 8;
+          }
+          if (localHeaderOffset == 0xFFFFFFFFL) {
+            localHeaderOffset = this.centralDirectory.getLong(valuePosition);
+          }
+          break;
+        }
+        extraPosition += 4 + dataSize;
+      }
+    }
+    return new Entry(
+        method, compressedSize, uncompressedSize, localHeaderOffset + this.offsetBias, isDirectory);
+  }
+
+  private static boolean isEntryReadable(Entry entry) {
+    return entry.compressedSize() <= MAX_ENTRY_SIZE && entry.uncompressedSize() <= MAX_ENTRY_SIZE;
+  }
+
+  private byte[] readEntry(Entry entry) throws IOException {
+    if (!isEntryReadable(entry)) {
+      throw new ZipException("Entry is too large in " + this.name);
+    }
+
+    // Read local file header to get the actual position of the data. The local file header and the
+    // compressed data are read into the same reusable buffer of the current thread.
+    DescriptorBuffers descriptorBuffers = DescriptorBuffers.get();
+    ByteBuffer localHeader =
+        read(
+            entry.localHeaderOffset(),
+            LOCAL_FILE_HEADER_SIZE,
+            descriptorBuffers.getByteBuffer(LOCAL_FILE_HEADER_SIZE));
+    if (localHeader.getInt(0) != LOCAL_FILE_HEADER_SIGNATURE) {
+      throw new ZipException("Invalid local file header in " + this.name);
+    }
+    long dataOffset =
+        entry.localHeaderOffset()
+            + LOCAL_FILE_HEADER_SIZE
+            + getUnsignedShort(localHeader, 26)
+            + getUnsignedShort(localHeader, 28);
+    ByteBuffer compressedData =
+        read(
+            dataOffset,
+            (int) entry.compressedSize(),
+            descriptorBuffers.getByteBuffer((int) entry.compressedSize()));
+
+    if (entry.method() == METHOD_STORED) {
+      byte[] result = new byte[compressedData.remaining()];
+      compressedData.get(result);
+      return result;
+    } else if (entry.method() == METHOD_DEFLATED) {
+      Inflater inflater = descriptorBuffers.getInflater();
+      try {
+        inflater.setInput(compressedData);
+        byte[] result = new byte[(int) entry.uncompressedSize()];
+        int numBytes = 0;
+        while (numBytes < result.length && !inflater.finished()) {
+          int inflatedBytes = inflater.inflate(result, numBytes, result.length - numBytes);
+          if (inflatedBytes == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+            break;
+          }
+          numBytes += inflatedBytes;
+        }
+        if (numBytes != result.length) {
+          throw new ZipException("Unexpected end of deflated entry in " + this.name);
+        }
+        return result;
+      } catch (DataFormatException e) {
+        throw new ZipException("Invalid deflated entry in " + this.name + ": " + e.getMessage());
+      }
+    }
+    throw new ZipException("Unsupported compression method " + entry.method() + " in " + name);
+  }
+
+  private long[] readEndOfCentralDirectory() throws IOException {
+    if (this.size < END_OF_CENTRAL_DIRECTORY_SIZE) {
+      throw new ZipException("File is too small to be a zip file: " + this.name);
+    }
+
+    // Most jar files have no comment, so a small read at the end is normally enough.
+    long endOfCentralDirectoryPosition =
+        findEndOfCentralDirectory(Math.min(this.size, INITIAL_TAIL_SIZE));
+    if (endOfCentralDirectoryPosition < 0 && this.size > INITIAL_TAIL_SIZE) {
+      endOfCentralDirectoryPosition =
+          findEndOfCentralDirectory(
+              Math.min(this.size, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE));
+    }
+    if (endOfCentralDirectoryPosition < 0) {
+      throw new ZipException("Unable to find end of central directory in " + this.name);
+    }
+
+    ByteBuffer endOfCentralDirectory =
+        read(endOfCentralDirectoryPosition, END_OF_CENTRAL_DIRECTORY_SIZE);
+    long numEntries = getUnsignedShort(endOfCentralDirectory, 10);
+    long centralDirectorySize = getUnsignedInt(endOfCentralDirectory, 12);
+    long centralDirectoryOffset = getUnsignedInt(endOfCentralDirectory, 16);
+
+    // Use Zip64 end of central directory, if needed.
+    if ((numEntries == 0xFFFF
+            || centralDirectorySize == 0xFFFFFFFFL
+            || centralDirectoryOffset == 0xFFFFFFFFL)
+        && endOfCentralDirectoryPosition >= ZIP64_LOCATOR_SIZE) {
+      ByteBuffer locator =
+          read(endOfCentralDirectoryPosition - ZIP64_LOCATOR_SIZE, ZIP64_LOCATOR_SIZE);
+      if (locator.getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+        ByteBuffer zip64EndOfCentralDirectory =
+            read(locator.getLong(8), ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE);
+        if (zip64EndOfCentralDirectory.getInt(0) == ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+          return new long[] {
+            zip64EndOfCentralDirectory.getLong(32),
+            zip64EndOfCentralDirectory.getLong(40),
+            zip64EndOfCentralDirectory.getLong(48),
+            0
+          };
+        }
+      }
+    }
+
+    // Correct offsets for jar files with prepended data.
+    long offsetBias =
+        Math.max(0, endOfCentralDirectoryPosition - centralDirectorySize - centralDirectoryOffset);
+    return new long[] {
+      numEntries, centralDirectorySize, centralDirectoryOffset + offsetBias, offsetBias
+    };
+  }
+
+  private long findEndOfCentralDirectory(long tailSize) throws IOException {
+    long tailPosition = this.size - tailSize;
+    ByteBuffer tail = read(tailPosition, (int) tailSize);
+    for (int i = (int) tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+      if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+        return tailPosition + i;
+      }
+    }
+    return -1;
+  }
+
+  private ByteBuffer read(long position, int length) throws IOException {
+    if (this.data != null) {
+      return read(position, length, null);
+    }
+    return read(position, length, ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN));
+  }
+
+  /**
+   * Reads the given range into the given little endian buffer, which must have a limit of the given
+   * length. In-memory archives are returning a slice of their data instead.
+   */
+  private ByteBuffer read(long position, int length, ByteBuffer byteBuffer) throws IOException {
+    if (position < 0 || length < 0 || position + length > this.size) {
+      throw new ZipException("Invalid read at " + position + " in " + this.name);
+    }
+    if (this.data != null) {
+      return this.data.slice((int) position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    while (byteBuffer.hasRemaining()) {
+      int numBytes = this.fileChannel.read(byteBuffer, position + byteBuffer.position());
+      if (numBytes < 0) {
+        throw new ZipException("Unexpected end of file in " + this.name);
+      }
+    }
+    return byteBuffer.flip();
+  }
+
+  private static int getUnsignedShort(ByteBuffer byteBuffer, int position) {
+    return Short.toUnsignedInt(byteBuffer.getShort(position));
+  }
+
+  private static long getUnsignedInt(ByteBuffer byteBuffer, int position) {
+    return Integer.toUnsignedLong(byteBuffer.getInt(position));
+  }
+
+  @FunctionalInterface
+  public interface EntryNameVisitor {
+
+    /**
+     * Visits the UTF-8 encoded name of an entry, which is stored in the given buffer at the given
+     * offset. The buffer must not be modified or stored.
+     */
+    boolean visit(ByteBuffer nameBuffer, int offset, int length);
+  }
+
+  private record Entry(
+      int method,
+      long compressedSize,
+      long uncompressedSize,
+      long localHeaderOffset,
+      boolean isDirectory) {}
+}
@@ -23,14 +23,27 @@ import de.markusbordihn.modsoptimizer.Constants;
 import de.markusbordihn.modsoptimizer.config.ModsDatabaseConfig;
 import de.markusbordihn.modsoptimizer.data.ModFileData.ModEnvironment;
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.jar.JarFile;
-import java.util.jar.Manifest;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ModData {
 
@@ -39,15 +52,18 @@ public class ModData {
 
   private static final String OVERVIEW_SEPARATOR = "-".repeat(115);
 
-  private static final Map<String, Set<ModFileData>> duplicatedModsMap = new HashMap<>();
-  private static final Map<String, ModFileData> knownModsMap = new HashMap<>();
-  private static final Set<ModFileData> clientModsSet = new HashSet<>();
-  private static final Set<ModFileData> dataPackModsSet = new HashSet<>();
-  private static final Set<ModFileData> serverModsSet = new HashSet<>();
-  private static final Set<ModFileData> serviceModsSet = new HashSet<>();
-  private static final Set<ModFileData> libraryModsSet = new HashSet<>();
-  private static final Set<ModFileData> defaultModsSet = new HashSet<>();
-  private static final Set<ModFileData> languageProviderModsSet = new HashSet<>();
+  private static final Map<Path, ModFileData> modFilesMap = new ConcurrentSkipListMap<>();
+  private static final Map<String, Set<ModFileData>> duplicatedModsMap =
+      new ConcurrentSkipListMap<>();
+  private static final Map<String, ModFileData> knownModsMap = new ConcurrentSkipListMap<>();
+  private static final Set<ModFileData> nestedModsSet = ConcurrentHashMap.newKeySet();
+  private static final Set<ModFileData> clientModsSet = ConcurrentHashMap.newKeySet();
+  private static final Set<ModFileData> dataPackModsSet = ConcurrentHashMap.newKeySet();
+  private static final Set<ModFileData> serverModsSet = ConcurrentHashMap.newKeySet();
+  private static final Set<ModFileData> serviceModsSet = ConcurrentHashMap.newKeySet();
+  private static final Set<ModFileData> libraryModsSet = ConcurrentHashMap.newKeySet();
+  private static final Set<ModFileData> defaultModsSet = ConcurrentHashMap.newKeySet();
+  private static final Set<ModFileData> languageProviderModsSet = ConcurrentHashMap.newKeySet();
 
   protected ModData() {}
 
@@ -55,86 +71,313 @@ public class ModData {
     parseMods(modPath, FILE_EXTENSION);
   }
 
-  public static void parseMods(File modPath, String fileExtension) {
-    if (modPath == null || !modPath.exists()) {
-      Constants.LOG.error("{} ⚠ Unable to find valid mod path: {}", LOG_PREFIX, modPath);
+  public static synchronized void parseMods(File modPath, String fileExtension) {
+    List<Path> modFileList = listModFiles(modPath, fileExtension);
+    if (modFileList == null) {
       return;
     }
 
-    // Read mods directory.
-    File[] modsFiles = modPath.listFiles();
-    if (modsFiles == null) {
-      Constants.LOG.error("{} ⚠ Unable to find valid mod files in path: {}", LOG_PREFIX, modPath);
-      return;
+    // Load scan cache, to avoid re-opening unchanged mod files.
+    if (ModsDatabaseConfig.isScanCacheEnabled()) {
+      ModScanCache.load();
     }
 
     // Parsing mods.
+    int numThreads = Math.min(ModsDatabaseConfig.getParallelScanThreads(), modFileList.size());
     Constants.LOG.info(
-        "{} parsing ~{} mods in {} with file extension {} ...",
+        "{} parsing ~{} mods in {} with file extension {} and {} thread(s) ...",
         LOG_PREFIX,
-        modsFiles.length,
+        modFileList.size(),
         modPath,
-        fileExtension);
-    for (File modFile : modsFiles) {
-      String modFileName = modFile.getName();
-      if (modFileName.endsWith(fileExtension)) {
-        ModFileData modFileData = readModInfo(modFile);
-        if (modFileData != null && modFileData.id() != null && !modFileData.id().isEmpty()) {
+        fileExtension,
+        Math.max(1, numThreads));
+    List<ModFileData> modFileDataList = readModInfos(modFileList, numThreads);
+
+    // Merge results in file name order, so that the results are independent of the thread timing.
+    modFilesMap.clear();
+    for (int i = 0; i < modFileList.size(); i++) {
+      Path modFile = modFileList.get(i);
+      ModFileData modFileData = modFileDataList.get(i);
+      if (modFileData != null && modFileData.id() != null && !modFileData.id().isEmpty()) {
+        modFilesMap.put(getModFileKey(modFile), modFileData);
+      } else {
+        Constants.LOG.error(
+            "{} ⚠ Unable to parse mod file {} in {}",
+            LOG_PREFIX,
+            modFile.getFileName(),
+            modFile.toAbsolutePath());
+      }
+    }
+    rebuildModIndexes();
+
+    // Store scan cache for the next start.
+    if (ModsDatabaseConfig.isScanCacheEnabled()) {
+      ModScanCache.save();
+    }
 
-          // Check for duplicated mods.
-          if (!modFileData.id().equals(ModFileData.EMPTY_MOD_ID)) {
-            if (knownModsMap.containsKey(modFileData.id())) {
-              Constants.LOG.error(
-                  "{} ⚠ Duplicated mod {} found in {} and {}",
-                  LOG_PREFIX,
-                  modFileData.id(),
-                  modFileData.path(),
-                  knownModsMap.get(modFileData.id()).path());
-              if (!duplicatedModsMap.containsKey(modFileData.id())) {
-                duplicatedModsMap.put(modFileData.id(), new HashSet<>());
-              }
-              duplicatedModsMap.get(modFileData.id()).add(modFileData);
-              duplicatedModsMap.get(modFileData.id()).add(knownModsMap.get(modFileData.id()));
-            } else {
-              knownModsMap.put(modFileData.id(), modFileData);
-            }
-          }
-
-          // Add mods to environment specific mod list.
-          if (modFileData.environment() == ModEnvironment.CLIENT) {
-            clientModsSet.add(modFileData);
-          } else if (modFileData.environment() == ModEnvironment.SERVER) {
-            serverModsSet.add(modFileData);
-          } else if (modFileData.environment() == ModEnvironment.SERVICE) {
-            serviceModsSet.add(modFileData);
-          } else if (modFileData.environment() == ModEnvironment.LIBRARY) {
-            libraryModsSet.add(modFileData);
-          } else if (modFileData.environment() == ModEnvironment.LANGUAGE_PROVIDER) {
-            languageProviderModsSet.add(modFileData);
-          } else if (modFileData.environment() == ModEnvironment.DATA_PACK) {
-            dataPackModsSet.add(modFileData);
-          } else {
-            defaultModsSet.add(modFileData);
-          }
+    // The mod files could be changed after the scan, so the directory snapshot is outdated.
+    DirectorySnapshot.invalidate();
+
+    showStats();
+    showOverview();
+  }
+
+  /**
+   * Reads the mod data from the scan cache and only parses the mod files, which are new or changed
+   * since the last scan. The uncached mod files are parsed before the mod indexes are rebuilt, so
+   * that the duplicate and environment decisions of this start are covering all mod files.
+   *
+   * @return the mod files, which were read from the scan cache and are not verified yet
+   */
+  public static synchronized List<Path> parseCachedMods(File modPath, String fileExtension) {
+    List<Path> modFileList = listModFiles(modPath, fileExtension);
+    if (modFileList == null) {
+      return List.of();
+    }
+    if (!ModScanCache.isLoaded()) {
+      ModScanCache.load();
+    }
+
+    modFilesMap.clear();
+    List<Path> cachedModFiles = new ArrayList<>();
+    List<Path> uncachedModFiles = new ArrayList<>();
+    for (Path modFile : modFileList) {
+      ModFileData modFileData = readCachedModInfo(modFile);
+      if (modFileData != null) {
+        modFilesMap.put(getModFileKey(modFile), modFileData);
+        cachedModFiles.add(modFile);
+      } else {
+        uncachedModFiles.add(modFile);
+      }
+    }
+
+    // Parse new and changed mod files, which are usually only a few.
+    if (!uncachedModFiles.isEmpty()) {
+      int numThreads =
+          Math.min(ModsDatabaseConfig.getParallelScanThreads(), uncachedModFiles.size());
+      List<ModFileData> modFileDataList = readModInfos(uncachedModFiles, numThreads);
+      for (int i = 0; i < uncachedModFiles.size(); i++) {
+        Path modFile = uncachedModFiles.get(i);
+        ModFileData modFileData = modFileDataList.get(i);
+        if (modFileData != null && modFileData.id() != null && !modFileData.id().isEmpty()) {
+          modFilesMap.put(getModFileKey(modFile), modFileData);
         } else {
           Constants.LOG.error(
               "{} ⚠ Unable to parse mod file {} in {}",
               LOG_PREFIX,
-              modFileName,
-              modFile.getAbsolutePath());
+              modFile.getFileName(),
+              modFile.toAbsolutePath());
         }
+      }
+      ModScanCache.save();
+    }
+    rebuildModIndexes();
+    DirectorySnapshot.invalidate();
+    Constants.LOG.info(
+        "{} Read {} cached mods and parsed {} new or changed mods in {}.",
+        LOG_PREFIX,
+        cachedModFiles.size(),
+        uncachedModFiles.size(),
+        modPath);
+
+    showStats();
+    return cachedModFiles;
+  }
+
+  private static List<Path> listModFiles(File modPath, String fileExtension) {
+    if (modPath == null || !modPath.exists()) {
+      Constants.LOG.error("{} ⚠ Unable to find valid mod path: {}", LOG_PREFIX, modPath);
+      return null;
+    }
+
+    // Read mods directory with the attributes of all mod files in one walk.
+    DirectorySnapshot directorySnapshot = DirectorySnapshot.get(modPath.toPath());
+    if (directorySnapshot == null) {
+      Constants.LOG.error("{} ⚠ Unable to find valid mod files in path: {}", LOG_PREFIX, modPath);
+      return null;
+    }
+
+    // Mod files are sorted by name, to get a deterministic order for the duplicate detection.
+    List<Path> modFileList = new ArrayList<>();
+    for (DirectorySnapshot.Entry entry : directorySnapshot.getEntries()) {
+      if (entry.name().endsWith(fileExtension)) {
+        modFileList.add(entry.path());
       } else {
         Constants.LOG.debug(
             "{} ⚠ Ignore mod file {} in {} with file extension {}",
             LOG_PREFIX,
-            modFileName,
-            modFile.getAbsolutePath(),
+            entry.name(),
+            entry.path(),
             fileExtension);
       }
     }
+    return modFileList;
+  }
 
+  /**
+   * Updates the mod data for the given changed and removed mod files, without re-scanning the
+   * whole mods directory. Changed mod files are re-parsed (or taken from the scan cache) and all
+   * known, duplicated and environment specific mod sets are rebuilt afterwards.
+   */
+  public static synchronized void updateMods(
+      Collection<Path> changedModFiles, Collection<Path> removedModFiles) {
+    for (Path removedModFile : removedModFiles) {
+      if (modFilesMap.remove(getModFileKey(removedModFile)) != null) {
+        Constants.LOG.info("{} Removed mod file {}", LOG_PREFIX, removedModFile);
+      }
+      ModScanCache.remove(removedModFile);
+    }
+    for (Path changedModFile : changedModFiles) {
+      ModFileData modFileData =
+          Files.isRegularFile(changedModFile) ? readModInfo(changedModFile) : null;
+      if (modFileData != null && modFileData.id() != null && !modFileData.id().isEmpty()) {
+        Constants.LOG.info("{} Updated mod file {}: {}", LOG_PREFIX, changedModFile, modFileData);
+        modFilesMap.put(getModFileKey(changedModFile), modFileData);
+      } else if (modFilesMap.remove(getModFileKey(changedModFile)) != null) {
+        Constants.LOG.error("{} ⚠ Unable to parse changed mod file {}", LOG_PREFIX, changedModFile);
+      }
+    }
+    DescriptorBuffers.release();
+    rebuildModIndexes();
+    if (ModsDatabaseConfig.isScanCacheEnabled()) {
+      ModScanCache.save();
+    }
     showStats();
-    showOverview();
+  }
+
+  private static List<ModFileData> readModInfos(List<Path> modFiles, int numThreads) {
+    List<ModFileData> result = new ArrayList<>(Collections.nCopies(modFiles.size(), null));
+    if (numThreads <= 1) {
+      for (int i = 0; i < modFiles.size(); i++) {
+        result.set(i, readModInfo(modFiles.get(i)));
+      }
+      DescriptorBuffers.release();
+      return result;
+    }
+
+    ExecutorService executorService =
+        Executors.newFixedThreadPool(numThreads, new ScanThreadFactory());
+    try {
+      List<Callable<ModFileData>> tasks = new ArrayList<>(modFiles.size());
+      for (Path modFile : modFiles) {
+        tasks.add(() -> readModInfo(modFile));
+      }
+      List<Future<ModFileData>> futures = executorService.invokeAll(tasks);
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          result.set(i, futures.get(i).get());
+        } catch (ExecutionException e) {
+          Constants.LOG.error(
+              "{} ⚠ Unable to read mod file {}:", LOG_PREFIX, modFiles.get(i), e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Constants.LOG.error("{} ⚠ Parsing of mod files was interrupted!", LOG_PREFIX);
+      Thread.currentThread().interrupt();
+    } finally {
+      executorService.shutdownNow();
+    }
+    return result;
+  }
+
+  private static Path getModFileKey(Path modFile) {
+    return modFile.toAbsolutePath().normalize();
+  }
+
+  private static void rebuildModIndexes() {
+    knownModsMap.clear();
+    duplicatedModsMap.clear();
+    nestedModsSet.clear();
+    clientModsSet.clear();
+    dataPackModsSet.clear();
+    serverModsSet.clear();
+    serviceModsSet.clear();
+    libraryModsSet.clear();
+    defaultModsSet.clear();
+    languageProviderModsSet.clear();
+
+    // Mod files are sorted by path, which keeps the duplicate detection deterministic.
+    for (ModFileData modFileData : modFilesMap.values()) {
+      addModFileData(modFileData);
+    }
+
+    // Embedded mods are added after all mod files, so that the known mods are preferring the mod
+    // files. They are not used for the environment sets, because they could not be removed or
+    // disabled on their own. Only conflicts with a different version of a mod file are reported,
+    // because libraries which are embedded by several mods are expected.
+    for (ModFileData modFileData : modFilesMap.values()) {
+      for (ModFileData nestedModFileData : modFileData.nestedMods()) {
+        nestedModsSet.add(nestedModFileData);
+        addNestedModFileData(nestedModFileData);
+      }
+    }
+  }
+
+  private static void addModFileData(ModFileData modFileData) {
+    addKnownModFileData(modFileData);
+
+    // Add mods to environment specific mod list.
+    if (modFileData.environment() == ModEnvironment.CLIENT) {
+      clientModsSet.add(modFileData);
+    } else if (modFileData.environment() == ModEnvironment.SERVER) {
+      serverModsSet.add(modFileData);
+    } else if (modFileData.environment() == ModEnvironment.SERVICE) {
+      serviceModsSet.add(modFileData);
+    } else if (modFileData.environment() == ModEnvironment.LIBRARY) {
+      libraryModsSet.add(modFileData);
+    } else if (modFileData.environment() == ModEnvironment.LANGUAGE_PROVIDER) {
+      languageProviderModsSet.add(modFileData);
+    } else if (modFileData.environment() == ModEnvironment.DATA_PACK) {
+      dataPackModsSet.add(modFileData);
+    } else {
+      defaultModsSet.add(modFileData);
+    }
+  }
+
+  private static void addNestedModFileData(ModFileData nestedModFileData) {
+    if (nestedModFileData.id().equals(ModFileData.EMPTY_MOD_ID)) {
+      return;
+    }
+    ModFileData knownModFileData =
+        knownModsMap.putIfAbsent(nestedModFileData.id(), nestedModFileData);
+    if (knownModFileData != null
+        && !nestedModsSet.contains(knownModFileData)
+        && nestedModFileData.versionKey().compareTo(knownModFileData.versionKey()) != 0) {
+      Constants.LOG.warn(
+          "{} ⚠ Embedded mod {} {} in {} conflicts with {} {} in {}",
+          LOG_PREFIX,
+          nestedModFileData.id(),
+          nestedModFileData.version(),
+          nestedModFileData.path(),
+          knownModFileData.id(),
+          knownModFileData.version(),
+          knownModFileData.path());
+      Set<ModFileData> duplicatedMods =
+          duplicatedModsMap.computeIfAbsent(
+              nestedModFileData.id(), id -> Collections.synchronizedSet(new LinkedHashSet<>()));
+      duplicatedMods.add(knownModFileData);
+      duplicatedMods.add(nestedModFileData);
+    }
+  }
+
+  private static void addKnownModFileData(ModFileData modFileData) {
+    // Check for duplicated mods.
+    if (!modFileData.id().equals(ModFileData.EMPTY_MOD_ID)) {
+      ModFileData knownModFileData = knownModsMap.putIfAbsent(modFileData.id(), modFileData);
+      if (knownModFileData != null) {
+        Constants.LOG.error(
+            "{} ⚠ Duplicated mod {} found in {} and {}",
+            LOG_PREFIX,
+            modFileData.id(),
+            modFileData.path(),
+            knownModFileData.path());
+        Set<ModFileData> duplicatedMods =
+            duplicatedModsMap.computeIfAbsent(
+                modFileData.id(), id -> Collections.synchronizedSet(new LinkedHashSet<>()));
+        duplicatedMods.add(knownModFileData);
+        duplicatedMods.add(modFileData);
+      }
+    }
   }
 
   private static void showStats() {
@@ -145,6 +388,13 @@ public class ModData {
           duplicatedModsMap.size(),
           knownModsMap.size());
     }
+    if (!nestedModsSet.isEmpty()) {
+      Constants.LOG.info(
+          "{} Found {} embedded mods in {} mods.",
+          LOG_PREFIX,
+          nestedModsSet.size(),
+          knownModsMap.size());
+    }
     if (!languageProviderModsSet.isEmpty()) {
       Constants.LOG.info(
           "{} Found {} language provider mods in {} mods.",
@@ -231,63 +481,165 @@ public class ModData {
     return readModInfo(modFile.toPath());
   }
 
+  public static Set<Path> getModFiles() {
+    return new HashSet<>(modFilesMap.keySet());
+  }
+
+  public static ModFileData getModFileData(Path modFile) {
+    return modFilesMap.get(getModFileKey(modFile));
+  }
+
   public static Set<ModFileData> getKnownMods() {
     return new HashSet<>(knownModsMap.values());
   }
 
+  /** Returns the mods, which are embedded in the jar files of other mods. */
+  public static Set<ModFileData> getNestedMods() {
+    return new HashSet<>(nestedModsSet);
+  }
+
+  public static boolean isNestedMod(ModFileData modFileData) {
+    return nestedModsSet.contains(modFileData);
+  }
+
   public static Set<ModFileData> getClientMods() {
     return new HashSet<>(clientModsSet);
   }
 
   public static Map<String, Set<ModFileData>> getDuplicatedMods() {
-    return new HashMap<>(duplicatedModsMap);
+    return new LinkedHashMap<>(duplicatedModsMap);
   }
 
   public static ModFileData readModInfo(Path modFile) {
-    try (JarFile jarFile = new JarFile(modFile.toFile())) {
-      // Read manifest
-      Manifest manifest = jarFile.getManifest();
-      if (manifest == null) {
-        Constants.LOG.warn(
-            "{} ⚠ Unable to read manifest from mod file {}, which is expected in some cases.",
+    return readModInfo(modFile, true, true);
+  }
+
+  /** Reads the mod data only from the scan cache and returns null for new or changed files. */
+  public static ModFileData readCachedModInfo(Path modFile) {
+    return readModInfo(modFile, true, false);
+  }
+
+  /** Parses the mod file without the scan cache and updates the scan cache with the result. */
+  public static ModFileData readUncachedModInfo(Path modFile) {
+    return readModInfo(modFile, false, true);
+  }
+
+  private static ModFileData readModInfo(Path modFile, boolean useCache, boolean parse) {
+    long startTime = System.nanoTime();
+    ScanMetrics.beginJar();
+
+    // Use cached mod file data for unchanged mod files, if available.
+    ModFileData modFileData = useCache ? ModScanCache.get(modFile) : null;
+    boolean cached = modFileData != null;
+    if (cached) {
+      ScanMetrics.count(ScanMetrics.Heuristic.SCAN_CACHE_HIT);
+    } else {
+      if (useCache && ModScanCache.isLoaded()) {
+        ScanMetrics.count(ScanMetrics.Heuristic.SCAN_CACHE_MISS);
+      }
+      modFileData = parse ? parseModInfo(modFile) : null;
+      if (modFileData == null) {
+        ScanMetrics.endJar(modFile, System.nanoTime() - startTime, false);
+        return null;
+      }
+    }
+
+    // Check local mods database and update mod environment, if needed.
+    if (ModsDatabaseConfig.containsMod(modFileData.id())) {
+      ModEnvironment modEnvironment = ModsDatabaseConfig.getModEnvironment(modFileData.id());
+      if (modEnvironment != modFileData.environment()) {
+        Constants.LOG.info(
+            "{} Overwrite mod environment for {} from {} to {}",
             LOG_PREFIX,
-            modFile);
+            modFileData.id(),
+            modFileData.environment(),
+            modEnvironment);
+        ScanMetrics.count(ScanMetrics.Heuristic.ENVIRONMENT_OVERRIDE);
+        modFileData =
+            new ModFileData(
+                modFileData.path(),
+                modFileData.id(),
+                modFileData.modType(),
+                modFileData.name(),
+                modFileData.version(),
+                modEnvironment,
+                modFileData.timestamp(),
+                modFileData.versionKey(),
+                modFileData.dependencies(),
+                modFileData.nestedMods());
       }
+    }
+
+    // Debug output
+    if (ModsDatabaseConfig.isDebugEnabled()) {
+      Constants.LOG.info("{} {}", LOG_PREFIX, modFileData);
+    }
 
-      // Parse mod file data
-      ModFileData modFileData = ModFileParser.parseModFile(manifest, modFile, jarFile);
+    ScanMetrics.endJar(modFile, System.nanoTime() - startTime, cached);
+    return modFileData;
+  }
 
-      // Check local mods database and update mod environment, if needed.
-      if (ModsDatabaseConfig.containsMod(modFileData.id())) {
-        ModEnvironment modEnvironment = ModsDatabaseConfig.getModEnvironment(modFileData.id());
-        if (modEnvironment != modFileData.environment()) {
-          Constants.LOG.info(
-              "{} Overwrite mod environment for {} from {} to {}",
-              LOG_PREFIX,
-              modFileData.id(),
-              modFileData.environment(),
-              modEnvironment);
-          modFileData =
-              new ModFileData(
-                  modFileData.path(),
-                  modFileData.id(),
-                  modFileData.modType(),
-                  modFileData.name(),
-                  modFileData.version(),
-                  modEnvironment,
-                  modFileData.timestamp());
+  private static ModFileData parseModInfo(Path modFile) {
+    long startTime = System.nanoTime();
+    try (ModArchive modArchive = ModArchive.open(modFile, ModDescriptorParsers.getEntryNames())) {
+      ScanMetrics.addStageTime(ScanMetrics.Stage.OPEN, System.nanoTime() - startTime);
+
+      // Read all mod descriptors at once.
+      startTime = System.nanoTime();
+      ModDescriptorSnapshot snapshot = ModDescriptorSnapshot.create(modFile, modArchive);
+      ScanMetrics.addStageTime(ScanMetrics.Stage.DESCRIPTOR, System.nanoTime() - startTime);
+
+      // Parse mod file data, without the time which is spent for the version parsing and for the
+      // manifest, which is only read if a parser needs it.
+      startTime = System.nanoTime();
+      long versionTime = ScanMetrics.getStageTime(ScanMetrics.Stage.VERSION);
+      long manifestTime = ScanMetrics.getStageTime(ScanMetrics.Stage.MANIFEST);
+      ModFileData modFileData = ModFileParser.parseModFile(snapshot);
+      ScanMetrics.addStageTime(
+          ScanMetrics.Stage.DESCRIPTOR,
+          System.nanoTime()
+              - startTime
+              - (ScanMetrics.getStageTime(ScanMetrics.Stage.VERSION) - versionTime)
+              - (ScanMetrics.getStageTime(ScanMetrics.Stage.MANIFEST) - manifestTime));
+
+      // Read embedded jar files from memory, without extracting them. Incomplete results, with
+      // skipped embedded jar files because of the shared memory budget, are not cached.
+      boolean nestedScanComplete = true;
+      if (modFileData != null && ModsDatabaseConfig.isNestedScanEnabled()) {
+        NestedModScanner.Result nestedScanResult = NestedModScanner.scan(modFile, modArchive);
+        if (!nestedScanResult.nestedMods().isEmpty()) {
+          modFileData = modFileData.withNestedMods(nestedScanResult.nestedMods());
         }
+        nestedScanComplete = nestedScanResult.complete();
       }
-
-      // Debug output
-      if (ModsDatabaseConfig.isDebugEnabled()) {
-        Constants.LOG.info("{} {}", LOG_PREFIX, modFileData);
+      if (nestedScanComplete) {
+        ModScanCache.put(modFile, modFileData);
       }
-
       return modFileData;
     } catch (Exception e) {
       Constants.LOG.error("{} ⚠ Unable to read mod file {}:", LOG_PREFIX, modFile, e);
     }
     return null;
   }
+
+  private static class ScanThreadFactory implements ThreadFactory {
+
+    private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  runnable.run();
+                } finally {
+                  DescriptorBuffers.release();
+                }
+              },
+              Constants.LOG_NAME + " Scan-" + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+/**
+ * Dependency of a mod from the [[dependencies.&lt;id&gt;]] entries of the mods.toml file. The side
+ * is null, if the dependency has no valid side tag.
+ */
+public record ModDependency(
+    String modId, Type type, String versionRange, Side side, Ordering ordering) {
+
+  public static ModDependency of(ModsTomlData.Dependency dependency) {
+    return new ModDependency(
+        dependency.modId(),
+        Type.of(dependency.type(), dependency.mandatory()),
+        dependency.versionRange(),
+        Side.of(dependency.side()),
+        Ordering.of(dependency.ordering()));
+  }
+
+  /** Returns true, if this is the dependency to the Forge or NeoForge mod loader. */
+  public boolean isModLoader() {
+    return "forge".equals(modId) || "neoforge".equals(modId);
+  }
+
+  public enum Type {
+    REQUIRED,
+    OPTIONAL,
+    INCOMPATIBLE,
+    DISCOURAGED;
+
+    /**
+     * Returns the type for the NeoForge type tag or the Forge mandatory tag. Dependencies without
+     * any of them are required.
+     */
+    public static Type of(String type, Boolean mandatory) {
+      if (type != null) {
+        for (Type value : values()) {
+          if (value.name().equalsIgnoreCase(type)) {
+            return value;
+          }
+        }
+      }
+      return mandatory == null || mandatory ? REQUIRED : OPTIONAL;
+    }
+  }
+
+  public enum Side {
+    BOTH,
+    CLIENT,
+    SERVER;
+
+    public static Side of(String side) {
+      if (side != null) {
+        for (Side value : values()) {
+          if (value.name().equalsIgnoreCase(side)) {
+            return value;
+          }
+        }
+      }
+      return null;
+    }
+  }
+
+  public enum Ordering {
+    NONE,
+    BEFORE,
+    AFTER;
+
+    public static Ordering of(String ordering) {
+      if (ordering != null) {
+        for (Ordering value : values()) {
+          if (value.name().equalsIgnoreCase(ordering)) {
+            return value;
+          }
+        }
+      }
+      return NONE;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.data;
+
+import de.markusbordihn.modsoptimizer.data.ModFileData.ModType;
+import java.util.List;
+
+/**
+ * Parser for the mod descriptors of a single mod loader format. Additional parsers could be
+ * registered as {@link java.util.ServiceLoader} service and are used after the default parsers.
+ *
+ * <p>Parsers are probed before the manifest heuristics, but after the file name based detection
+ * (e.g. {@code -fabric.jar}) and the check for mixed Forge and Fabric mods. Mod files which are
+ * matched by these checks are always parsed by the default parsers.
+ *
+ * <p>All claimed entry names are matched against the central directory in the same pass, so that
+ * every additional format only adds a bit to the entry mask of the {@link ModDescriptorSnapshot}.
+ */
+public interface ModDescriptorParser {
+
+  /** Returns the mod type of the mod files, which are parsed by this parser. */
+  ModType getModType();
+
+  /** Returns the names of the archive entries, which are needed to detect and parse the format. */
+  List<String> getEntryNames();
+
+  /**
+   * Returns true, if the mod file should be parsed by this parser. This is only called if at least
+   * one of the claimed entries was found. Parsers are probed in the order of their matches in the
+   * current mod pack, so the matched entries must not overlap with the ones of other parsers.
+   */
+  boolean matches(ModDescriptorSnapshot snapshot);
+
+  ModFileData parse(ModDescriptorSnapshot snapshot);
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.data;
+
+import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.data.ModFileData.ModType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Registry of all {@link ModDescriptorParser}, with the default parsers and the parsers which are
+ * registered as service. The descriptor based detection probes the parsers in the order of their
+ * matches in the current mod pack, so that the most common mod loader is checked first.
+ */
+public class ModDescriptorParsers {
+
+  private static final String LOG_PREFIX = "[Mod Descriptor Parsers]";
+  private static final int REORDER_INTERVAL = 64;
+
+  private static final List<ModDescriptorParser> parsers = new ArrayList<>();
+  private static final List<String> entryNames = new ArrayList<>(ModArchive.DEFAULT_ENTRY_NAMES);
+  private static final int[] entryMasks;
+  private static final AtomicLongArray matches;
+  private static final AtomicInteger numProbes = new AtomicInteger();
+  private static volatile Integer[] probeOrder;
+
+  static {
+    parsers.addAll(Arrays.asList(DefaultModDescriptorParser.values()));
+    try {
+      ServiceLoader<ModDescriptorParser> serviceLoader =
+          ServiceLoader.load(ModDescriptorParser.class, ModDescriptorParser.class.getClassLoader());
+      for (ModDescriptorParser parser : serviceLoader) {
+        if (addEntryNames(parser)) {
+          Constants.LOG.info("{} Added mod descriptor parser {}", LOG_PREFIX, parser);
+          parsers.add(parser);
+        } else {
+          Constants.LOG.error(
+              "{} ⚠ Ignore mod descriptor parser {} with too many entry names {}",
+              LOG_PREFIX,
+              parser,
+              parser.getEntryNames());
+        }
+      }
+    } catch (ServiceConfigurationError e) {
+      Constants.LOG.error("{} ⚠ Unable to load mod descriptor parsers:", LOG_PREFIX, e);
+    }
+
+    entryMasks = new int[parsers.size()];
+    for (int i = 0; i < parsers.size(); i++) {
+      for (String entryName : parsers.get(i).getEntryNames()) {
+        entryMasks[i] |= 1 << entryNames.indexOf(entryName);
+      }
+    }
+    matches = new AtomicLongArray(parsers.size());
+    probeOrder = new Integer[parsers.size()];
+    Arrays.setAll(probeOrder, i -> i);
+  }
+
+  protected ModDescriptorParsers() {}
+
+  /** Returns all parsers, starting with the default parsers. */
+  public static List<ModDescriptorParser> getParsers() {
+    return Collections.unmodifiableList(parsers);
+  }
+
+  /**
+   * Returns the entry names of all parsers, which starts with {@link
+   * ModArchive#DEFAULT_ENTRY_NAMES} and is used to index the mod files.
+   */
+  public static List<String> getEntryNames() {
+    return Collections.unmodifiableList(entryNames);
+  }
+
+  /** Returns the first parser for the given mod type, which was detected by other hints. */
+  public static ModDescriptorParser getParser(ModType modType) {
+    for (ModDescriptorParser parser : parsers) {
+      if (parser.getModType() == modType) {
+        return parser;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the parser, which matches the found entries of the mod file. Parsers without any found
+   * entry are skipped by their entry mask, without calling them.
+   */
+  public static ModDescriptorParser probe(ModDescriptorSnapshot snapshot) {
+    int descriptorMask = snapshot.getDescriptorMask();
+    for (int index : probeOrder) {
+      if ((entryMasks[index] & descriptorMask) != 0 && parsers.get(index).matches(snapshot)) {
+        matches.incrementAndGet(index);
+        if (numProbes.incrementAndGet() % REORDER_INTERVAL == 0) {
+          updateProbeOrder();
+        }
+        return parsers.get(index);
+      }
+    }
+    return null;
+  }
+
+  private static void updateProbeOrder() {
+    Integer[] newProbeOrder = probeOrder.clone();
+    Arrays.sort(newProbeOrder, Comparator.comparingLong(index -> -matches.get(index)));
+    probeOrder = newProbeOrder;
+  }
+
+  private static boolean addEntryNames(ModDescriptorParser parser) {
+    List<String> newEntryNames = new ArrayList<>();
+    for (String entryName : parser.getEntryNames()) {
+      if (!entryNames.contains(entryName) && !newEntryNames.contains(entryName)) {
+        newEntryNames.add(entryName);
+      }
+    }
+    if (entryNames.size() + newEntryNames.size() > Integer.SIZE) {
+      return false;
+    }
+    entryNames.addAll(newEntryNames);
+    return true;
+  }
+}
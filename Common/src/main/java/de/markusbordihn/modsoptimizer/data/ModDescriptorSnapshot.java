@@ -0,0 +1,262 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import com.google.gson.JsonObject;
+import com.moandjiezana.toml.Toml;
+import de.markusbordihn.modsoptimizer.Constants;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.Manifest;
+
+/**
+ * Snapshot of all mod descriptors of a single mod file, which is created in one pass over the
+ * central directory. Each descriptor is read and inflated exactly once and the parsed results are
+ * memoized, so that the type detection and all loader specific parsers could share them.
+ *
+ * <p>The manifest is only read on the first access, because it is just a fallback for most mod
+ * files and could be large for signed mod files.
+ */
+public class ModDescriptorSnapshot {
+
+  // Descriptor flags, which are matching the order of ModArchive.DEFAULT_ENTRY_NAMES. The entries
+  // of additional parsers are using the following bits of ModDescriptorParsers.getEntryNames().
+  public static final int MANIFEST = 1;
+  public static final int MODS_TOML = 1 << 1;
+  public static final int FABRIC_MOD_JSON = 1 << 2;
+  public static final int QUILT_MOD_JSON = 1 << 3;
+  public static final int TRANSFORMATION_SERVICE = 1 << 4;
+
+  private static final int ADDITIONAL_DESCRIPTORS = -1 << ModArchive.DEFAULT_ENTRY_NAMES.size();
+  private static final int READABLE_DESCRIPTORS =
+      MODS_TOML | FABRIC_MOD_JSON | QUILT_MOD_JSON | ADDITIONAL_DESCRIPTORS;
+  private static final List<String> DESCRIPTOR_NAMES = ModDescriptorParsers.getEntryNames();
+
+  private final Path path;
+  private final ModArchive modArchive;
+  private final int descriptorMask;
+  private final byte[][] descriptors = new byte[DESCRIPTOR_NAMES.size()][];
+  private Manifest manifest;
+  private Toml modsToml;
+  private ModsTomlData modsTomlData;
+  private JsonObject fabricModJson;
+  private JsonObject quiltModJson;
+  private ModJsonData fabricModJsonData;
+  private ModJsonData quiltModJsonData;
+  private TopLevelDirectoryClassifier.Result topLevelDirectories;
+  private int parsedDescriptors = 0;
+
+  private ModDescriptorSnapshot(Path path, ModArchive modArchive) throws IOException {
+    this.path = path;
+    this.modArchive = modArchive;
+    this.descriptorMask = modArchive.getEntryMask();
+
+    // Read raw data of all available descriptors, including the ones of additional parsers, except
+    // the manifest and the transformation service.
+    for (int i = 0; i < DESCRIPTOR_NAMES.size(); i++) {
+      int descriptor = 1 << i;
+      if ((this.descriptorMask & descriptor & READABLE_DESCRIPTORS) != 0) {
+        this.descriptors[i] = modArchive.readEntry(DESCRIPTOR_NAMES.get(i));
+      }
+    }
+  }
+
+  public static ModDescriptorSnapshot create(Path path, ModArchive modArchive) throws IOException {
+    return new ModDescriptorSnapshot(path, modArchive);
+  }
+
+  public Path getPath() {
+    return this.path;
+  }
+
+  public String getName() {
+    return this.modArchive.getName();
+  }
+
+  public ModArchive getModArchive() {
+    return this.modArchive;
+  }
+
+  public int getDescriptorMask() {
+    return this.descriptorMask;
+  }
+
+  public boolean has(int descriptor) {
+    return (this.descriptorMask & descriptor) != 0;
+  }
+
+  /** Returns the raw data of the given descriptor, which is not available for the manifest. */
+  public byte[] getDescriptor(int descriptor) {
+    int index = Integer.numberOfTrailingZeros(descriptor);
+    return index < this.descriptors.length ? this.descriptors[index] : null;
+  }
+
+  public TopLevelDirectoryClassifier.Result getTopLevelDirectories() {
+    if (this.topLevelDirectories == null) {
+      this.topLevelDirectories = TopLevelDirectoryClassifier.classify(this.modArchive);
+    }
+    return this.topLevelDirectories;
+  }
+
+  /**
+   * Returns the manifest with only the main attributes, which is read and parsed on the first
+   * access. The per-entry sections of signed mod files are skipped, because they are never used.
+   */
+  public Manifest getManifest() {
+    if ((this.parsedDescriptors & MANIFEST) == 0) {
+      this.parsedDescriptors |= MANIFEST;
+      if (has(MANIFEST)) {
+        long startTime = System.nanoTime();
+        try {
+          byte[] manifestData = this.modArchive.readEntry(ModArchive.MANIFEST_FILE);
+          if (manifestData != null) {
+            ScanMetrics.count(ScanMetrics.Heuristic.MANIFEST_READ);
+            this.manifest =
+                new Manifest(
+                    new ByteArrayInputStream(
+                        manifestData, 0, getMainSectionLength(manifestData)));
+          }
+        } catch (IOException e) {
+          Constants.LOG.error("Error reading manifest from {}: {}", this.modArchive, e);
+        }
+        ScanMetrics.addStageTime(ScanMetrics.Stage.MANIFEST, System.nanoTime() - startTime);
+      }
+      if (this.manifest == null) {
+        Constants.LOG.warn(
+            "⚠ Unable to read manifest from mod file {}, which is expected in some cases.",
+            this.path);
+      }
+    }
+    return this.manifest;
+  }
+
+  public Toml getModsToml() {
+    if ((this.parsedDescriptors & MODS_TOML) == 0) {
+      this.parsedDescriptors |= MODS_TOML;
+      this.modsToml =
+          TomlFileParser.readTomlFile(
+              getDescriptor(MODS_TOML), Path.of(ModArchive.MODS_TOML_FILE), this.modArchive);
+    }
+    return this.modsToml;
+  }
+
+  /**
+   * Returns the relevant data of the mods.toml file from the streaming extractor. The full TOML
+   * parser is only used as fallback, if the extractor is not able to handle the file.
+   */
+  public ModsTomlData getModsTomlData() {
+    if (this.modsTomlData == null) {
+      byte[] modsTomlContent = getDescriptor(MODS_TOML);
+      this.modsTomlData = ModsTomlExtractor.extract(modsTomlContent);
+      if (this.modsTomlData == null) {
+        if (modsTomlContent != null) {
+          ScanMetrics.count(ScanMetrics.Heuristic.MODS_TOML_FALLBACK);
+        }
+        this.modsTomlData = ModsTomlData.of(getModsToml());
+      }
+    }
+    return this.modsTomlData;
+  }
+
+  public JsonObject getFabricModJson() {
+    if ((this.parsedDescriptors & FABRIC_MOD_JSON) == 0) {
+      this.parsedDescriptors |= FABRIC_MOD_JSON;
+      this.fabricModJson =
+          JsonFileParser.readJsonFile(
+              getDescriptor(FABRIC_MOD_JSON),
+              Path.of(ModArchive.FABRIC_MOD_JSON_FILE),
+              this.modArchive);
+    }
+    return this.fabricModJson;
+  }
+
+  public JsonObject getQuiltModJson() {
+    if ((this.parsedDescriptors & QUILT_MOD_JSON) == 0) {
+      this.parsedDescriptors |= QUILT_MOD_JSON;
+      this.quiltModJson =
+          JsonFileParser.readJsonFile(
+              getDescriptor(QUILT_MOD_JSON),
+              Path.of(ModArchive.QUILT_MOD_JSON_FILE),
+              this.modArchive);
+    }
+    return this.quiltModJson;
+  }
+
+  /**
+   * Returns the relevant data of the fabric.mod.json file from the pull based extractor. The full
+   * json parser is only used as fallback, if the extractor is not able to handle the file.
+   */
+  public ModJsonData getFabricModJsonData() {
+    if (this.fabricModJsonData == null) {
+      byte[] fabricModJsonContent = getDescriptor(FABRIC_MOD_JSON);
+      this.fabricModJsonData = ModJsonExtractor.extractFabricModJson(fabricModJsonContent);
+      if (this.fabricModJsonData == null) {
+        if (fabricModJsonContent != null) {
+          ScanMetrics.count(ScanMetrics.Heuristic.MOD_JSON_FALLBACK);
+        }
+        this.fabricModJsonData = ModJsonData.ofFabricModJson(getFabricModJson());
+      }
+    }
+    return this.fabricModJsonData;
+  }
+
+  /**
+   * Returns the relevant data of the quilt.mod.json file from the pull based extractor. The full
+   * json parser is only used as fallback, if the extractor is not able to handle the file.
+   */
+  public ModJsonData getQuiltModJsonData() {
+    if (this.quiltModJsonData == null) {
+      byte[] quiltModJsonContent = getDescriptor(QUILT_MOD_JSON);
+      this.quiltModJsonData = ModJsonExtractor.extractQuiltModJson(quiltModJsonContent);
+      if (this.quiltModJsonData == null) {
+        if (quiltModJsonContent != null) {
+          ScanMetrics.count(ScanMetrics.Heuristic.MOD_JSON_FALLBACK);
+        }
+        this.quiltModJsonData = ModJsonData.ofQuiltModJson(getQuiltModJson());
+      }
+    }
+    return this.quiltModJsonData;
+  }
+
+  /**
+   * Returns the length of the main section of the manifest including its line break, which ends
+   * with the first empty line.
+   */
+  static int getMainSectionLength(byte[] manifestData) {
+    for (int i = 0; i < manifestData.length; i++) {
+      if (manifestData[i] == '\r' || manifestData[i] == '\n') {
+        int nextLine = i + 1;
+        if (manifestData[i] == '\r'
+            && nextLine < manifestData.length
+            && manifestData[nextLine] == '\n') {
+          nextLine++;
+        }
+        if (nextLine < manifestData.length
+            && (manifestData[nextLine] == '\r' || manifestData[nextLine] == '\n')) {
+          return nextLine;
+        }
+        i = nextLine - 1;
+      }
+    }
+    return manifestData.length;
+  }
+}
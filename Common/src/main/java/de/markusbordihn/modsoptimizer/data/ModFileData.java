@@ -22,6 +22,7 @@ package de.markusbordihn.modsoptimizer.data;
 import com.github.zafarkhaja.semver.Version;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public record ModFileData(
     Path path,
@@ -30,13 +31,91 @@ public record ModFileData(
     String name,
     Version version,
     ModEnvironment environment,
-    LocalDateTime timestamp) {
+    LocalDateTime timestamp,
+    VersionKey versionKey,
+    List<ModDependency> dependencies,
+    List<ModFileData> nestedMods) {
 
   public static final Version EMPTY_VERSION = Version.valueOf("0.0.0");
   public static final String EMPTY_MOD_ID = "unknown_id";
   public static final String EMPTY_MOD_NAME = "Unknown";
   public static final LocalDateTime EMPTY_TIMESTAMP = LocalDateTime.now();
 
+  public ModFileData(
+      Path path,
+      String id,
+      ModType modType,
+      String name,
+      Version version,
+      ModEnvironment environment,
+      LocalDateTime timestamp) {
+    this(path, id, modType, name, version, environment, timestamp, List.of());
+  }
+
+  public ModFileData(
+      Path path,
+      String id,
+      ModType modType,
+      String name,
+      Version version,
+      ModEnvironment environment,
+      LocalDateTime timestamp,
+      List<ModDependency> dependencies) {
+    this(
+        path,
+        id,
+        modType,
+        name,
+        version,
+        environment,
+        timestamp,
+        VersionKey.of(version),
+        dependencies);
+  }
+
+  public ModFileData(
+      Path path,
+      String id,
+      ModType modType,
+      String name,
+      Version version,
+      ModEnvironment environment,
+      LocalDateTime timestamp,
+      VersionKey versionKey,
+      List<ModDependency> dependencies) {
+    this(
+        path,
+        id,
+        modType,
+        name,
+        version,
+        environment,
+        timestamp,
+        versionKey,
+        dependencies,
+        List.of());
+  }
+
+  public ModFileData {
+    dependencies = dependencies != null ? List.copyOf(dependencies) : List.of();
+    nestedMods = nestedMods != null ? List.copyOf(nestedMods) : List.of();
+  }
+
+  /** Returns a copy of this mod file data with the given embedded mods of the mod file. */
+  public ModFileData withNestedMods(List<ModFileData> nestedMods) {
+    return new ModFileData(
+        path,
+        id,
+        modType,
+        name,
+        version,
+        environment,
+        timestamp,
+        versionKey,
+        dependencies,
+        nestedMods);
+  }
+
   public enum ModType {
     FABRIC,
     FORGE,
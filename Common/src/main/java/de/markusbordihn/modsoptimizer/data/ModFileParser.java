@@ -20,25 +20,24 @@
 package de.markusbordihn.modsoptimizer.data;
 
 import com.github.zafarkhaja.semver.Version;
-import com.google.gson.JsonObject;
-import com.moandjiezana.toml.Toml;
 import de.markusbordihn.modsoptimizer.Constants;
 import de.markusbordihn.modsoptimizer.data.ModFileData.ModEnvironment;
 import de.markusbordihn.modsoptimizer.data.ModFileData.ModType;
+import de.markusbordihn.modsoptimizer.data.ScanMetrics.Heuristic;
 import de.markusbordihn.modsoptimizer.utils.SemanticVersionUtils;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.jar.Attributes;
-import java.util.jar.JarFile;
 import java.util.jar.Manifest;
-import java.util.zip.ZipEntry;
 
 public class ModFileParser {
 
@@ -53,105 +52,118 @@ public class ModFileParser {
 
   protected ModFileParser() {}
 
-  private static ModType getModTypeByFile(Manifest manifest, JarFile jarFile) {
-
+  private static ModDescriptorParser getModDescriptorParser(
+      ModDescriptorSnapshot snapshot, boolean logUnknown) {
     // File name based check.
-    String fileName = jarFile.getName().toLowerCase();
+    String fileName = snapshot.getName().toLowerCase();
     if (fileName.endsWith(".jar")) {
+      ModType modType = ModType.UNKNOWN;
       if (fileName.contains("-neoforge-") || fileName.endsWith("-neoforge.jar")) {
-        return ModType.NEOFORGE;
+        modType = ModType.NEOFORGE;
       } else if (fileName.startsWith("-fabric-") || fileName.endsWith("-fabric.jar")) {
-        return ModType.FABRIC;
+        modType = ModType.FABRIC;
       } else if (fileName.startsWith("-forge-") || fileName.endsWith("-forge.jar")) {
-        return ModType.FORGE;
+        modType = ModType.FORGE;
       } else if (fileName.startsWith("-quilt-") || fileName.endsWith("-quilt.jar")) {
-        return ModType.QUILT;
+        modType = ModType.QUILT;
+      }
+      if (modType != ModType.UNKNOWN) {
+        ScanMetrics.count(Heuristic.MOD_TYPE_BY_FILE_NAME);
+        return ModDescriptorParsers.getParser(modType);
       }
     }
 
     // Simple check for Mixed mods and other special cases.
-    if (jarFile.getEntry("META-INF/mods.toml") != null
-        && jarFile.getEntry("fabric.mod.json") != null) {
-      return ModType.MIXED;
+    if (snapshot.has(ModDescriptorSnapshot.MODS_TOML)
+        && snapshot.has(ModDescriptorSnapshot.FABRIC_MOD_JSON)) {
+      ScanMetrics.count(Heuristic.MOD_TYPE_BY_MIXED_DESCRIPTORS);
+      return ModDescriptorParsers.getParser(ModType.MIXED);
+    }
+
+    // Descriptor based check for Forge, Fabric, Quilt and additional mod descriptors, which does
+    // not need the manifest. NeoForge mods are using the same descriptor as Forge mods and are
+    // detected by their dependency on NeoForge.
+    ModDescriptorParser modDescriptorParser = ModDescriptorParsers.probe(snapshot);
+    if (modDescriptorParser != null) {
+      ScanMetrics.count(Heuristic.MOD_TYPE_BY_DESCRIPTOR);
+      if (modDescriptorParser.getModType() == ModType.FORGE
+          && snapshot.getModsTomlData().hasDependency("neoforge")) {
+        return ModDescriptorParsers.getParser(ModType.NEOFORGE);
+      }
+      return modDescriptorParser;
     }
 
-    // Simple check for Fabric mods, because they have a Fabric-Gradle-Version or
-    // Fabric-Loader-Version attribute.
+    // Manifest based check for mod files without any known mod descriptor. Fabric mods have a
+    // Fabric-Gradle-Version or Fabric-Loader-Version attribute.
+    Manifest manifest = snapshot.getManifest();
     if (manifest != null && manifest.getMainAttributes() != null) {
       Attributes mainAttributes = manifest.getMainAttributes();
-      if ((mainAttributes.getValue("Fabric-Gradle-Version") != null
-              && !mainAttributes.getValue("Fabric-Gradle-Version").isEmpty())
-          || (mainAttributes.getValue("Fabric-Loader-Version") != null
-              && !mainAttributes.getValue("Fabric-Loader-Version").isEmpty())) {
-        if (jarFile.getEntry("fabric.mod.json") != null) {
-          return ModType.FABRIC;
-        } else if (jarFile.getEntry("quilt.mod.json") != null) {
-          return ModType.QUILT;
-        } else if (jarFile.getEntry("META-INF/mods.toml") != null
-            || jarFile.getEntry("META-INF/services/cpw.mods.modlauncher.api.ITransformationService")
-                != null) {
-          return ModType.MIXED;
+      if (hasAttributeValue("Fabric-Gradle-Version", mainAttributes)
+          || hasAttributeValue("Fabric-Loader-Version", mainAttributes)) {
+        if (snapshot.has(ModDescriptorSnapshot.TRANSFORMATION_SERVICE)) {
+          return getParserByManifest(ModType.MIXED);
         }
       } else if (hasAttributeValue(ModFileParser.MANIFEST_IMPLEMENTATION_TITLE, mainAttributes)
           && mainAttributes
               .getValue(ModFileParser.MANIFEST_IMPLEMENTATION_TITLE)
               .equals("NeoForge")) {
-        return ModType.NEOFORGE;
+        return getParserByManifest(ModType.NEOFORGE);
       } else if (hasAttributeValue(ModFileParser.MANIFEST_FML_MOD_TYPE, mainAttributes)) {
-        return ModType.FORGE;
+        return getParserByManifest(ModType.FORGE);
       }
     }
 
-    // File based check for data packs, Forge and Fabric mods.
-    if (jarFile.getEntry("META-INF/mods.toml") != null) {
-      return ModType.FORGE;
-    } else if (jarFile.getEntry("fabric.mod.json") != null) {
-      return ModType.FABRIC;
-    } else if (jarFile.getEntry("quilt.mod.json") != null) {
-      return ModType.QUILT;
+    // Unknown mod type
+    if (logUnknown) {
+      Constants.LOG.warn(
+          "⚠ Unable to detect mod type for {} with manifest {}",
+          snapshot.getName(),
+          manifest != null ? manifest.getMainAttributes() : null);
     }
+    ScanMetrics.count(Heuristic.MOD_TYPE_UNKNOWN);
+    return null;
+  }
 
-    // Unknown mod type
-    Constants.LOG.warn(
-        "⚠ Unable to detect mod type for {} with manifest {}",
-        jarFile.getName(),
-        manifest != null ? manifest.getMainAttributes() : null);
-    return ModType.UNKNOWN;
+  private static ModDescriptorParser getParserByManifest(ModType modType) {
+    ScanMetrics.count(Heuristic.MOD_TYPE_BY_MANIFEST);
+    return ModDescriptorParsers.getParser(modType);
   }
 
-  public static ModFileData parseModFile(Manifest manifest, Path path, JarFile jarFile) {
-    ModType modType = getModTypeByFile(manifest, jarFile);
-    if (modType == ModType.FORGE) {
-      return ModFileParser.parseForgeModFile(manifest, path, jarFile);
-    } else if (modType == ModType.NEOFORGE) {
-      return ModFileParser.parseNeoForgeModFile(manifest, path, jarFile);
-    } else if (modType == ModType.FABRIC) {
-      return ModFileParser.parseFabricModFile(manifest, path, jarFile);
-    } else if (modType == ModType.QUILT) {
-      return ModFileParser.parseQuiltModFile(manifest, path, jarFile);
-    } else if (modType == ModType.MIXED) {
-      return ModFileParser.parseMixedModFile(manifest, path, jarFile);
+  public static ModFileData parseModFile(ModDescriptorSnapshot snapshot) {
+    ModDescriptorParser modDescriptorParser = getModDescriptorParser(snapshot, true);
+    if (modDescriptorParser != null) {
+      return modDescriptorParser.parse(snapshot);
     }
 
     Constants.LOG.error(
         "⚠ Found unknown mod type {} for mod file {} with manifest {}!",
-        modType,
-        jarFile.getName(),
-        manifest != null ? manifest.getMainAttributes() : null);
+        ModType.UNKNOWN,
+        snapshot.getName(),
+        snapshot.getManifest() != null ? snapshot.getManifest().getMainAttributes() : null);
 
     return new ModFileData(
-        path,
+        snapshot.getPath(),
         ModFileData.EMPTY_MOD_ID,
-        modType,
+        ModType.UNKNOWN,
         ModFileData.EMPTY_MOD_NAME,
         ModFileData.EMPTY_VERSION,
         ModEnvironment.DEFAULT,
         ModFileData.EMPTY_TIMESTAMP);
   }
 
-  public static ModFileData parseMixedModFile(Manifest manifest, Path path, JarFile jarFile) {
-    ModFileData forgeModFileData = parseForgeModFile(manifest, path, jarFile);
-    ModFileData fabricModFileData = parseFabricModFile(manifest, path, jarFile);
+  /**
+   * Parses an embedded jar file and returns null without any warning, if the embedded jar file is
+   * not a mod, like most of the plain libraries in {@code META-INF/jarjar/}.
+   */
+  public static ModFileData parseNestedModFile(ModDescriptorSnapshot snapshot) {
+    ModDescriptorParser modDescriptorParser = getModDescriptorParser(snapshot, false);
+    return modDescriptorParser != null ? modDescriptorParser.parse(snapshot) : null;
+  }
+
+  public static ModFileData parseMixedModFile(ModDescriptorSnapshot snapshot) {
+    Path path = snapshot.getPath();
+    ModFileData forgeModFileData = parseForgeModFile(snapshot);
+    ModFileData fabricModFileData = parseFabricModFile(snapshot);
 
     // Check for forge mods data.
     String modId = forgeModFileData.id();
@@ -159,9 +171,11 @@ public class ModFileParser {
     Version version = forgeModFileData.version();
     ModEnvironment environment = forgeModFileData.environment();
     LocalDateTime timestamp = forgeModFileData.timestamp();
+    List<ModDependency> dependencies = forgeModFileData.dependencies();
 
     // Check for fabric mods data.
     if (modId == null || modId.isEmpty() || modId.equals(ModFileData.EMPTY_MOD_ID)) {
+      dependencies = List.of();
       modId = fabricModFileData.id();
       name = fabricModFileData.name();
       version = fabricModFileData.version();
@@ -171,7 +185,7 @@ public class ModFileParser {
 
     // Check for quilt mods data.
     if (modId == null || modId.isEmpty() || modId.equals(ModFileData.EMPTY_MOD_ID)) {
-      ModFileData quiltModFileData = parseQuiltModFile(manifest, path, jarFile);
+      ModFileData quiltModFileData = parseQuiltModFile(snapshot);
       modId = quiltModFileData.id();
       name = quiltModFileData.name();
       version = quiltModFileData.version();
@@ -180,38 +194,24 @@ public class ModFileParser {
     }
 
     // Check for service environment mods.
-    if (jarFile.getEntry("META-INF/services/cpw.mods.modlauncher.api.ITransformationService")
-        != null) {
+    if (snapshot.has(ModDescriptorSnapshot.TRANSFORMATION_SERVICE)) {
       environment = ModEnvironment.SERVICE;
     }
 
     // Check if jar file only contains a 'assets', 'data' directory and maybe a 'meta-inf' or
     // 'things' directory, ignore other files which are not a directory to detect data packs.
-    if (environment == ModEnvironment.UNKNOWN) {
-      boolean isDataPack = false;
-      for (ZipEntry zipEntry : jarFile.stream().toList()) {
-        if (zipEntry.isDirectory()) {
-          if (zipEntry.getName().startsWith("assets/")
-              || zipEntry.getName().startsWith("data/")
-              || zipEntry.getName().startsWith("META-INF/")
-              || zipEntry.getName().startsWith("things/")) {
-            isDataPack = true;
-          } else {
-            isDataPack = false;
-            break;
-          }
-        }
-      }
-      if (isDataPack) {
-        environment = ModEnvironment.DATA_PACK;
-      }
+    if (environment == ModEnvironment.UNKNOWN
+        && snapshot.getTopLevelDirectories().isDataPack()) {
+      ScanMetrics.count(Heuristic.DATA_PACK_BY_DIRECTORIES);
+      environment = ModEnvironment.DATA_PACK;
     }
 
-    return new ModFileData(path, modId, ModType.MIXED, name, version, environment, timestamp);
+    return new ModFileData(
+        path, modId, ModType.MIXED, name, version, environment, timestamp, dependencies);
   }
 
-  public static ModFileData parseNeoForgeModFile(Manifest manifest, Path path, JarFile jarFile) {
-    ModFileData modFileData = parseForgeModFile(manifest, path, jarFile);
+  public static ModFileData parseNeoForgeModFile(ModDescriptorSnapshot snapshot) {
+    ModFileData modFileData = parseForgeModFile(snapshot);
     return new ModFileData(
         modFileData.path(),
         modFileData.id(),
@@ -219,81 +219,73 @@ public class ModFileParser {
         modFileData.name(),
         modFileData.version(),
         modFileData.environment(),
-        modFileData.timestamp());
+        modFileData.timestamp(),
+        modFileData.versionKey(),
+        modFileData.dependencies());
   }
 
-  public static ModFileData parseForgeModFile(Manifest manifest, Path path, JarFile jarFile) {
+  public static ModFileData parseForgeModFile(ModDescriptorSnapshot snapshot) {
+    Path path = snapshot.getPath();
     String modId = ModFileData.EMPTY_MOD_ID;
     String name = ModFileData.EMPTY_MOD_NAME;
     Version version = ModFileData.EMPTY_VERSION;
     ModEnvironment environment = ModEnvironment.UNKNOWN;
-    LocalDateTime timestamp = ModFileData.EMPTY_TIMESTAMP;
+    List<ModDependency> dependencies = new ArrayList<>();
 
     // Parse mods.toml file
-    Toml modsToml = TomlFileParser.readTomlFile(jarFile, Path.of("META-INF/mods.toml"));
+    ModsTomlData modsToml = snapshot.getModsTomlData();
     if (modsToml != null && !modsToml.isEmpty()) {
-      String modsPrefix = "mods[0].";
-      String modsVersionId = modsPrefix + "version";
 
       // Parse mod id.
-      if (modsToml.getString(modsPrefix + "modId") != null) {
-        modId = modsToml.getString(modsPrefix + "modId");
+      if (modsToml.modId() != null) {
+        modId = modsToml.modId();
       } else {
         Constants.LOG.warn("⚠ Found no modId tag inside the mods.toml file {}!", path);
       }
 
       // Parse mod name.
-      if (modsToml.getString(modsPrefix + "displayName") != null) {
-        name = modsToml.getString(modsPrefix + "displayName");
+      if (modsToml.displayName() != null) {
+        name = modsToml.displayName();
       } else {
         Constants.LOG.warn("⚠ Found no displayName tag inside the mods.toml file {}!", path);
       }
 
       // Use modLoader for data pack detection.
-      if (modsToml.getString("modLoader") != null
-          && modsToml.getString("modLoader").equalsIgnoreCase("lowcodefml")) {
+      if (modsToml.modLoader() != null && modsToml.modLoader().equalsIgnoreCase("lowcodefml")) {
+        ScanMetrics.count(Heuristic.DATA_PACK_BY_MOD_LOADER);
         environment = ModEnvironment.DATA_PACK;
       }
 
       // Parse version number.
-      if (modsToml.getString(modsVersionId) != null
-          && !modsToml.getString(modsVersionId).startsWith("${")) {
-        version = SemanticVersionUtils.parseVersion(modsToml.getString(modsVersionId));
-      } else if (modsToml.getString("version") != null
-          && !modsToml.getString("version").startsWith("${")) {
+      if (modsToml.modVersion() != null && !modsToml.modVersion().startsWith("${")) {
+        version = SemanticVersionUtils.parseVersion(modsToml.modVersion());
+      } else if (modsToml.version() != null && !modsToml.version().startsWith("${")) {
         Constants.LOG.warn(
             "⚠ The version tag should be placed inside the [[mods]] section of the mods.toml file {}!",
             path);
-        version = SemanticVersionUtils.parseVersion(modsToml.getString("version"));
+        version = SemanticVersionUtils.parseVersion(modsToml.version());
       }
 
-      // Iterate over all dependencies (max. 10) and check the required side for "forge" or
-      // "neoforge", we don't care about other dependencies yet.
+      // Parse all dependencies of the mod.
+      for (ModsTomlData.Dependency dependency : modsToml.getDependencies(modId)) {
+        dependencies.add(ModDependency.of(dependency));
+      }
+
+      // Use the required side of the "forge" or "neoforge" dependency for the environment.
       if (environment == ModEnvironment.UNKNOWN) {
-        for (int i = 0; i < 10; i++) {
-          String dependencyId = "dependencies." + modId + "[" + i + "]";
-          try {
-            if (!modsToml.contains(dependencyId)) {
-              break;
-            }
-          } catch (Exception e) {
-            break;
-          }
-          if (modsToml.getString(dependencyId + ".modId").equals("forge")
-              || modsToml.getString(dependencyId + ".modId").equals("neoforge")) {
-            if (modsToml.getString(dependencyId + ".side") != null) {
-              String requiredSide = modsToml.getString(dependencyId + ".side").toLowerCase();
+        for (ModDependency dependency : dependencies) {
+          if (dependency.isModLoader()) {
+            if (dependency.side() != null) {
               environment =
-                  switch (requiredSide) {
-                    case "client" -> ModEnvironment.CLIENT;
-                    case "server" -> ModEnvironment.SERVER;
-                    case "both" -> ModEnvironment.DEFAULT;
-                    default -> environment;
+                  switch (dependency.side()) {
+                    case CLIENT -> ModEnvironment.CLIENT;
+                    case SERVER -> ModEnvironment.SERVER;
+                    case BOTH -> ModEnvironment.DEFAULT;
                   };
             } else {
               Constants.LOG.warn(
-                  "⚠ Found no side tag inside the {} section of the mods.toml file {}!",
-                  dependencyId,
+                  "⚠ Found no valid side tag for dependencies.{} in the mods.toml file {}!",
+                  modId,
                   path);
             }
             break;
@@ -303,7 +295,7 @@ public class ModFileParser {
 
       // Use displayTest for hints of the environment, even it is used very rarely.
       if (environment == ModEnvironment.UNKNOWN) {
-        String displayTest = modsToml.getString("mods[0].displayTest");
+        String displayTest = modsToml.displayTest();
         if (displayTest != null) {
           environment =
               switch (displayTest) {
@@ -318,7 +310,14 @@ public class ModFileParser {
       Constants.LOG.warn("⚠ Found no META-INF/mods.toml file for {}!", path);
     }
 
-    // Add manifest information, if available.
+    // Add manifest information, if any value is missing.
+    Manifest manifest =
+        isMissingVersion(version)
+                || isMissingName(name)
+                || isMissingModId(modId)
+                || environment == ModEnvironment.UNKNOWN
+            ? snapshot.getManifest()
+            : null;
     if (manifest != null && manifest.getMainAttributes() != null) {
       Attributes attributes = manifest.getMainAttributes();
 
@@ -326,6 +325,7 @@ public class ModFileParser {
       if (version == null
           || version.equals(ModFileData.EMPTY_VERSION)
               && hasAttributeValue(MANIFEST_IMPLEMENTATION_VERSION, attributes)) {
+        ScanMetrics.count(Heuristic.VERSION_FROM_MANIFEST);
         version =
             SemanticVersionUtils.parseVersion(attributes.getValue(MANIFEST_IMPLEMENTATION_VERSION));
       }
@@ -334,11 +334,16 @@ public class ModFileParser {
       if (name == null
           || name.equals("${file.jarName}")
               && hasAttributeValue(MANIFEST_SPECIFICATION_TITLE, attributes)) {
+        ScanMetrics.count(Heuristic.NAME_FROM_MANIFEST);
         name = attributes.getValue(MANIFEST_SPECIFICATION_TITLE);
       }
 
       // Get mod id from manifest, if available.
       if (modId == null || modId.isEmpty() || modId.equals(ModFileData.EMPTY_MOD_ID)) {
+        if (hasAttributeValue(MANIFEST_AUTOMATIC_MODULE_NAME, attributes)
+            || hasAttributeValue(MANIFEST_IMPLEMENTATION_TITLE, attributes)) {
+          ScanMetrics.count(Heuristic.MOD_ID_FROM_MANIFEST);
+        }
         if (hasAttributeValue(MANIFEST_AUTOMATIC_MODULE_NAME, attributes)) {
           modId =
               attributes.getValue(MANIFEST_AUTOMATIC_MODULE_NAME).replace(" ", "-").toLowerCase();
@@ -353,8 +358,14 @@ public class ModFileParser {
           && hasAttributeValue(MANIFEST_FML_MOD_TYPE, attributes)) {
         String fmlModType = attributes.getValue(MANIFEST_FML_MOD_TYPE);
         switch (fmlModType) {
-          case "LIBRARY", "GAMELIBRARY" -> environment = ModEnvironment.LIBRARY;
-          case "LANGPROVIDER" -> environment = ModEnvironment.LANGUAGE_PROVIDER;
+          case "LIBRARY", "GAMELIBRARY" -> {
+            ScanMetrics.count(Heuristic.ENVIRONMENT_FROM_MANIFEST);
+            environment = ModEnvironment.LIBRARY;
+          }
+          case "LANGPROVIDER" -> {
+            ScanMetrics.count(Heuristic.ENVIRONMENT_FROM_MANIFEST);
+            environment = ModEnvironment.LANGUAGE_PROVIDER;
+          }
           case "MOD" -> {
             // Ignore MOD, because we already have a default environment.
           }
@@ -362,148 +373,126 @@ public class ModFileParser {
               Constants.LOG.warn("⚠ Found unknown fml mod type {} for {}!", fmlModType, path);
         }
       }
-      timestamp = parseTimestamp(attributes.getValue(MANIFEST_IMPLEMENTATION_TIMESTAMP));
-    }
-
-    // Confirm that we have a valid timestamp
-    if (timestamp == null || timestamp.equals(ModFileData.EMPTY_TIMESTAMP)) {
-      timestamp = parseTimestampFromPath(path);
     }
+    LocalDateTime timestamp = getTimestamp(snapshot);
 
     // Confirm that we have a valid mod id
     if (modId == null || modId.isEmpty() || modId.equals(ModFileData.EMPTY_MOD_ID)) {
+      ScanMetrics.count(Heuristic.MOD_ID_FALLBACK);
       if (environment == ModEnvironment.LIBRARY) {
-        modId = "library-" + UUID.randomUUID();
+        modId = getFallbackModId("library-", snapshot);
       } else if (environment == ModEnvironment.LANGUAGE_PROVIDER) {
-        modId = "language-provider-" + UUID.randomUUID();
+        modId = getFallbackModId("language-provider-", snapshot);
       } else if (environment == ModEnvironment.DATA_PACK) {
-        modId = "data-pack-" + UUID.randomUUID();
+        modId = getFallbackModId("data-pack-", snapshot);
       } else {
         Constants.LOG.error("⚠ Found no valid modId for {}!", path);
-        modId = "unknown-" + UUID.randomUUID();
+        modId = getFallbackModId("unknown-", snapshot);
       }
     }
 
-    return new ModFileData(path, modId, ModType.FORGE, name, version, environment, timestamp);
+    return new ModFileData(
+        path, modId, ModType.FORGE, name, version, environment, timestamp, dependencies);
   }
 
-  public static ModFileData parseQuiltModFile(Manifest manifest, Path path, JarFile jarFile) {
+  public static ModFileData parseQuiltModFile(ModDescriptorSnapshot snapshot) {
+    Path path = snapshot.getPath();
     String id = ModFileData.EMPTY_MOD_ID;
     String name = ModFileData.EMPTY_MOD_NAME;
     Version version = ModFileData.EMPTY_VERSION;
     ModEnvironment environment = ModEnvironment.UNKNOWN;
-    LocalDateTime timestamp = ModFileData.EMPTY_TIMESTAMP;
 
-    // Parse fabric.mod.json file
-    JsonObject jsonObject = JsonFileParser.readJsonFile(jarFile, Path.of("quilt.mod.json"));
-    if (jsonObject != null && !jsonObject.isJsonNull()) {
-      // Parse quilt Loader data
-      if (jsonObject.get("quilt_loader") != null) {
-        JsonObject quiltLoaderObject = jsonObject.get("quilt_loader").getAsJsonObject();
-        if (quiltLoaderObject != null) {
-
-          // Parse mod id
-          if (quiltLoaderObject.get("id") != null) {
-            id = quiltLoaderObject.get("id").getAsString();
-          }
+    // Parse quilt.mod.json file
+    ModJsonData quiltModJson = snapshot.getQuiltModJsonData();
+    if (quiltModJson != null) {
+      // Parse mod id
+      if (quiltModJson.id() != null) {
+        id = quiltModJson.id();
+      }
 
-          // Parse version number
-          if (quiltLoaderObject.get("version") != null
-              && !quiltLoaderObject.get("version").getAsString().startsWith("${")) {
-            version =
-                SemanticVersionUtils.parseVersion(quiltLoaderObject.get("version").getAsString());
-          }
+      // Parse version number
+      if (quiltModJson.version() != null && !quiltModJson.version().startsWith("${")) {
+        version = SemanticVersionUtils.parseVersion(quiltModJson.version());
+      }
 
-          // Parse meta data
-          if (quiltLoaderObject.get("metadata") != null) {
-            JsonObject metadataObject = quiltLoaderObject.get("metadata").getAsJsonObject();
-            if (metadataObject != null) {
-              name = metadataObject.get("name").getAsString();
-            }
-          }
-        }
+      // Parse meta data
+      if (quiltModJson.name() != null) {
+        name = quiltModJson.name();
       }
 
-      // Parse Minecraft data and environment
-      if (jsonObject.get("minecraft") != null) {
-        JsonObject minecraftObject = jsonObject.get("minecraft").getAsJsonObject();
-        if (minecraftObject != null && minecraftObject.get("environment") != null) {
-          String environmentString = minecraftObject.get("environment").getAsString();
-          environment =
-              switch (environmentString) {
-                case "client" -> ModEnvironment.CLIENT;
-                case "dedicated_server" -> ModEnvironment.SERVER;
-                case "*" -> ModEnvironment.DEFAULT;
-                default -> environment;
-              };
-        }
+      // Parse Minecraft environment
+      if (quiltModJson.environment() != null) {
+        environment =
+            switch (quiltModJson.environment()) {
+              case "client" -> ModEnvironment.CLIENT;
+              case "dedicated_server" -> ModEnvironment.SERVER;
+              case "*" -> ModEnvironment.DEFAULT;
+              default -> environment;
+            };
       }
     } else {
       Constants.LOG.warn("⚠ Found no quilt.mod.json file for {}!", path);
     }
 
-    // Add manifest information, if available.
+    // Add manifest information, if any value is missing.
+    Manifest manifest =
+        isMissingVersion(version) || isMissingName(name) ? snapshot.getManifest() : null;
     if (manifest != null && manifest.getMainAttributes() != null) {
       Attributes attributes = manifest.getMainAttributes();
       if (version == null
           || version.equals(ModFileData.EMPTY_VERSION)
               && hasAttributeValue(MANIFEST_IMPLEMENTATION_VERSION, attributes)) {
+        ScanMetrics.count(Heuristic.VERSION_FROM_MANIFEST);
         version =
             SemanticVersionUtils.parseVersion(attributes.getValue(MANIFEST_IMPLEMENTATION_VERSION));
       }
       if (name == null
           || name.equals("${file.jarName}")
               && hasAttributeValue(MANIFEST_SPECIFICATION_TITLE, attributes)) {
+        ScanMetrics.count(Heuristic.NAME_FROM_MANIFEST);
         name = attributes.getValue(MANIFEST_SPECIFICATION_TITLE);
       }
-      timestamp = parseTimestamp(attributes.getValue(MANIFEST_IMPLEMENTATION_TIMESTAMP));
-    }
-
-    // Confirm that we have a valid timestamp
-    if (timestamp == null || timestamp.equals(ModFileData.EMPTY_TIMESTAMP)) {
-      timestamp = parseTimestampFromPath(path);
     }
+    LocalDateTime timestamp = getTimestamp(snapshot);
 
     return new ModFileData(path, id, ModType.QUILT, name, version, environment, timestamp);
   }
 
-  public static ModFileData parseFabricModFile(Manifest manifest, Path path, JarFile jarFile) {
+  public static ModFileData parseFabricModFile(ModDescriptorSnapshot snapshot) {
+    Path path = snapshot.getPath();
     String id = ModFileData.EMPTY_MOD_ID;
     String name = ModFileData.EMPTY_MOD_NAME;
     Version version = ModFileData.EMPTY_VERSION;
     ModEnvironment environment = ModEnvironment.UNKNOWN;
-    LocalDateTime timestamp = ModFileData.EMPTY_TIMESTAMP;
 
     // Parse fabric.mod.json file
-    JsonObject jsonObject = JsonFileParser.readJsonFile(jarFile, Path.of("fabric.mod.json"));
-    if (jsonObject != null && !jsonObject.isJsonNull()) {
+    ModJsonData fabricModJson = snapshot.getFabricModJsonData();
+    if (fabricModJson != null) {
       // Parse mod id
-      if (jsonObject.get("id") != null) {
-        id = jsonObject.get("id").getAsString();
+      if (fabricModJson.id() != null) {
+        id = fabricModJson.id();
       } else {
         Constants.LOG.warn("⚠ Found no id tag inside the fabric.mod.json file {}!", path);
       }
 
       // Parse mod name
-      if (jsonObject.get("name") != null) {
-        name = jsonObject.get("name").getAsString();
+      if (fabricModJson.name() != null) {
+        name = fabricModJson.name();
       } else {
         Constants.LOG.warn("⚠ Found no name tag inside the fabric.mod.json file {}!", path);
       }
 
       // Parse version number
-      if (jsonObject.get("version") != null
-          && !jsonObject.get("version").getAsString().startsWith("${")) {
-        version = SemanticVersionUtils.parseVersion(jsonObject.get("version").getAsString());
+      if (fabricModJson.version() != null && !fabricModJson.version().startsWith("${")) {
+        version = SemanticVersionUtils.parseVersion(fabricModJson.version());
       } else {
         Constants.LOG.warn("⚠ Found no version tag inside the fabric.mod.json file {}!", path);
       }
 
       // Parse environment
-      if (jsonObject.get("environment") != null) {
-        String environmentString = jsonObject.get("environment").getAsString();
+      if (fabricModJson.environment() != null) {
         environment =
-            switch (environmentString) {
+            switch (fabricModJson.environment()) {
               case "client" -> ModEnvironment.CLIENT;
               case "server" -> ModEnvironment.SERVER;
               case "*" -> ModEnvironment.DEFAULT;
@@ -514,34 +503,84 @@ public class ModFileParser {
       Constants.LOG.warn("⚠ Found no valid fabric.mod.json file for {}!", path);
     }
 
-    // Add manifest information, if available.
+    // Add manifest information, if any value is missing.
+    Manifest manifest =
+        isMissingVersion(version) || isMissingName(name) ? snapshot.getManifest() : null;
     if (manifest != null && manifest.getMainAttributes() != null) {
       Attributes attributes = manifest.getMainAttributes();
       if (version == null
           || version.equals(ModFileData.EMPTY_VERSION)
               && hasAttributeValue(MANIFEST_IMPLEMENTATION_VERSION, attributes)) {
+        ScanMetrics.count(Heuristic.VERSION_FROM_MANIFEST);
         version =
             SemanticVersionUtils.parseVersion(attributes.getValue(MANIFEST_IMPLEMENTATION_VERSION));
       }
       if (name == null
           || name.equals("${file.jarName}")
               && hasAttributeValue(MANIFEST_SPECIFICATION_TITLE, attributes)) {
+        ScanMetrics.count(Heuristic.NAME_FROM_MANIFEST);
         name = attributes.getValue(MANIFEST_SPECIFICATION_TITLE);
       }
-      timestamp = parseTimestamp(attributes.getValue(MANIFEST_IMPLEMENTATION_TIMESTAMP));
-    }
-
-    // Confirm that we have a valid timestamp
-    if (timestamp == null || timestamp.equals(ModFileData.EMPTY_TIMESTAMP)) {
-      timestamp = parseTimestampFromPath(path);
     }
+    LocalDateTime timestamp = getTimestamp(snapshot);
 
     return new ModFileData(path, id, ModType.FABRIC, name, version, environment, timestamp);
   }
 
-  private static LocalDateTime parseTimestampFromPath(Path path) {
+  /**
+   * Returns a stable mod id for mod files without a valid mod id. The id is derived from the file
+   * name, the file size and the checksum of the central directory. The central directory already
+   * contains the CRC-32 of every entry. The same mod file gets the same id on every start, and no
+   * random UUID is needed, which could block on SecureRandom during the start.
+   */
+  private static String getFallbackModId(String prefix, ModDescriptorSnapshot snapshot) {
+    ModArchive modArchive = snapshot.getModArchive();
+    Path path = snapshot.getPath();
+    String fileName =
+        path != null && path.getFileName() != null
+            ? path.getFileName().toString()
+            : snapshot.getName();
+    String idData =
+        fileName + ':' + modArchive.getSize() + ':' + modArchive.getCentralDirectoryChecksum();
+    return prefix + UUID.nameUUIDFromBytes(idData.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static boolean isMissingVersion(Version version) {
+    return version == null || version.equals(ModFileData.EMPTY_VERSION);
+  }
+
+  private static boolean isMissingName(String name) {
+    return name == null || name.equals("${file.jarName}");
+  }
+
+  private static boolean isMissingModId(String modId) {
+    return modId == null || modId.isEmpty() || modId.equals(ModFileData.EMPTY_MOD_ID);
+  }
+
+  /**
+   * Returns the creation time of the mod file, which is already part of the directory snapshot. The
+   * manifest timestamp is only used for embedded mod files, which have no file attributes.
+   */
+  private static LocalDateTime getTimestamp(ModDescriptorSnapshot snapshot) {
+    LocalDateTime timestamp = parseTimestampFromPath(snapshot);
+    if (timestamp.equals(ModFileData.EMPTY_TIMESTAMP)) {
+      Manifest manifest = snapshot.getManifest();
+      if (manifest != null && manifest.getMainAttributes() != null) {
+        timestamp = parseTimestampFromManifest(manifest.getMainAttributes());
+      }
+    }
+    return timestamp;
+  }
+
+  private static LocalDateTime parseTimestampFromPath(ModDescriptorSnapshot snapshot) {
+    // Embedded mod files are read from memory and have no file attributes on their own.
+    if (snapshot.getModArchive().getPath() == null) {
+      return ModFileData.EMPTY_TIMESTAMP;
+    }
+    Path path = snapshot.getPath();
+    ScanMetrics.count(Heuristic.TIMESTAMP_FROM_FILE);
     try {
-      BasicFileAttributes fileAttributes = Files.readAttributes(path, BasicFileAttributes.class);
+      BasicFileAttributes fileAttributes = DirectorySnapshot.readAttributes(path);
       if (fileAttributes != null) {
         FileTime fileTime = fileAttributes.creationTime();
         return LocalDateTime.ofInstant(fileTime.toInstant(), ZoneId.systemDefault());
@@ -552,6 +591,15 @@ public class ModFileParser {
     return ModFileData.EMPTY_TIMESTAMP;
   }
 
+  private static LocalDateTime parseTimestampFromManifest(Attributes attributes) {
+    LocalDateTime timestamp =
+        parseTimestamp(attributes.getValue(MANIFEST_IMPLEMENTATION_TIMESTAMP));
+    if (!timestamp.equals(ModFileData.EMPTY_TIMESTAMP)) {
+      ScanMetrics.count(Heuristic.TIMESTAMP_FROM_MANIFEST);
+    }
+    return timestamp;
+  }
+
   private static LocalDateTime parseTimestamp(String timestamp) {
     if (timestamp != null && !timestamp.isEmpty()) {
       try {
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Subset of a fabric.mod.json or quilt.mod.json file, which is relevant for the mod detection. It
+ * is created by the {@link ModJsonExtractor} or as fallback from a full parsed {@link JsonObject}.
+ */
+public record ModJsonData(String id, String name, String version, String environment) {
+
+  public static final ModJsonData EMPTY = new ModJsonData(null, null, null, null);
+
+  public static ModJsonData ofFabricModJson(JsonObject jsonObject) {
+    if (jsonObject == null) {
+      return EMPTY;
+    }
+    return new ModJsonData(
+        getAsString(jsonObject, "id"),
+        getAsString(jsonObject, "name"),
+        getAsString(jsonObject, "version"),
+        getAsString(jsonObject, "environment"));
+  }
+
+  public static ModJsonData ofQuiltModJson(JsonObject jsonObject) {
+    if (jsonObject == null) {
+      return EMPTY;
+    }
+    JsonObject quiltLoaderObject = getAsJsonObject(jsonObject, "quilt_loader");
+    return new ModJsonData(
+        getAsString(quiltLoaderObject, "id"),
+        getAsString(getAsJsonObject(quiltLoaderObject, "metadata"), "name"),
+        getAsString(quiltLoaderObject, "version"),
+        getAsString(getAsJsonObject(jsonObject, "minecraft"), "environment"));
+  }
+
+  private static JsonObject getAsJsonObject(JsonObject jsonObject, String memberName) {
+    JsonElement jsonElement = jsonObject != null ? jsonObject.get(memberName) : null;
+    return jsonElement != null && jsonElement.isJsonObject() ? jsonElement.getAsJsonObject() : null;
+  }
+
+  private static String getAsString(JsonObject jsonObject, String memberName) {
+    JsonElement jsonElement = jsonObject != null ? jsonObject.get(memberName) : null;
+    return jsonElement != null && !jsonElement.isJsonNull() ? jsonElement.getAsString() : null;
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.IOException;
+
+/**
+ * Pull based extractor for the fabric.mod.json and quilt.mod.json files, which only reads the id,
+ * name, version and environment of the mod. All other values are skipped without creating a json
+ * tree. Duplicated fields and objects are overwritten by the last one like in the full json parser,
+ * so that the whole object is read.
+ *
+ * <p>Relevant fields with unexpected value types are not supported. In this case no result is
+ * returned and the full json parser should be used instead.
+ */
+public class ModJsonExtractor {
+
+  private final JsonReader jsonReader;
+  private String id;
+  private String name;
+  private String version;
+  private String environment;
+
+  private ModJsonExtractor(JsonReader jsonReader) {
+    this.jsonReader = jsonReader;
+  }
+
+  /**
+   * Extracts the relevant data of the given fabric.mod.json content.
+   *
+   * @return extracted data or null, if the content could not be extracted.
+   */
+  public static ModJsonData extractFabricModJson(byte[] content) {
+    if (content == null) {
+      return null;
+    }
+    try (JsonReader jsonReader = createJsonReader(content)) {
+      ModJsonExtractor extractor = new ModJsonExtractor(jsonReader);
+      extractor.readFabricModJson();
+      return extractor.getModJsonData();
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Extracts the relevant data of the given quilt.mod.json content.
+   *
+   * @return extracted data or null, if the content could not be extracted.
+   */
+  public static ModJsonData extractQuiltModJson(byte[] content) {
+    if (content == null) {
+      return null;
+    }
+    try (JsonReader jsonReader = createJsonReader(content)) {
+      ModJsonExtractor extractor = new ModJsonExtractor(jsonReader);
+      extractor.readQuiltModJson();
+      return extractor.getModJsonData();
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static JsonReader createJsonReader(byte[] content) {
+    JsonReader jsonReader = new JsonReader(DescriptorBuffers.get().getReader(content));
+    // Same leniency as the JsonParser, which is used for the full json tree.
+    jsonReader.setLenient(true);
+    return jsonReader;
+  }
+
+  private ModJsonData getModJsonData() {
+    return new ModJsonData(id, name, version, environment);
+  }
+
+  private void readFabricModJson() throws IOException {
+    jsonReader.beginObject();
+    while (jsonReader.hasNext()) {
+      switch (jsonReader.nextName()) {
+        case "id" -> id = readString();
+        case "name" -> name = readString();
+        case "version" -> version = readString();
+        case "environment" -> environment = readString();
+        default -> jsonReader.skipValue();
+      }
+    }
+  }
+
+  private void readQuiltModJson() throws IOException {
+    jsonReader.beginObject();
+    while (jsonReader.hasNext()) {
+      switch (jsonReader.nextName()) {
+        case "quilt_loader" -> readQuiltLoader();
+        case "minecraft" -> readMinecraft();
+        default -> jsonReader.skipValue();
+      }
+    }
+  }
+
+  private void readQuiltLoader() throws IOException {
+    beginObject();
+    id = null;
+    name = null;
+    version = null;
+    while (jsonReader.hasNext()) {
+      switch (jsonReader.nextName()) {
+        case "id" -> id = readString();
+        case "version" -> version = readString();
+        case "metadata" -> readQuiltMetadata();
+        default -> jsonReader.skipValue();
+      }
+    }
+    jsonReader.endObject();
+  }
+
+  private void readQuiltMetadata() throws IOException {
+    beginObject();
+    name = null;
+    while (jsonReader.hasNext()) {
+      if (jsonReader.nextName().equals("name")) {
+        name = readString();
+      } else {
+        jsonReader.skipValue();
+      }
+    }
+    jsonReader.endObject();
+  }
+
+  private void readMinecraft() throws IOException {
+    beginObject();
+    environment = null;
+    while (jsonReader.hasNext()) {
+      if (jsonReader.nextName().equals("environment")) {
+        environment = readString();
+      } else {
+        jsonReader.skipValue();
+      }
+    }
+    jsonReader.endObject();
+  }
+
+  private void beginObject() throws IOException {
+    if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+      throw new MalformedJsonException("Unsupported value type " + jsonReader.peek());
+    }
+    jsonReader.beginObject();
+  }
+
+  private String readString() throws IOException {
+    JsonToken jsonToken = jsonReader.peek();
+    if (jsonToken == JsonToken.STRING || jsonToken == JsonToken.NUMBER) {
+      return jsonReader.nextString();
+    } else if (jsonToken == JsonToken.BOOLEAN) {
+      return String.valueOf(jsonReader.nextBoolean());
+    }
+    throw new MalformedJsonException("Unsupported value type " + jsonToken);
+  }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import com.github.zafarkhaja.semver.Version;
+import com.google.common.annotations.VisibleForTesting;
+import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.config.ModsDatabaseConfig;
+import de.markusbordihn.modsoptimizer.data.ModFileData.ModEnvironment;
+import de.markusbordihn.modsoptimizer.data.ModFileData.ModType;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent cache of parsed mod files, which is stored under {@link
+ * ModsDatabaseConfig#CONFIG_PATH}. Entries are validated by file size and last modified time, and
+ * optionally by a checksum over the end of the file, which contains the central directory of the
+ * jar file.
+ *
+ * <p>Entries are also stored with the state of the nested scan, so that entries, which were parsed
+ * with a different nested scan configuration, are treated as a cache miss.
+ */
+public class ModScanCache {
+
+  public static final String CACHE_FILE_NAME = "scan-cache.bin";
+
+  private static final String LOG_PREFIX = "[Mod Scan Cache]";
+  private static final int CACHE_MAGIC = 0x4d4f5343;
+  private static final int CACHE_FORMAT_VERSION = 4;
+  private static final int CHECKSUM_TAIL_SIZE = 64 * 1024;
+  private static final long NO_CHECKSUM = -1L;
+  private static final int NO_SIDE = 0xFF;
+
+  private static final Map<String, CacheEntry> cacheEntries = new ConcurrentHashMap<>();
+  private static final Set<String> usedEntries = ConcurrentHashMap.newKeySet();
+  private static final AtomicInteger cacheHits = new AtomicInteger();
+  private static final AtomicInteger cacheMisses = new AtomicInteger();
+  private static volatile boolean loaded = false;
+
+  protected ModScanCache() {}
+
+  public static Path getCacheFile() {
+    return ModsDatabaseConfig.CONFIG_PATH.resolve(CACHE_FILE_NAME);
+  }
+
+  public static boolean isLoaded() {
+    return loaded;
+  }
+
+  public static int getCacheHits() {
+    return cacheHits.get();
+  }
+
+  public static int getCacheMisses() {
+    return cacheMisses.get();
+  }
+
+  public static void load() {
+    load(getCacheFile());
+  }
+
+  /** Unloads the cache without saving it, so that a loaded test cache file is not reused. */
+  @VisibleForTesting
+  public static synchronized void reset() {
+    cacheEntries.clear();
+    usedEntries.clear();
+    cacheHits.set(0);
+    cacheMisses.set(0);
+    loaded = false;
+  }
+
+  public static synchronized void load(Path cacheFile) {
+    cacheEntries.clear();
+    usedEntries.clear();
+    cacheHits.set(0);
+    cacheMisses.set(0);
+    loaded = true;
+    if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+      return;
+    }
+
+    long startTime = System.nanoTime();
+    try (DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+      if (inputStream.readInt() != CACHE_MAGIC
+          || inputStream.readInt() != CACHE_FORMAT_VERSION) {
+        Constants.LOG.warn("{} ⚠ Ignore outdated or unknown cache file {}", LOG_PREFIX, cacheFile);
+        return;
+      }
+      int numEntries = inputStream.readInt();
+      for (int i = 0; i < numEntries; i++) {
+        CacheEntry cacheEntry = CacheEntry.read(inputStream);
+        cacheEntries.put(cacheEntry.path(), cacheEntry);
+      }
+    } catch (Exception e) {
+      Constants.LOG.warn("{} ⚠ Unable to read cache file {}: {}", LOG_PREFIX, cacheFile, e);
+      cacheEntries.clear();
+      return;
+    }
+    Constants.LOG.info(
+        "{} Loaded {} cache entries from {} in {} ms.",
+        LOG_PREFIX,
+        cacheEntries.size(),
+        cacheFile,
+        (System.nanoTime() - startTime) / 1_000_000);
+  }
+
+  public static void save() {
+    save(getCacheFile());
+  }
+
+  public static synchronized void save(Path cacheFile) {
+    if (!loaded || cacheFile == null) {
+      return;
+    }
+
+    // Only keep entries, which were used or added during the last scan.
+    cacheEntries.keySet().retainAll(usedEntries);
+
+    Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      try (DataOutputStream outputStream =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        outputStream.writeInt(CACHE_MAGIC);
+        outputStream.writeInt(CACHE_FORMAT_VERSION);
+        outputStream.writeInt(cacheEntries.size());
+        for (CacheEntry cacheEntry : cacheEntries.values()) {
+          cacheEntry.write(outputStream);
+        }
+      }
+      Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (Exception e) {
+      Constants.LOG.error("{} ⚠ Unable to write cache file {}:", LOG_PREFIX, cacheFile, e);
+    }
+    Constants.LOG.info(
+        "{} Stored {} cache entries with {} hits and {} misses.",
+        LOG_PREFIX,
+        cacheEntries.size(),
+        cacheHits.get(),
+        cacheMisses.get());
+  }
+
+  public static ModFileData get(Path modFile) {
+    if (!loaded || modFile == null) {
+      return null;
+    }
+    String cacheKey = getCacheKey(modFile);
+    CacheEntry cacheEntry = cacheEntries.get(cacheKey);
+    if (cacheEntry != null) {
+      try {
+        BasicFileAttributes fileAttributes = DirectorySnapshot.readAttributes(modFile);
+        if (cacheEntry.size() == fileAttributes.size()
+            && cacheEntry.lastModified() == fileAttributes.lastModifiedTime().toMillis()
+            && cacheEntry.nestedScanEnabled() == ModsDatabaseConfig.isNestedScanEnabled()
+            && (cacheEntry.checksum() == NO_CHECKSUM
+                || cacheEntry.checksum() == getChecksum(modFile, fileAttributes.size()))) {
+          usedEntries.add(cacheKey);
+          cacheHits.incrementAndGet();
+          return cacheEntry.toModFileData(modFile);
+        }
+      } catch (IOException e) {
+        Constants.LOG.debug("{} Unable to validate cache entry for {}: {}", LOG_PREFIX, modFile, e);
+      }
+    }
+    cacheMisses.incrementAndGet();
+    return null;
+  }
+
+  public static void put(Path modFile, ModFileData modFileData) {
+    if (!loaded || modFile == null || modFileData == null) {
+      return;
+    }
+    try {
+      BasicFileAttributes fileAttributes = DirectorySnapshot.readAttributes(modFile);
+      String cacheKey = getCacheKey(modFile);
+      cacheEntries.put(
+          cacheKey,
+          new CacheEntry(
+              cacheKey,
+              fileAttributes.size(),
+              fileAttributes.lastModifiedTime().toMillis(),
+              ModsDatabaseConfig.isScanCacheChecksumEnabled()
+                  ? getChecksum(modFile, fileAttributes.size())
+                  : NO_CHECKSUM,
+              ModsDatabaseConfig.isNestedScanEnabled(),
+              modFileData));
+      usedEntries.add(cacheKey);
+    } catch (IOException e) {
+      Constants.LOG.debug("{} Unable to cache {}: {}", LOG_PREFIX, modFile, e);
+    }
+  }
+
+  public static void remove(Path modFile) {
+    if (modFile != null) {
+      String cacheKey = getCacheKey(modFile);
+      cacheEntries.remove(cacheKey);
+      usedEntries.remove(cacheKey);
+    }
+  }
+
+  private static String getCacheKey(Path modFile) {
+    return modFile.toAbsolutePath().normalize().toString();
+  }
+
+  private static long getChecksum(Path modFile, long size) throws IOException {
+    int tailSize = (int) Math.min(size, CHECKSUM_TAIL_SIZE);
+    ByteBuffer byteBuffer = ByteBuffer.allocate(tailSize);
+    try (FileChannel fileChannel = FileChannel.open(modFile, StandardOpenOption.READ)) {
+      long position = size - tailSize;
+      while (byteBuffer.hasRemaining()) {
+        int numBytes = fileChannel.read(byteBuffer, position + byteBuffer.position());
+        if (numBytes < 0) {
+          break;
+        }
+      }
+    }
+    CRC32 crc32 = new CRC32();
+    crc32.update(byteBuffer.flip());
+    return crc32.getValue();
+  }
+
+  private record CacheEntry(
+      String path,
+      long size,
+      long lastModified,
+      long checksum,
+      boolean nestedScanEnabled,
+      ModFileData modFileData) {
+
+    private static CacheEntry read(DataInputStream inputStream) throws IOException {
+      String path = inputStream.readUTF();
+      long size = inputStream.readLong();
+      long lastModified = inputStream.readLong();
+      long checksum = inputStream.readLong();
+      boolean nestedScanEnabled = inputStream.readBoolean();
+      ModFileData modFileData = readModFileData(inputStream, null);
+
+      // Embedded mods are stored with their path relative to the mod file.
+      int numNestedMods = inputStream.readUnsignedShort();
+      List<ModFileData> nestedMods = new ArrayList<>(numNestedMods);
+      for (int i = 0; i < numNestedMods; i++) {
+        nestedMods.add(readModFileData(inputStream, Path.of(inputStream.readUTF())));
+      }
+      return new CacheEntry(
+          path,
+          size,
+          lastModified,
+          checksum,
+          nestedScanEnabled,
+          modFileData.withNestedMods(nestedMods));
+    }
+
+    private static ModFileData readModFileData(DataInputStream inputStream, Path path)
+        throws IOException {
+      String id = inputStream.readUTF();
+      ModType modType = ModType.values()[inputStream.readUnsignedByte()];
+      String name = readNullableString(inputStream);
+      String version = readNullableString(inputStream);
+      ModEnvironment environment = ModEnvironment.values()[inputStream.readUnsignedByte()];
+      LocalDateTime timestamp =
+          LocalDateTime.ofEpochSecond(
+              inputStream.readLong(), inputStream.readInt(), ZoneOffset.UTC);
+      int numDependencies = inputStream.readUnsignedShort();
+      List<ModDependency> dependencies = new ArrayList<>(numDependencies);
+      for (int i = 0; i < numDependencies; i++) {
+        dependencies.add(readDependency(inputStream));
+      }
+      return new ModFileData(
+          path,
+          id,
+          modType,
+          name,
+          version != null ? Version.valueOf(version) : null,
+          environment,
+          timestamp,
+          dependencies);
+    }
+
+    private static ModDependency readDependency(DataInputStream inputStream) throws IOException {
+      String modId = readNullableString(inputStream);
+      ModDependency.Type type = ModDependency.Type.values()[inputStream.readUnsignedByte()];
+      String versionRange = readNullableString(inputStream);
+      int side = inputStream.readUnsignedByte();
+      ModDependency.Ordering ordering =
+          ModDependency.Ordering.values()[inputStream.readUnsignedByte()];
+      return new ModDependency(
+          modId,
+          type,
+          versionRange,
+          side != NO_SIDE ? ModDependency.Side.values()[side] : null,
+          ordering);
+    }
+
+    private static void writeDependency(DataOutputStream outputStream, ModDependency dependency)
+        throws IOException {
+      writeNullableString(outputStream, dependency.modId());
+      outputStream.writeByte(dependency.type().ordinal());
+      writeNullableString(outputStream, dependency.versionRange());
+      outputStream.writeByte(dependency.side() != null ? dependency.side().ordinal() : NO_SIDE);
+      outputStream.writeByte(dependency.ordering().ordinal());
+    }
+
+    private static String readNullableString(DataInputStream inputStream) throws IOException {
+      return inputStream.readBoolean() ? inputStream.readUTF() : null;
+    }
+
+    private static void writeNullableString(DataOutputStream outputStream, String value)
+        throws IOException {
+      outputStream.writeBoolean(value != null);
+      if (value != null) {
+        outputStream.writeUTF(value);
+      }
+    }
+
+    private void write(DataOutputStream outputStream) throws IOException {
+      outputStream.writeUTF(path);
+      outputStream.writeLong(size);
+      outputStream.writeLong(lastModified);
+      outputStream.writeLong(checksum);
+      outputStream.writeBoolean(nestedScanEnabled);
+      writeModFileData(outputStream, modFileData);
+      List<ModFileData> nestedMods = modFileData.nestedMods();
+      int numNestedMods = Math.min(nestedMods.size(), 0xFFFF);
+      outputStream.writeShort(numNestedMods);
+      for (int i = 0; i < numNestedMods; i++) {
+        ModFileData nestedMod = nestedMods.get(i);
+        outputStream.writeUTF(modFileData.path().relativize(nestedMod.path()).toString());
+        writeModFileData(outputStream, nestedMod);
+      }
+    }
+
+    private static void writeModFileData(DataOutputStream outputStream, ModFileData modFileData)
+        throws IOException {
+      outputStream.writeUTF(modFileData.id());
+      outputStream.writeByte(modFileData.modType().ordinal());
+      writeNullableString(outputStream, modFileData.name());
+      writeNullableString(
+          outputStream, modFileData.version() != null ? modFileData.version().toString() : null);
+      outputStream.writeByte(modFileData.environment().ordinal());
+      LocalDateTime timestamp =
+          modFileData.timestamp() != null ? modFileData.timestamp() : ModFileData.EMPTY_TIMESTAMP;
+      outputStream.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+      outputStream.writeInt(timestamp.getNano());
+      List<ModDependency> dependencies = modFileData.dependencies();
+      int numDependencies = Math.min(dependencies.size(), 0xFFFF);
+      outputStream.writeShort(numDependencies);
+      for (int i = 0; i < numDependencies; i++) {
+        writeDependency(outputStream, dependencies.get(i));
+      }
+    }
+
+    private ModFileData toModFileData(Path modFile) {
+      List<ModFileData> nestedMods = new ArrayList<>(modFileData.nestedMods().size());
+      for (ModFileData nestedMod : modFileData.nestedMods()) {
+        nestedMods.add(withPath(nestedMod, modFile.resolve(nestedMod.path())));
+      }
+      return withPath(modFileData, modFile).withNestedMods(nestedMods);
+    }
+
+    private static ModFileData withPath(ModFileData modFileData, Path path) {
+      return new ModFileData(
+          path,
+          modFileData.id(),
+          modFileData.modType(),
+          modFileData.name(),
+          modFileData.version(),
+          modFileData.environment(),
+          modFileData.timestamp(),
+          modFileData.versionKey(),
+          modFileData.dependencies());
+    }
+  }
+}
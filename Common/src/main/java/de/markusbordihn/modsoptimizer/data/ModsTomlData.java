@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import com.moandjiezana.toml.Toml;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Subset of a mods.toml file, which is relevant for the mod detection. It is created by the {@link
+ * ModsTomlExtractor} or as fallback from a full parsed {@link Toml} file.
+ */
+public record ModsTomlData(
+    String modLoader,
+    String version,
+    String modId,
+    String displayName,
+    String modVersion,
+    String displayTest,
+    List<Dependency> dependencies) {
+
+  public static final ModsTomlData EMPTY =
+      new ModsTomlData(null, null, null, null, null, null, List.of());
+
+  public static ModsTomlData of(Toml toml) {
+    if (toml == null || toml.isEmpty()) {
+      return EMPTY;
+    }
+
+    // Only the dependencies of the first mod are relevant for the mod detection.
+    String modId = toml.getString("mods[0].modId");
+    String dependencyOwner = modId != null ? modId : ModFileData.EMPTY_MOD_ID;
+    List<Toml> dependencyTables;
+    try {
+      dependencyTables = toml.getTables("dependencies." + dependencyOwner);
+    } catch (Exception e) {
+      dependencyTables = null;
+    }
+    List<Dependency> dependencies = new ArrayList<>();
+    if (dependencyTables != null) {
+      for (Toml dependencyTable : dependencyTables) {
+        dependencies.add(
+            new Dependency(
+                dependencyOwner,
+                dependencyTable.getString("modId"),
+                dependencyTable.getBoolean("mandatory"),
+                dependencyTable.getString("type"),
+                dependencyTable.getString("versionRange"),
+                dependencyTable.getString("side"),
+                dependencyTable.getString("ordering")));
+      }
+    }
+
+    return new ModsTomlData(
+        toml.getString("modLoader"),
+        toml.getString("version"),
+        modId,
+        toml.getString("mods[0].displayName"),
+        toml.getString("mods[0].version"),
+        toml.getString("mods[0].displayTest"),
+        dependencies);
+  }
+
+  public boolean isEmpty() {
+    return modLoader == null
+        && version == null
+        && modId == null
+        && displayName == null
+        && modVersion == null
+        && displayTest == null
+        && dependencies.isEmpty();
+  }
+
+  /**
+   * Returns true, if any of the collected dependencies is on the given mod id. The streaming
+   * extractor collects the dependencies of all mods of the mods.toml file, but the toml4j fallback
+   * only the dependencies of the first mod.
+   */
+  public boolean hasDependency(String dependencyModId) {
+    for (Dependency dependency : dependencies) {
+      if (dependencyModId.equals(dependency.modId())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns all dependencies of the given mod id. */
+  public List<Dependency> getDependencies(String ownerId) {
+    List<Dependency> result = new ArrayList<>();
+    for (Dependency dependency : dependencies) {
+      if (dependency.ownerId().equals(ownerId)) {
+        result.add(dependency);
+      }
+    }
+    return result;
+  }
+
+  /** Single [[dependencies.ownerId]] entry with the raw values of the dependency. */
+  public record Dependency(
+      String ownerId,
+      String modId,
+      Boolean mandatory,
+      String type,
+      String versionRange,
+      String side,
+      String ordering) {}
+}
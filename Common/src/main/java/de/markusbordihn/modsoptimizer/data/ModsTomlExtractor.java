@@ -0,0 +1,559 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import de.markusbordihn.modsoptimizer.data.ModsTomlData.Dependency;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming extractor for the mods.toml file, which is reading the raw bytes in a single pass. It
+ * only extracts the 'modLoader', the modId, displayName, version and displayTest of the first
+ * [[mods]] entry and the modId, mandatory, type, versionRange, side and ordering of the
+ * [[dependencies.&lt;id&gt;]] entries. All other keys, values and tables are skipped without
+ * creating any strings.
+ *
+ * <p>Syntax, which could change the meaning of the extracted keys or which is not needed for the
+ * extracted values, like multi-line strings for relevant keys, dotted keys or inline tables for
+ * mods and dependencies, is not supported. In this case no result is returned and the full TOML
+ * parser should be used instead.
+ */
+public class ModsTomlExtractor {
+
+  private static final byte[] MODS = bytes("mods");
+  private static final byte[] DEPENDENCIES = bytes("dependencies");
+  private static final byte[] MOD_LOADER = bytes("modLoader");
+  private static final byte[] MOD_ID = bytes("modId");
+  private static final byte[] DISPLAY_NAME = bytes("displayName");
+  private static final byte[] DISPLAY_TEST = bytes("displayTest");
+  private static final byte[] VERSION = bytes("version");
+  private static final byte[] MANDATORY = bytes("mandatory");
+  private static final byte[] TYPE = bytes("type");
+  private static final byte[] VERSION_RANGE = bytes("versionRange");
+  private static final byte[] SIDE = bytes("side");
+  private static final byte[] ORDERING = bytes("ordering");
+  private static final byte[] TRUE = bytes("true");
+  private static final byte[] FALSE = bytes("false");
+  private static final int MAX_KEY_PARTS = 2;
+
+  private final byte[] content;
+  private final int[] keyStart = new int[MAX_KEY_PARTS];
+  private final int[] keyEnd = new int[MAX_KEY_PARTS];
+  private final List<Dependency> dependencies = new ArrayList<>();
+  private int position = 0;
+  private int numKeyParts = 0;
+  private int numMods = 0;
+  private Table table = Table.ROOT;
+  private String modLoader;
+  private String version;
+  private String modId;
+  private String displayName;
+  private String modVersion;
+  private String displayTest;
+  private String dependencyOwner;
+  private String dependencyModId;
+  private Boolean dependencyMandatory;
+  private String dependencyType;
+  private String dependencyVersionRange;
+  private String dependencySide;
+  private String dependencyOrdering;
+
+  private ModsTomlExtractor(byte[] content) {
+    this.content = content;
+  }
+
+  /**
+   * Extracts the relevant data of the given mods.toml content.
+   *
+   * @return extracted data or null, if the content is using unsupported syntax.
+   */
+  public static ModsTomlData extract(byte[] content) {
+    if (content == null) {
+      return null;
+    }
+    try {
+      return new ModsTomlExtractor(content).extract();
+    } catch (UnsupportedSyntaxException e) {
+      return null;
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static boolean isBareKeyChar(int c) {
+    return (c >= 'a' && c <= 'z')
+        || (c >= 'A' && c <= 'Z')
+        || (c >= '0' && c <= '9')
+        || c == '_'
+        || c == '-';
+  }
+
+  private ModsTomlData extract() throws UnsupportedSyntaxException {
+    // Skip UTF-8 byte order mark.
+    if (content.length >= 3
+        && (content[0] & 0xff) == 0xef
+        && (content[1] & 0xff) == 0xbb
+        && (content[2] & 0xff) == 0xbf) {
+      position = 3;
+    }
+
+    while (skipBlankLines()) {
+      if (peek() == '[') {
+        readTableHeader();
+      } else {
+        readKeyValue();
+      }
+      skipLineEnd();
+    }
+    finishDependency();
+
+    return new ModsTomlData(
+        modLoader, version, modId, displayName, modVersion, displayTest, dependencies);
+  }
+
+  private void readTableHeader() throws UnsupportedSyntaxException {
+    position++;
+    boolean isArrayTable = peek() == '[';
+    if (isArrayTable) {
+      position++;
+    }
+    readKey();
+    expect(']');
+    if (isArrayTable) {
+      expect(']');
+    }
+
+    finishDependency();
+    if (isArrayTable) {
+      if (isKey(0, MODS) && numKeyParts == 1) {
+        table = numMods++ == 0 ? Table.FIRST_MOD : Table.OTHER;
+      } else if (isKey(0, DEPENDENCIES) && numKeyParts == 2) {
+        dependencyOwner =
+            new String(
+                content, keyStart[1], keyEnd[1] - keyStart[1], StandardCharsets.UTF_8);
+        table = Table.DEPENDENCY;
+      } else {
+        table = Table.OTHER;
+      }
+    } else if (isKey(0, MODS) && numKeyParts == 1) {
+      // A [mods] table instead of an array of tables is not expected.
+      throw UnsupportedSyntaxException.INSTANCE;
+    } else if (isKey(0, DEPENDENCIES) && numKeyParts <= 2) {
+      // Dependencies which are defined as table or inline array are not supported.
+      table = Table.DEPENDENCIES;
+    } else {
+      table = Table.OTHER;
+    }
+  }
+
+  private void readKeyValue() throws UnsupportedSyntaxException {
+    readKey();
+    expect('=');
+    skipWhitespace();
+
+    if (table == Table.OTHER) {
+      skipValue();
+      return;
+    }
+    if (table == Table.DEPENDENCIES
+        || numKeyParts > 1
+        || (table == Table.ROOT && (isKey(0, MODS) || isKey(0, DEPENDENCIES)))) {
+      throw UnsupportedSyntaxException.INSTANCE;
+    }
+
+    switch (table) {
+      case ROOT -> {
+        if (isKey(0, MOD_LOADER)) {
+          modLoader = readString(modLoader);
+        } else if (isKey(0, VERSION)) {
+          version = readString(version);
+        } else {
+          skipValue();
+        }
+      }
+      case FIRST_MOD -> {
+        if (isKey(0, MOD_ID)) {
+          modId = readString(modId);
+        } else if (isKey(0, DISPLAY_NAME)) {
+          displayName = readString(displayName);
+        } else if (isKey(0, VERSION)) {
+          modVersion = readString(modVersion);
+        } else if (isKey(0, DISPLAY_TEST)) {
+          displayTest = readString(displayTest);
+        } else {
+          skipValue();
+        }
+      }
+      case DEPENDENCY -> {
+        if (isKey(0, MOD_ID)) {
+          dependencyModId = readString(dependencyModId);
+        } else if (isKey(0, MANDATORY)) {
+          dependencyMandatory = readBoolean(dependencyMandatory);
+        } else if (isKey(0, TYPE)) {
+          dependencyType = readString(dependencyType);
+        } else if (isKey(0, VERSION_RANGE)) {
+          dependencyVersionRange = readString(dependencyVersionRange);
+        } else if (isKey(0, SIDE)) {
+          dependencySide = readString(dependencySide);
+        } else if (isKey(0, ORDERING)) {
+          dependencyOrdering = readString(dependencyOrdering);
+        } else {
+          skipValue();
+        }
+      }
+      default -> skipValue();
+    }
+  }
+
+  private void finishDependency() {
+    if (dependencyOwner != null) {
+      dependencies.add(
+          new Dependency(
+              dependencyOwner,
+              dependencyModId,
+              dependencyMandatory,
+              dependencyType,
+              dependencyVersionRange,
+              dependencySide,
+              dependencyOrdering));
+      dependencyOwner = null;
+      dependencyModId = null;
+      dependencyMandatory = null;
+      dependencyType = null;
+      dependencyVersionRange = null;
+      dependencySide = null;
+      dependencyOrdering = null;
+    }
+  }
+
+  /** Reads a bare, quoted or dotted key and stores the offsets of the first key parts. */
+  private void readKey() throws UnsupportedSyntaxException {
+    numKeyParts = 0;
+    while (true) {
+      skipWhitespace();
+      int c = peek();
+      int start;
+      int end;
+      if (c == '"' || c == '\'') {
+        start = ++position;
+        while (peek() != c) {
+          int next = peek();
+          if (next < 0 || next == '\\' || next == '\n' || next == '\r') {
+            throw UnsupportedSyntaxException.INSTANCE;
+          }
+          position++;
+        }
+        end = position++;
+      } else if (isBareKeyChar(c)) {
+        start = position;
+        while (isBareKeyChar(peek())) {
+          position++;
+        }
+        end = position;
+      } else {
+        throw UnsupportedSyntaxException.INSTANCE;
+      }
+      if (numKeyParts < MAX_KEY_PARTS) {
+        keyStart[numKeyParts] = start;
+        keyEnd[numKeyParts] = end;
+      }
+      numKeyParts++;
+      skipWhitespace();
+      if (peek() != '.') {
+        return;
+      }
+      position++;
+    }
+  }
+
+  private boolean isKey(int part, byte[] name) {
+    if (part >= numKeyParts || keyEnd[part] - keyStart[part] != name.length) {
+      return false;
+    }
+    for (int i = 0; i < name.length; i++) {
+      if (content[keyStart[part] + i] != name[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads a single line string value. Duplicated keys and any other value types are not
+   * supported.
+   */
+  private String readString(String currentValue) throws UnsupportedSyntaxException {
+    int quote = peek();
+    if (currentValue != null
+        || (quote != '"' && quote != '\'')
+        || (peek(1) == quote && peek(2) == quote)) {
+      throw UnsupportedSyntaxException.INSTANCE;
+    }
+    int start = ++position;
+    while (true) {
+      int c = peek();
+      if (c < 0 || c == '\n' || c == '\r') {
+        throw UnsupportedSyntaxException.INSTANCE;
+      } else if (c == quote) {
+        return new String(content, start, position++ - start, StandardCharsets.UTF_8);
+      } else if (c == '\\' && quote == '"') {
+        return readEscapedString(start);
+      }
+      position++;
+    }
+  }
+
+  /** Reads a boolean value. Duplicated keys and any other value types are not supported. */
+  private Boolean readBoolean(Boolean currentValue) throws UnsupportedSyntaxException {
+    if (currentValue == null) {
+      if (matches(TRUE)) {
+        return Boolean.TRUE;
+      } else if (matches(FALSE)) {
+        return Boolean.FALSE;
+      }
+    }
+    throw UnsupportedSyntaxException.INSTANCE;
+  }
+
+  private boolean matches(byte[] value) {
+    for (int i = 0; i < value.length; i++) {
+      if (peek(i) != value[i]) {
+        return false;
+      }
+    }
+    if (isBareKeyChar(peek(value.length))) {
+      return false;
+    }
+    position += value.length;
+    return true;
+  }
+
+  private String readEscapedString(int start) throws UnsupportedSyntaxException {
+    StringBuilder stringBuilder =
+        new StringBuilder(new String(content, start, position - start, StandardCharsets.UTF_8));
+    int segmentStart = position;
+    while (true) {
+      int c = peek();
+      if (c < 0 || c == '\n' || c == '\r') {
+        throw UnsupportedSyntaxException.INSTANCE;
+      } else if (c == '"' || c == '\\') {
+        stringBuilder.append(
+            new String(
+                content, segmentStart, position - segmentStart, StandardCharsets.UTF_8));
+        if (c == '"') {
+          position++;
+          return stringBuilder.toString();
+        }
+        position++;
+        switch (peek()) {
+          case 'b' -> stringBuilder.append('\b');
+          case 't' -> stringBuilder.append('\t');
+          case 'n' -> stringBuilder.append('\n');
+          case 'f' -> stringBuilder.append('\f');
+          case 'r' -> stringBuilder.append('\r');
+          case '"' -> stringBuilder.append('"');
+          case '\\' -> stringBuilder.append('\\');
+          case 'u' -> stringBuilder.appendCodePoint(readCodePoint(4));
+          case 'U' -> stringBuilder.appendCodePoint(readCodePoint(8));
+          default -> throw UnsupportedSyntaxException.INSTANCE;
+        }
+        segmentStart = ++position;
+      } else {
+        position++;
+      }
+    }
+  }
+
+  private int readCodePoint(int numDigits) throws UnsupportedSyntaxException {
+    int codePoint = 0;
+    for (int i = 0; i < numDigits; i++) {
+      int digit = Character.digit(peek(1), 16);
+      if (digit < 0) {
+        throw UnsupportedSyntaxException.INSTANCE;
+      }
+      codePoint = (codePoint << 4) | digit;
+      position++;
+    }
+    if (!Character.isValidCodePoint(codePoint)
+        || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+      throw UnsupportedSyntaxException.INSTANCE;
+    }
+    return codePoint;
+  }
+
+  /** Skips any value, including multi-line strings, arrays and inline tables. */
+  private void skipValue() throws UnsupportedSyntaxException {
+    int c = peek();
+    if (c == '"' || c == '\'') {
+      skipString();
+    } else if (c == '[' || c == '{') {
+      int depth = 0;
+      do {
+        c = peek();
+        if (c < 0) {
+          throw UnsupportedSyntaxException.INSTANCE;
+        } else if (c == '[' || c == '{') {
+          depth++;
+          position++;
+        } else if (c == ']' || c == '}') {
+          depth--;
+          position++;
+        } else if (c == '"' || c == '\'') {
+          skipString();
+        } else if (c == '#') {
+          skipComment();
+        } else {
+          position++;
+        }
+      } while (depth > 0);
+    } else {
+      // Numbers, booleans and dates without spaces.
+      int start = position;
+      while (c >= 0 && c != ' ' && c != '\t' && c != '\n' && c != '\r' && c != '#') {
+        position++;
+        c = peek();
+      }
+      if (position == start) {
+        throw UnsupportedSyntaxException.INSTANCE;
+      }
+    }
+  }
+
+  private void skipString() throws UnsupportedSyntaxException {
+    int quote = peek();
+    boolean isMultiLine = peek(1) == quote && peek(2) == quote;
+    position += isMultiLine ? 3 : 1;
+    while (true) {
+      int c = peek();
+      if (c < 0 || (!isMultiLine && (c == '\n' || c == '\r'))) {
+        throw UnsupportedSyntaxException.INSTANCE;
+      } else if (c == '\\' && quote == '"') {
+        position += 2;
+      } else if (c != quote) {
+        position++;
+      } else if (!isMultiLine) {
+        position++;
+        return;
+      } else if (peek(1) == quote && peek(2) == quote) {
+        // Multi-line strings could end with up to two additional quotes.
+        position += 3;
+        for (int i = 0; i < 2 && peek() == quote; i++) {
+          position++;
+        }
+        return;
+      } else {
+        position++;
+      }
+    }
+  }
+
+  /**
+   * Skips whitespace, empty lines and comments.
+   *
+   * @return true, if there is more content.
+   */
+  private boolean skipBlankLines() throws UnsupportedSyntaxException {
+    while (true) {
+      skipWhitespace();
+      int c = peek();
+      if (c == '#') {
+        skipComment();
+      } else if (c == '\n') {
+        position++;
+      } else if (c == '\r') {
+        expectLineBreak();
+      } else {
+        return c >= 0;
+      }
+    }
+  }
+
+  private void skipLineEnd() throws UnsupportedSyntaxException {
+    skipWhitespace();
+    if (peek() == '#') {
+      skipComment();
+    }
+    int c = peek();
+    if (c == '\n') {
+      position++;
+    } else if (c == '\r') {
+      expectLineBreak();
+    } else if (c >= 0) {
+      throw UnsupportedSyntaxException.INSTANCE;
+    }
+  }
+
+  private void expectLineBreak() throws UnsupportedSyntaxException {
+    if (peek(1) != '\n') {
+      throw UnsupportedSyntaxException.INSTANCE;
+    }
+    position += 2;
+  }
+
+  private void skipComment() {
+    while (position < content.length && content[position] != '\n' && content[position] != '\r') {
+      position++;
+    }
+  }
+
+  private void skipWhitespace() {
+    while (position < content.length && (content[position] == ' ' || content[position] == '\t')) {
+      position++;
+    }
+  }
+
+  private void expect(char c) throws UnsupportedSyntaxException {
+    skipWhitespace();
+    if (peek() != c) {
+      throw UnsupportedSyntaxException.INSTANCE;
+    }
+    position++;
+  }
+
+  private int peek() {
+    return position < content.length ? content[position] & 0xff : -1;
+  }
+
+  private int peek(int offset) {
+    int index = position + offset;
+    return index < content.length ? content[index] & 0xff : -1;
+  }
+
+  private enum Table {
+    ROOT,
+    FIRST_MOD,
+    DEPENDENCY,
+    DEPENDENCIES,
+    OTHER
+  }
+
+  /** Signals syntax, which is not supported by the extractor. */
+  private static class UnsupportedSyntaxException extends Exception {
+
+    private static final UnsupportedSyntaxException INSTANCE = new UnsupportedSyntaxException();
+
+    private UnsupportedSyntaxException() {
+      super("Unsupported mods.toml syntax", null, false, false);
+    }
+  }
+}
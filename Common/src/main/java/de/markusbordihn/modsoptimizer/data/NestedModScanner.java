@@ -0,0 +1,161 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.config.ModsDatabaseConfig;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scans the embedded jar files of a mod file, like the jar-in-jar libraries of Forge and NeoForge
+ * in {@code META-INF/jarjar/} and the nested jars of Fabric and Quilt in {@code META-INF/jars/}.
+ * The embedded jar files are read directly from the outer archive into memory and parsed like
+ * normal mod files, without extracting them to disk.
+ *
+ * <p>All scan threads are sharing one memory budget for the embedded jar files, which are read at
+ * the same time. Embedded jar files, which would exceed the budget, are skipped. The budget only
+ * covers the compressed and the inflated data of the embedded jar files. The reused compressed data
+ * buffer of each scan thread (see {@link DescriptorBuffers}) and the inflated descriptors of the
+ * embedded jar files are excluded. Both are small and freed after the scan.
+ *
+ * <p>Embedded jar files, which are too large for {@link ModArchive}, are always skipped. Embedded
+ * jar files, which are skipped because of the memory budget, depend on the other scans at the same
+ * time, so that the result is marked as incomplete and should not be cached.
+ */
+public class NestedModScanner {
+
+  public static final List<String> NESTED_JAR_DIRECTORIES =
+      List.of("META-INF/jarjar/", "META-INF/jars/");
+
+  private static final String LOG_PREFIX = "[Nested Mod Scanner]";
+  private static final String FILE_EXTENSION = ".jar";
+  private static final int MAX_NESTING_DEPTH = 3;
+  private static final AtomicLong usedMemory = new AtomicLong();
+
+  protected NestedModScanner() {}
+
+  /**
+   * Returns the embedded mods of the given mod archive, including the mods which are embedded in
+   * embedded jar files, and whether the scan was complete. The path of an embedded mod is the path of its entry inside the mod file,
+   * e.g. {@code mods/example.jar/META-INF/jarjar/library.jar}.
+   */
+  public static Result scan(Path modFile, ModArchive modArchive) {
+    List<ModFileData> nestedMods = new ArrayList<>();
+    boolean complete = scan(modFile, modArchive, 1, nestedMods);
+    return new Result(nestedMods, complete);
+  }
+
+  /** Returns the memory in bytes, which is currently used for embedded jar files. */
+  public static long getUsedMemory() {
+    return usedMemory.get();
+  }
+
+  private static boolean scan(
+      Path modFile, ModArchive modArchive, int depth, List<ModFileData> nestedMods) {
+    List<String> entryNames;
+    try {
+      entryNames = modArchive.indexEntries(NESTED_JAR_DIRECTORIES, FILE_EXTENSION);
+    } catch (Exception e) {
+      Constants.LOG.error("{} ⚠ Unable to list embedded jar files of {}:", LOG_PREFIX, modFile, e);
+      return true;
+    }
+    boolean complete = true;
+    for (String entryName : entryNames) {
+      Path nestedModFile = modFile.resolve(entryName);
+      if (!modArchive.isEntryReadable(entryName)) {
+        Constants.LOG.warn(
+            "{} ⚠ Skip embedded jar file {} with {} bytes, because it is too large!",
+            LOG_PREFIX,
+            nestedModFile,
+            modArchive.getEntrySize(entryName));
+        ScanMetrics.count(ScanMetrics.Heuristic.NESTED_JAR_SKIPPED);
+        continue;
+      }
+
+      // The compressed and the inflated data of an embedded jar file are in memory at the same
+      // time, so that both are reserved from the memory budget.
+      long memorySize = 2 * modArchive.getEntrySize(entryName);
+      if (!reserveMemory(memorySize)) {
+        Constants.LOG.warn(
+            "{} ⚠ Skip embedded jar file {} with {} bytes, because of the memory limit!",
+            LOG_PREFIX,
+            nestedModFile,
+            memorySize / 2);
+        ScanMetrics.count(ScanMetrics.Heuristic.NESTED_JAR_SKIPPED);
+        complete = false;
+        continue;
+      }
+      try {
+        byte[] data = modArchive.readEntry(entryName);
+        if (data == null) {
+          continue;
+        }
+        try (ModArchive nestedModArchive =
+            ModArchive.open(
+                nestedModFile.toString(),
+                ByteBuffer.wrap(data),
+                ModDescriptorParsers.getEntryNames())) {
+          ScanMetrics.count(ScanMetrics.Heuristic.NESTED_JAR_SCANNED);
+          ModFileData nestedModData =
+              ModFileParser.parseNestedModFile(
+                  ModDescriptorSnapshot.create(nestedModFile, nestedModArchive));
+          if (nestedModData != null
+              && nestedModData.id() != null
+              && !nestedModData.id().isEmpty()) {
+            nestedMods.add(nestedModData);
+          }
+          if (depth < MAX_NESTING_DEPTH
+              && !scan(nestedModFile, nestedModArchive, depth + 1, nestedMods)) {
+            complete = false;
+          }
+        }
+      } catch (Exception e) {
+        Constants.LOG.error(
+            "{} ⚠ Unable to read embedded jar file {}:", LOG_PREFIX, nestedModFile, e);
+      } finally {
+        usedMemory.addAndGet(-memorySize);
+      }
+    }
+    return complete;
+  }
+
+  private static boolean reserveMemory(long memorySize) {
+    long memoryLimit = ModsDatabaseConfig.getNestedScanMemoryLimit();
+    while (true) {
+      long currentMemory = usedMemory.get();
+      if (memorySize < 0 || currentMemory + memorySize > memoryLimit) {
+        return false;
+      }
+      if (usedMemory.compareAndSet(currentMemory, currentMemory + memorySize)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Result of the scan with the embedded mods and whether all embedded jar files were scanned,
+   * without any embedded jar file, which was skipped because of the memory budget.
+   */
+  public record Result(List<ModFileData> nestedMods, boolean complete) {}
+}
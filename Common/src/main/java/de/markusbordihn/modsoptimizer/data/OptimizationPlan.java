@@ -0,0 +1,319 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.config.ModsDatabaseConfig;
+import de.markusbordihn.modsoptimizer.utils.ClientSideModsUtils;
+import de.markusbordihn.modsoptimizer.utils.DuplicatedModsUtils;
+import de.markusbordihn.modsoptimizer.utils.ModFileUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pre-computed list of file operations (removal of duplicated mods and disabling of client side
+ * mods), which is stored under {@link ModsDatabaseConfig#CONFIG_PATH} by the watch mode and applied
+ * at the next start, before the mods are parsed. Each entry is only applied, if the size and last
+ * modified time of the mod file are still the same as at the time of the planning. The removal of a
+ * duplicated mod additionally requires, that the kept mod file is still unchanged.
+ */
+public class OptimizationPlan {
+
+  public static final String PLAN_FILE_NAME = "optimization-plan.txt";
+
+  private static final String LOG_PREFIX = "[Optimization Plan]";
+  private static final String PLAN_HEADER = "# Mods Optimizer plan v2 for ";
+  private static final String SEPARATOR = "\t";
+
+  private final GameEnvironment gameEnvironment;
+  private final List<Entry> entries;
+
+  private OptimizationPlan(GameEnvironment gameEnvironment, List<Entry> entries) {
+    this.gameEnvironment = gameEnvironment;
+    this.entries = Collections.unmodifiableList(entries);
+  }
+
+  public static Path getPlanFile() {
+    return ModsDatabaseConfig.CONFIG_PATH.resolve(PLAN_FILE_NAME);
+  }
+
+  /** Creates a plan for the current mod data and the given game environment. */
+  public static OptimizationPlan create(GameEnvironment gameEnvironment) {
+    List<Entry> entries = new ArrayList<>();
+    Set<Path> removedModFiles = new HashSet<>();
+
+    // Remove all duplicated mods except the most recent one, embedded mods are never removed.
+    for (Map.Entry<String, Set<ModFileData>> duplicatedMod :
+        ModData.getDuplicatedMods().entrySet()) {
+      Set<ModFileData> modFiles =
+          DuplicatedModsUtils.getRemovableModFiles(duplicatedMod.getValue());
+      ModFileData latestModFile = DuplicatedModsUtils.getLatestModFile(modFiles);
+      for (ModFileData modFile : modFiles) {
+        if (modFile != latestModFile) {
+          Entry entry = Entry.of(Action.REMOVE_DUPLICATED_MOD, modFile, latestModFile);
+          if (entry != null) {
+            entries.add(entry);
+            removedModFiles.add(modFile.path());
+          }
+        }
+      }
+    }
+
+    // Disable client side mods on dedicated servers.
+    if (gameEnvironment == GameEnvironment.SERVER) {
+      for (ModFileData modFile : ModData.getClientMods()) {
+        if (!removedModFiles.contains(modFile.path())) {
+          Entry entry = Entry.of(Action.DISABLE_CLIENT_MOD, modFile, null);
+          if (entry != null) {
+            entries.add(entry);
+          }
+        }
+      }
+    }
+
+    return new OptimizationPlan(gameEnvironment, entries);
+  }
+
+  public static OptimizationPlan load() {
+    return load(getPlanFile());
+  }
+
+  /** Loads a stored plan or returns {@code null}, if there is no valid plan. */
+  public static OptimizationPlan load(Path planFile) {
+    if (planFile == null || !Files.isRegularFile(planFile)) {
+      return null;
+    }
+    try {
+      List<String> lines = Files.readAllLines(planFile, StandardCharsets.UTF_8);
+      if (lines.isEmpty() || !lines.get(0).startsWith(PLAN_HEADER)) {
+        Constants.LOG.warn("{} ⚠ Ignore unknown plan file {}", LOG_PREFIX, planFile);
+        return null;
+      }
+      GameEnvironment gameEnvironment =
+          GameEnvironment.valueOf(lines.get(0).substring(PLAN_HEADER.length()).trim());
+      List<Entry> entries = new ArrayList<>();
+      for (String line : lines.subList(1, lines.size())) {
+        if (!line.isBlank()) {
+          entries.add(Entry.parse(line));
+        }
+      }
+      return new OptimizationPlan(gameEnvironment, entries);
+    } catch (Exception e) {
+      Constants.LOG.warn("{} ⚠ Unable to read plan file {}: {}", LOG_PREFIX, planFile, e);
+    }
+    return null;
+  }
+
+  public static void delete() {
+    delete(getPlanFile());
+  }
+
+  public static void delete(Path planFile) {
+    try {
+      Files.deleteIfExists(planFile);
+    } catch (IOException e) {
+      Constants.LOG.error("{} ⚠ Unable to delete plan file {}:", LOG_PREFIX, planFile, e);
+    }
+  }
+
+  public GameEnvironment getGameEnvironment() {
+    return this.gameEnvironment;
+  }
+
+  public List<Entry> getEntries() {
+    return this.entries;
+  }
+
+  public boolean isEmpty() {
+    return this.entries.isEmpty();
+  }
+
+  public void save() {
+    save(getPlanFile());
+  }
+
+  public void save(Path planFile) {
+    if (this.entries.isEmpty()) {
+      delete(planFile);
+      return;
+    }
+    StringBuilder textContent = new StringBuilder();
+    textContent.append(PLAN_HEADER).append(this.gameEnvironment).append('\n');
+    for (Entry entry : this.entries) {
+      textContent.append(entry.format()).append('\n');
+    }
+    Path tempFile = planFile.resolveSibling(planFile.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(planFile.getParent());
+      Files.writeString(tempFile, textContent, StandardCharsets.UTF_8);
+      Files.move(tempFile, planFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      Constants.LOG.error("{} ⚠ Unable to write plan file {}:", LOG_PREFIX, planFile, e);
+    }
+  }
+
+  /**
+   * Applies all entries, which are still valid for the current mod files.
+   *
+   * @return number of applied entries
+   */
+  public int apply(GameEnvironment gameEnvironment) {
+    if (gameEnvironment != this.gameEnvironment) {
+      Constants.LOG.warn(
+          "{} ⚠ Skip plan for {} in {} environment!",
+          LOG_PREFIX,
+          this.gameEnvironment,
+          gameEnvironment);
+      return 0;
+    }
+    int result = 0;
+    for (Entry entry : this.entries) {
+      if (!entry.isValid()) {
+        Constants.LOG.info("{} Skip outdated entry {}", LOG_PREFIX, entry);
+        continue;
+      }
+      if (entry.action() == Action.REMOVE_DUPLICATED_MOD) {
+        if (ModFileUtils.deleteModFile(entry.path())) {
+          Constants.LOG.info(
+              "{} ✔ Removed duplicated mod {} with {}", LOG_PREFIX, entry.modId(), entry.path());
+          result++;
+        } else {
+          Constants.LOG.error("{} ⚠ Was unable to remove duplicated mod {}!", LOG_PREFIX, entry);
+        }
+      } else if (entry.action() == Action.DISABLE_CLIENT_MOD
+          && ClientSideModsUtils.disable(entry.path(), entry.modId())) {
+        result++;
+      }
+    }
+    if (result > 0) {
+      DirectorySnapshot.invalidate();
+    }
+    return result;
+  }
+
+  public enum Action {
+    REMOVE_DUPLICATED_MOD,
+    DISABLE_CLIENT_MOD
+  }
+
+  /**
+   * Single file operation with the file attributes at the time of the planning. The kept path is
+   * the mod file, which replaces a removed duplicated mod and is {@code null} for other actions.
+   */
+  public record Entry(
+      Action action,
+      Path path,
+      long size,
+      long lastModified,
+      String modId,
+      Path keptPath,
+      long keptSize,
+      long keptLastModified) {
+
+    private static Entry of(Action action, ModFileData modFileData, ModFileData keptModFileData) {
+      try {
+        BasicFileAttributes fileAttributes =
+            Files.readAttributes(modFileData.path(), BasicFileAttributes.class);
+        if (keptModFileData == null) {
+          return new Entry(
+              action,
+              modFileData.path(),
+              fileAttributes.size(),
+              fileAttributes.lastModifiedTime().toMillis(),
+              modFileData.id(),
+              null,
+              0,
+              0);
+        }
+        BasicFileAttributes keptFileAttributes =
+            Files.readAttributes(keptModFileData.path(), BasicFileAttributes.class);
+        return new Entry(
+            action,
+            modFileData.path(),
+            fileAttributes.size(),
+            fileAttributes.lastModifiedTime().toMillis(),
+            modFileData.id(),
+            keptModFileData.path(),
+            keptFileAttributes.size(),
+            keptFileAttributes.lastModifiedTime().toMillis());
+      } catch (IOException e) {
+        Constants.LOG.debug("{} Unable to plan {} for {}: {}", LOG_PREFIX, action, modFileData, e);
+      }
+      return null;
+    }
+
+    private static Entry parse(String line) {
+      String[] values = line.split(SEPARATOR, 8);
+      return new Entry(
+          Action.valueOf(values[0]),
+          Path.of(values[7]),
+          Long.parseLong(values[1]),
+          Long.parseLong(values[2]),
+          values[3],
+          values[6].isEmpty() ? null : Path.of(values[6]),
+          Long.parseLong(values[4]),
+          Long.parseLong(values[5]));
+    }
+
+    private String format() {
+      return String.join(
+          SEPARATOR,
+          action.name(),
+          String.valueOf(size),
+          String.valueOf(lastModified),
+          modId,
+          String.valueOf(keptSize),
+          String.valueOf(keptLastModified),
+          keptPath != null ? keptPath.toString() : "",
+          path.toString());
+    }
+
+    private boolean isValid() {
+      if (!isUnchanged(path, size, lastModified)) {
+        return false;
+      }
+      if (action == Action.REMOVE_DUPLICATED_MOD) {
+        return keptPath != null && isUnchanged(keptPath, keptSize, keptLastModified);
+      }
+      return true;
+    }
+
+    private static boolean isUnchanged(Path file, long size, long lastModified) {
+      try {
+        BasicFileAttributes fileAttributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return fileAttributes.isRegularFile()
+            && fileAttributes.size() == size
+            && fileAttributes.lastModifiedTime().toMillis() == lastModified;
+      } catch (IOException e) {
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.config.ModsDatabaseConfig;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Metrics of the last start, with the wall time of each phase, the parse time of each mod file split
+ * into stages and the number of times each heuristic was used. The metrics are exported as JSON
+ * file under {@link ModsDatabaseConfig#CONFIG_PATH}, to find mod files which are slowing down the
+ * start.
+ */
+public class ScanMetrics {
+
+  public static final String METRICS_FILE_NAME = "scan-metrics.json";
+  public static final int SLOWEST_JARS_LIMIT = 25;
+
+  private static final String LOG_PREFIX = "[Scan Metrics]";
+  private static final Map<String, Long> phaseTimes =
+      Collections.synchronizedMap(new LinkedHashMap<>());
+  private static final Map<Path, JarMetrics> jarMetricsMap = new ConcurrentHashMap<>();
+  private static final Map<Heuristic, LongAdder> heuristicCounters =
+      new EnumMap<>(Heuristic.class);
+  private static final ThreadLocal<long[]> currentStageTimes = new ThreadLocal<>();
+
+  static {
+    for (Heuristic heuristic : Heuristic.values()) {
+      heuristicCounters.put(heuristic, new LongAdder());
+    }
+  }
+
+  protected ScanMetrics() {}
+
+  public static void reset() {
+    phaseTimes.clear();
+    jarMetricsMap.clear();
+    for (LongAdder counter : heuristicCounters.values()) {
+      counter.reset();
+    }
+  }
+
+  public static void recordPhase(String phase, long nanos) {
+    phaseTimes.merge(phase, nanos, Long::sum);
+  }
+
+  public static Map<String, Long> getPhaseTimes() {
+    synchronized (phaseTimes) {
+      return new LinkedHashMap<>(phaseTimes);
+    }
+  }
+
+  public static void count(Heuristic heuristic) {
+    heuristicCounters.get(heuristic).increment();
+  }
+
+  public static long getCount(Heuristic heuristic) {
+    return heuristicCounters.get(heuristic).sum();
+  }
+
+  /** Starts the stage timing for a mod file on the current thread. */
+  public static void beginJar() {
+    currentStageTimes.set(new long[Stage.values().length]);
+  }
+
+  public static void addStageTime(Stage stage, long nanos) {
+    long[] stageTimes = currentStageTimes.get();
+    if (stageTimes != null) {
+      stageTimes[stage.ordinal()] += nanos;
+    }
+  }
+
+  public static long getStageTime(Stage stage) {
+    long[] stageTimes = currentStageTimes.get();
+    return stageTimes != null ? stageTimes[stage.ordinal()] : 0;
+  }
+
+  /** Finishes the stage timing for a mod file on the current thread. */
+  public static void endJar(Path path, long totalTime, boolean cached) {
+    long[] stageTimes = currentStageTimes.get();
+    currentStageTimes.remove();
+    if (path == null || stageTimes == null) {
+      return;
+    }
+    jarMetricsMap.put(
+        path,
+        new JarMetrics(
+            path,
+            cached,
+            totalTime,
+            stageTimes[Stage.OPEN.ordinal()],
+            stageTimes[Stage.MANIFEST.ordinal()],
+            stageTimes[Stage.DESCRIPTOR.ordinal()],
+            stageTimes[Stage.VERSION.ordinal()]));
+  }
+
+  public static List<JarMetrics> getJarMetrics() {
+    return new ArrayList<>(jarMetricsMap.values());
+  }
+
+  public static List<JarMetrics> getSlowestJars(int limit) {
+    return jarMetricsMap.values().stream()
+        .sorted(Comparator.comparingLong(JarMetrics::totalTime).reversed())
+        .limit(limit)
+        .toList();
+  }
+
+  public static void showSlowestJars(int limit) {
+    List<JarMetrics> slowestJars = getSlowestJars(limit);
+    if (slowestJars.isEmpty()) {
+      return;
+    }
+    Constants.LOG.info("{} ⏱ Slowest {} mod files:", LOG_PREFIX, slowestJars.size());
+    for (JarMetrics jarMetrics : slowestJars) {
+      Constants.LOG.info(
+          "{} ⏱ {} ms {} (open {} ms, manifest {} ms, descriptor {} ms, version {} ms{})",
+          LOG_PREFIX,
+          toMillis(jarMetrics.totalTime()),
+          jarMetrics.path().getFileName(),
+          toMillis(jarMetrics.openTime()),
+          toMillis(jarMetrics.manifestTime()),
+          toMillis(jarMetrics.descriptorTime()),
+          toMillis(jarMetrics.versionTime()),
+          jarMetrics.cached() ? ", cached" : "");
+    }
+  }
+
+  public static Path getMetricsFile() {
+    return ModsDatabaseConfig.CONFIG_PATH.resolve(METRICS_FILE_NAME);
+  }
+
+  public static void export() {
+    export(getMetricsFile());
+  }
+
+  public static void export(Path metricsFile) {
+    JsonObject metrics = new JsonObject();
+    metrics.addProperty("timestamp", Instant.now().toString());
+
+    // Phases
+    JsonObject phases = new JsonObject();
+    for (Map.Entry<String, Long> phaseTime : getPhaseTimes().entrySet()) {
+      phases.addProperty(phaseTime.getKey(), toMillis(phaseTime.getValue()));
+    }
+    metrics.add("phases", phases);
+
+    // Summary over all mod files
+    List<JarMetrics> jarMetricsList = getJarMetrics();
+    JsonObject jars = new JsonObject();
+    jars.addProperty("count", jarMetricsList.size());
+    jars.addProperty("cached", jarMetricsList.stream().filter(JarMetrics::cached).count());
+    jars.addProperty("total", toMillis(sum(jarMetricsList, JarMetrics::totalTime)));
+    jars.addProperty("open", toMillis(sum(jarMetricsList, JarMetrics::openTime)));
+    jars.addProperty("manifest", toMillis(sum(jarMetricsList, JarMetrics::manifestTime)));
+    jars.addProperty("descriptor", toMillis(sum(jarMetricsList, JarMetrics::descriptorTime)));
+    jars.addProperty("version", toMillis(sum(jarMetricsList, JarMetrics::versionTime)));
+    metrics.add("jars", jars);
+
+    // Slowest mod files
+    JsonArray slowestJars = new JsonArray();
+    for (JarMetrics jarMetrics : getSlowestJars(SLOWEST_JARS_LIMIT)) {
+      JsonObject slowestJar = new JsonObject();
+      slowestJar.addProperty("file", jarMetrics.path().getFileName().toString());
+      slowestJar.addProperty("cached", jarMetrics.cached());
+      slowestJar.addProperty("total", toMillis(jarMetrics.totalTime()));
+      slowestJar.addProperty("open", toMillis(jarMetrics.openTime()));
+      slowestJar.addProperty("manifest", toMillis(jarMetrics.manifestTime()));
+      slowestJar.addProperty("descriptor", toMillis(jarMetrics.descriptorTime()));
+      slowestJar.addProperty("version", toMillis(jarMetrics.versionTime()));
+      slowestJars.add(slowestJar);
+    }
+    metrics.add("slowestJars", slowestJars);
+
+    // Heuristics
+    JsonObject heuristics = new JsonObject();
+    for (Heuristic heuristic : Heuristic.values()) {
+      heuristics.addProperty(heuristic.name(), getCount(heuristic));
+    }
+    metrics.add("heuristics", heuristics);
+
+    try {
+      Files.createDirectories(metricsFile.getParent());
+      Files.writeString(
+          metricsFile,
+          new GsonBuilder().setPrettyPrinting().create().toJson(metrics),
+          StandardCharsets.UTF_8);
+      Constants.LOG.info("{} Exported metrics to {}", LOG_PREFIX, metricsFile);
+    } catch (IOException e) {
+      Constants.LOG.error("{} ⚠ Unable to export metrics to {}:", LOG_PREFIX, metricsFile, e);
+    }
+  }
+
+  private static long sum(List<JarMetrics> jarMetricsList, ToLongFunction<JarMetrics> function) {
+    return jarMetricsList.stream().mapToLong(function).sum();
+  }
+
+  private static double toMillis(long nanos) {
+    return Math.round(nanos / 1_000.0) / 1_000.0;
+  }
+
+  /** Stages of the parsing of a single mod file. */
+  public enum Stage {
+    OPEN,
+    MANIFEST,
+    DESCRIPTOR,
+    VERSION
+  }
+
+  /** Heuristics and fallbacks, which are used during the parsing of the mod files. */
+  public enum Heuristic {
+    SCAN_CACHE_HIT,
+    SCAN_CACHE_MISS,
+    MOD_TYPE_BY_FILE_NAME,
+    MOD_TYPE_BY_MIXED_DESCRIPTORS,
+    MOD_TYPE_BY_MANIFEST,
+    MOD_TYPE_BY_DESCRIPTOR,
+    MOD_TYPE_UNKNOWN,
+    MANIFEST_READ,
+    MODS_TOML_FALLBACK,
+    MOD_JSON_FALLBACK,
+    JSON_LENIENT_PARSING,
+    DATA_PACK_BY_MOD_LOADER,
+    DATA_PACK_BY_DIRECTORIES,
+    MOD_ID_FROM_MANIFEST,
+    MOD_ID_FALLBACK,
+    NAME_FROM_MANIFEST,
+    ENVIRONMENT_FROM_MANIFEST,
+    VERSION_FROM_MANIFEST,
+    VERSION_CACHE_HIT,
+    VERSION_CACHE_MISS,
+    VERSION_LENGTH_CAPPED,
+    VERSION_NORMALIZED,
+    VERSION_FALLBACK,
+    TIMESTAMP_FROM_MANIFEST,
+    TIMESTAMP_FROM_FILE,
+    ENVIRONMENT_OVERRIDE,
+    NESTED_JAR_SCANNED,
+    NESTED_JAR_SKIPPED
+  }
+
+  /** Parse time of a single mod file in nanoseconds. */
+  public record JarMetrics(
+      Path path,
+      boolean cached,
+      long totalTime,
+      long openTime,
+      long manifestTime,
+      long descriptorTime,
+      long versionTime) {}
+}
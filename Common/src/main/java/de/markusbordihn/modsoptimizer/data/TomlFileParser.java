@@ -21,26 +21,22 @@ package de.markusbordihn.modsoptimizer.data;
 
 import com.moandjiezana.toml.Toml;
 import de.markusbordihn.modsoptimizer.Constants;
-import java.io.InputStream;
 import java.nio.file.Path;
-import java.util.jar.JarFile;
-import java.util.zip.ZipEntry;
 
 public class TomlFileParser {
 
   private TomlFileParser() {}
 
-  public static Toml readTomlFile(JarFile jarFile, Path path) {
-    ZipEntry modsFile = jarFile.getEntry(path.toString().replace("\\", "/"));
-    if (modsFile != null && !modsFile.isDirectory()) {
-      try (InputStream inputStream = jarFile.getInputStream(modsFile)) {
-        return new Toml().read(inputStream);
+  public static Toml readTomlFile(byte[] content, Path path, ModArchive modArchive) {
+    if (content != null) {
+      try {
+        return new Toml().read(DescriptorBuffers.get().getReader(content));
       } catch (Exception e) {
-        Constants.LOG.error("Error reading TOML file {} from {}: {}", path, jarFile, e);
+        Constants.LOG.error("Error reading TOML file {} from {}: {}", path, modArchive, e);
       }
     } else {
       Constants.LOG.error(
-          "TOML file {} not found in {}", path.toString().replace("\\", "/"), jarFile);
+          "TOML file {} not found in {}", path.toString().replace("\\", "/"), modArchive);
     }
     return new Toml();
   }
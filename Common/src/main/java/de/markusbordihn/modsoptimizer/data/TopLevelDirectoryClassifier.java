@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streaming classifier for the top-level directories of a mod file. A mod file is classified as
+ * data pack, if it only contains an 'assets', 'data' directory and maybe a 'META-INF' or 'things'
+ * directory. Other files which are not a directory are ignored. The classification stops at the
+ * first disqualifying directory entry.
+ */
+public class TopLevelDirectoryClassifier implements ModArchive.EntryNameVisitor {
+
+  private static final byte[][] DATA_PACK_ROOTS = {
+    "assets".getBytes(StandardCharsets.UTF_8),
+    "data".getBytes(StandardCharsets.UTF_8),
+    "META-INF".getBytes(StandardCharsets.UTF_8),
+    "things".getBytes(StandardCharsets.UTF_8)
+  };
+
+  private final List<byte[]> roots = new ArrayList<>();
+  private final Set<String> rootNames = new LinkedHashSet<>();
+  private boolean isDataPack = false;
+  private boolean stopped = false;
+
+  private TopLevelDirectoryClassifier() {}
+
+  public static Result classify(ModArchive modArchive) {
+    TopLevelDirectoryClassifier classifier = new TopLevelDirectoryClassifier();
+    modArchive.visitEntryNames(classifier);
+    return new Result(
+        classifier.isDataPack,
+        classifier.stopped,
+        Collections.unmodifiableSet(classifier.rootNames));
+  }
+
+  @Override
+  public boolean visit(ByteBuffer nameBuffer, int offset, int length) {
+    int rootLength = indexOf(nameBuffer, offset, length, (byte) '/');
+    if (rootLength < 0) {
+      // Ignore top-level files.
+      return true;
+    }
+    if (rootLength > 0) {
+      addRoot(nameBuffer, offset, rootLength);
+    }
+
+    // Only directory entries are relevant for the data pack detection.
+    if (nameBuffer.get(offset + length - 1) == '/') {
+      if (isDataPackRoot(nameBuffer, offset, rootLength)) {
+        this.isDataPack = true;
+      } else {
+        this.isDataPack = false;
+        this.stopped = true;
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void addRoot(ByteBuffer nameBuffer, int offset, int rootLength) {
+    for (byte[] root : this.roots) {
+      if (equals(nameBuffer, offset, rootLength, root)) {
+        return;
+      }
+    }
+    byte[] root = new byte[rootLength];
+    nameBuffer.get(offset, root);
+    this.roots.add(root);
+    this.rootNames.add(new String(root, StandardCharsets.UTF_8));
+  }
+
+  private static boolean isDataPackRoot(ByteBuffer nameBuffer, int offset, int rootLength) {
+    for (byte[] dataPackRoot : DATA_PACK_ROOTS) {
+      if (equals(nameBuffer, offset, rootLength, dataPackRoot)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int indexOf(ByteBuffer nameBuffer, int offset, int length, byte value) {
+    for (int i = 0; i < length; i++) {
+      if (nameBuffer.get(offset + i) == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean equals(ByteBuffer nameBuffer, int offset, int length, byte[] value) {
+    if (length != value.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (nameBuffer.get(offset + i) != value[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Result of the classification with the top-level directories, which were seen until the
+   * classification was finished or stopped.
+   */
+  public record Result(boolean isDataPack, boolean stoppedEarly, Set<String> roots) {}
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.data;
+
+import com.github.zafarkhaja.semver.Version;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact and comparable key of a version, which is computed once per mod file. The normal version
+ * is packed into a single long and the pre-release version is interned, so that most comparisons
+ * of duplicated mods are a single long comparison. The order is the same as the order of {@link
+ * Version#compareTo(Version)}, which ignores the build metadata.
+ */
+public final class VersionKey implements Comparable<VersionKey> {
+
+  private static final int PACKED_BITS = 21;
+  private static final int MAX_PACKED_VALUE = (1 << PACKED_BITS) - 1;
+  private static final long NOT_PACKED = -1L;
+  private static final long NOT_AN_INTEGER = -1L;
+  private static final int MAX_INTERNED_PRE_RELEASES = 4096;
+  private static final Map<String, String> preReleases = new ConcurrentHashMap<>();
+
+  public static final VersionKey EMPTY = new VersionKey(0, 0, 0, "");
+
+  private final long packedVersion;
+  private final int major;
+  private final int minor;
+  private final int patch;
+  private final String preRelease;
+
+  private VersionKey(int major, int minor, int patch, String preRelease) {
+    this.major = major;
+    this.minor = minor;
+    this.patch = patch;
+    this.preRelease = preRelease;
+    this.packedVersion =
+        major <= MAX_PACKED_VALUE && minor <= MAX_PACKED_VALUE && patch <= MAX_PACKED_VALUE
+            ? ((long) major << (2 * PACKED_BITS)) | ((long) minor << PACKED_BITS) | patch
+            : NOT_PACKED;
+  }
+
+  public static VersionKey of(Version version) {
+    if (version == null) {
+      return EMPTY;
+    }
+    return new VersionKey(
+        version.getMajorVersion(),
+        version.getMinorVersion(),
+        version.getPatchVersion(),
+        internPreRelease(version.getPreReleaseVersion()));
+  }
+
+  private static String internPreRelease(String preRelease) {
+    if (preRelease == null || preRelease.isEmpty()) {
+      return "";
+    }
+    String internedPreRelease = preReleases.get(preRelease);
+    if (internedPreRelease != null) {
+      return internedPreRelease;
+    }
+    if (preReleases.size() >= MAX_INTERNED_PRE_RELEASES) {
+      return preRelease;
+    }
+    internedPreRelease = preReleases.putIfAbsent(preRelease, preRelease);
+    return internedPreRelease != null ? internedPreRelease : preRelease;
+  }
+
+  public int getMajorVersion() {
+    return this.major;
+  }
+
+  public int getMinorVersion() {
+    return this.minor;
+  }
+
+  public int getPatchVersion() {
+    return this.patch;
+  }
+
+  public String getPreReleaseVersion() {
+    return this.preRelease;
+  }
+
+  public boolean isPreRelease() {
+    return !this.preRelease.isEmpty();
+  }
+
+  public boolean isNewerThan(VersionKey other) {
+    return compareTo(other) > 0;
+  }
+
+  @Override
+  public int compareTo(VersionKey other) {
+    if (this == other) {
+      return 0;
+    }
+
+    // Compare normal versions.
+    if (this.packedVersion != NOT_PACKED && other.packedVersion != NOT_PACKED) {
+      if (this.packedVersion != other.packedVersion) {
+        return Long.compare(this.packedVersion, other.packedVersion);
+      }
+    } else {
+      int result = Integer.compare(this.major, other.major);
+      if (result == 0) {
+        result = Integer.compare(this.minor, other.minor);
+      }
+      if (result == 0) {
+        result = Integer.compare(this.patch, other.patch);
+      }
+      if (result != 0) {
+        return result;
+      }
+    }
+
+    // Compare pre-release versions, where a version without pre-release is the newer version.
+    if (this.preRelease == other.preRelease) {
+      return 0;
+    } else if (this.preRelease.isEmpty()) {
+      return 1;
+    } else if (other.preRelease.isEmpty()) {
+      return -1;
+    }
+    return comparePreReleases(this.preRelease, other.preRelease);
+  }
+
+  /**
+   * Compares the dot separated pre-release identifiers without splitting them. Identifiers, which
+   * are both integers, are compared numerically and all other identifiers lexically, like the
+   * semantic version library does.
+   */
+  private static int comparePreReleases(String preRelease, String otherPreRelease) {
+    int start = 0;
+    int otherStart = 0;
+    while (start <= preRelease.length() && otherStart <= otherPreRelease.length()) {
+      int end = indexOfDot(preRelease, start);
+      int otherEnd = indexOfDot(otherPreRelease, otherStart);
+      int result =
+          compareIdentifiers(preRelease, start, end, otherPreRelease, otherStart, otherEnd);
+      if (result != 0) {
+        return result;
+      }
+      start = end + 1;
+      otherStart = otherEnd + 1;
+    }
+
+    // All common identifiers are equal, so that more identifiers are the newer version.
+    return countIdentifiers(preRelease, start) - countIdentifiers(otherPreRelease, otherStart);
+  }
+
+  private static int compareIdentifiers(
+      String identifier, int start, int end, String otherIdentifier, int otherStart, int otherEnd) {
+    long value = parseInt(identifier, start, end);
+    long otherValue = parseInt(otherIdentifier, otherStart, otherEnd);
+    if (value != NOT_AN_INTEGER && otherValue != NOT_AN_INTEGER) {
+      return (int) value - (int) otherValue;
+    }
+    int length = end - start;
+    int otherLength = otherEnd - otherStart;
+    for (int i = 0; i < Math.min(length, otherLength); i++) {
+      char c = identifier.charAt(start + i);
+      char otherC = otherIdentifier.charAt(otherStart + i);
+      if (c != otherC) {
+        return c - otherC;
+      }
+    }
+    return length - otherLength;
+  }
+
+  /**
+   * Parses the identifier like Integer.parseInt and returns the int value as unsigned long or
+   * {@link #NOT_AN_INTEGER}, if the identifier is not an integer.
+   */
+  private static long parseInt(String identifier, int start, int end) {
+    boolean negative = start < end && identifier.charAt(start) == '-';
+    int i = negative ? start + 1 : start;
+    if (i == end) {
+      return NOT_AN_INTEGER;
+    }
+    long value = 0;
+    for (; i < end; i++) {
+      char c = identifier.charAt(i);
+      if (c < '0' || c > '9') {
+        return NOT_AN_INTEGER;
+      }
+      value = value * 10 + (c - '0');
+      if (value > (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+        return NOT_AN_INTEGER;
+      }
+    }
+    return (negative ? -value : value) & 0xffffffffL;
+  }
+
+  private static int indexOfDot(String preRelease, int start) {
+    int end = preRelease.indexOf('.', start);
+    return end < 0 ? preRelease.length() : end;
+  }
+
+  private static int countIdentifiers(String preRelease, int start) {
+    int numIdentifiers = 0;
+    while (start <= preRelease.length()) {
+      numIdentifiers++;
+      start = indexOfDot(preRelease, start) + 1;
+    }
+    return numIdentifiers;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    return other instanceof VersionKey versionKey && compareTo(versionKey) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    // Pre-release versions could be equal with different identifiers, like -1 and -01.
+    return Long.hashCode(this.major * 31L * 31L + this.minor * 31L + this.patch);
+  }
+
+  @Override
+  public String toString() {
+    return this.major
+        + "."
+        + this.minor
+        + "."
+        + this.patch
+        + (this.preRelease.isEmpty() ? "" : "-" + this.preRelease);
+  }
+}
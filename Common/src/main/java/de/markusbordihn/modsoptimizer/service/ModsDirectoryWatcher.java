@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.service;
+
+import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.data.GameEnvironment;
+import de.markusbordihn.modsoptimizer.data.ModData;
+import de.markusbordihn.modsoptimizer.data.OptimizationPlan;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches the mods directory for created, modified and deleted mod files and keeps the {@link
+ * ModData} in sync. Events are debounced and coalesced, so that a bulk copy of many mod files only
+ * triggers a single batched update after the mods directory was quiet for the configured delay.
+ * After each update the optimization plan is re-computed and stored for the next start.
+ */
+public class ModsDirectoryWatcher implements Runnable, Closeable {
+
+  private static final String LOG_PREFIX = "[Mods Directory Watcher]";
+  private static final String FILE_EXTENSION = ".jar";
+
+  private final Path modsDir;
+  private final GameEnvironment gameEnvironment;
+  private final long delay;
+  private final WatchService watchService;
+  private Thread thread;
+
+  public ModsDirectoryWatcher(File modsDir, GameEnvironment gameEnvironment, long delay)
+      throws IOException {
+    this.modsDir = modsDir.toPath().toAbsolutePath().normalize();
+    this.gameEnvironment = gameEnvironment;
+    this.delay = delay;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.modsDir.register(
+        this.watchService,
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY,
+        StandardWatchEventKinds.ENTRY_DELETE);
+  }
+
+  public synchronized void start() {
+    if (this.thread != null) {
+      return;
+    }
+
+    // Drop mod files, which were already removed or disabled during the start.
+    List<Path> removedModFiles =
+        ModData.getModFiles().stream().filter(Files::notExists).toList();
+    if (!removedModFiles.isEmpty()) {
+      ModData.updateMods(List.of(), removedModFiles);
+    }
+
+    this.thread = new Thread(this, Constants.LOG_NAME + " Watcher");
+    this.thread.setDaemon(true);
+    this.thread.start();
+    Constants.LOG.info(
+        "{} 👀 Watching {} with a delay of {} ms ...", LOG_PREFIX, this.modsDir, this.delay);
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        // Wait for the first change and collect all following changes until it's quiet again.
+        Map<Path, Boolean> changes = new LinkedHashMap<>();
+        boolean overflow = collectEvents(this.watchService.take(), changes);
+        WatchKey watchKey;
+        while ((watchKey = this.watchService.poll(this.delay, TimeUnit.MILLISECONDS)) != null) {
+          overflow |= collectEvents(watchKey, changes);
+        }
+        if (overflow) {
+          addAllModFiles(changes);
+        }
+        processChanges(changes);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      Constants.LOG.debug("{} Watch service was closed.", LOG_PREFIX);
+    }
+  }
+
+  /**
+   * Collects the events of the given watch key, where the last event for a mod file wins.
+   *
+   * @return true if events were lost and the whole mods directory needs to be checked
+   */
+  private boolean collectEvents(WatchKey watchKey, Map<Path, Boolean> changes) {
+    boolean overflow = false;
+    for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+      if (watchEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+        overflow = true;
+        continue;
+      }
+      Path modFile = this.modsDir.resolve((Path) watchEvent.context());
+      if (modFile.getFileName().toString().endsWith(FILE_EXTENSION)) {
+        changes.remove(modFile);
+        changes.put(modFile, watchEvent.kind() != StandardWatchEventKinds.ENTRY_DELETE);
+      }
+    }
+    if (!watchKey.reset()) {
+      Constants.LOG.warn("{} ⚠ Mods directory {} is no longer accessible!", LOG_PREFIX, modsDir);
+    }
+    return overflow;
+  }
+
+  private void addAllModFiles(Map<Path, Boolean> changes) {
+    try (Stream<Path> modFiles = Files.list(this.modsDir)) {
+      modFiles
+          .filter(modFile -> modFile.getFileName().toString().endsWith(FILE_EXTENSION))
+          .forEach(modFile -> changes.putIfAbsent(modFile, true));
+    } catch (IOException e) {
+      Constants.LOG.error("{} ⚠ Unable to list mods directory {}:", LOG_PREFIX, modsDir, e);
+    }
+    for (Path knownModFile : ModData.getModFiles()) {
+      changes.putIfAbsent(knownModFile, Files.exists(knownModFile));
+    }
+  }
+
+  private void processChanges(Map<Path, Boolean> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    long startTime = System.nanoTime();
+    List<Path> changedModFiles = new ArrayList<>();
+    List<Path> removedModFiles = new ArrayList<>();
+    for (Map.Entry<Path, Boolean> change : changes.entrySet()) {
+      if (Boolean.TRUE.equals(change.getValue())) {
+        changedModFiles.add(change.getKey());
+      } else {
+        removedModFiles.add(change.getKey());
+      }
+    }
+    Constants.LOG.info(
+        "{} ♻ Processing {} changed and {} removed mod files ...",
+        LOG_PREFIX,
+        changedModFiles.size(),
+        removedModFiles.size());
+    try {
+      ModData.updateMods(changedModFiles, removedModFiles);
+
+      // Pre-compute the optimization plan for the next start.
+      OptimizationPlan optimizationPlan = OptimizationPlan.create(this.gameEnvironment);
+      optimizationPlan.save();
+      Constants.LOG.info(
+          "{} ♻ Updated mods data and planned {} optimizations in {} ms.",
+          LOG_PREFIX,
+          optimizationPlan.getEntries().size(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    } catch (Exception e) {
+      Constants.LOG.error("{} ⚠ Unable to process changed mod files:", LOG_PREFIX, e);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (this.thread != null) {
+      this.thread.interrupt();
+      this.thread = null;
+    }
+    this.watchService.close();
+  }
+}
@@ -23,10 +23,15 @@ import de.markusbordihn.modsoptimizer.Constants;
 import de.markusbordihn.modsoptimizer.config.ModsDatabaseConfig;
 import de.markusbordihn.modsoptimizer.data.GameEnvironment;
 import de.markusbordihn.modsoptimizer.data.ModData;
+import de.markusbordihn.modsoptimizer.data.OptimizationPlan;
+import de.markusbordihn.modsoptimizer.data.ScanMetrics;
 import de.markusbordihn.modsoptimizer.utils.ClientSideModsUtils;
 import de.markusbordihn.modsoptimizer.utils.DuplicatedModsUtils;
 import de.markusbordihn.modsoptimizer.utils.SemanticVersionUtils;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -38,6 +43,8 @@ public class ModsOptimizerService {
   private final GameEnvironment environment;
   private final long totalStartTime;
   private GameEnvironment gameEnvironment;
+  private ModsDirectoryWatcher modsDirectoryWatcher;
+  private ModsScanVerifier modsScanVerifier;
 
   public ModsOptimizerService(File gameDir, File modsDir) {
     this(gameDir, modsDir, GameEnvironment.UNKNOWN);
@@ -49,6 +56,7 @@ public class ModsOptimizerService {
     this.environment = environment;
     this.gameEnvironment = environment;
     this.totalStartTime = System.nanoTime();
+    ScanMetrics.reset();
   }
 
   public ModsOptimizerService init() {
@@ -100,6 +108,7 @@ public class ModsOptimizerService {
     // Set game environment for further processing.
     this.gameEnvironment = gameEnvironment;
 
+    ScanMetrics.recordPhase("init", System.nanoTime() - startTime);
     Constants.LOG.info(
         "♻ init with game dir {} and mods dir {} for target {} in {} ms.",
         gameDir,
@@ -117,6 +126,7 @@ public class ModsOptimizerService {
     long startTime = System.nanoTime();
     Constants.LOG.info("✔ Re-Enable possible client side mods ...");
     int numClientSideModsEnabled = ClientSideModsUtils.enable(modsDir);
+    ScanMetrics.recordPhase("enableClientSideMods", System.nanoTime() - startTime);
     if (numClientSideModsEnabled > 0) {
       Constants.LOG.info(
           "✔ Re-Enabled {} client side mods in {} ms.",
@@ -141,6 +151,7 @@ public class ModsOptimizerService {
     Constants.LOG.info(
         "❌ Disable possible {} client side mods ...", ModData.getClientMods().size());
     int numClientSideModsDisabled = ClientSideModsUtils.disable(ModData.getClientMods());
+    ScanMetrics.recordPhase("disableClientSideMods", System.nanoTime() - startTime);
     if (numClientSideModsDisabled > 0) {
       Constants.LOG.info(
           "❌ Disabled {} client side mods in {} ms.",
@@ -151,10 +162,38 @@ public class ModsOptimizerService {
     }
   }
 
+  public void applyOptimizationPlan() {
+    OptimizationPlan optimizationPlan = OptimizationPlan.load();
+    if (optimizationPlan == null) {
+      return;
+    }
+    long startTime = System.nanoTime();
+    Constants.LOG.info(
+        "♻ Applying {} pre-computed optimizations ...", optimizationPlan.getEntries().size());
+    int numOptimizations = optimizationPlan.apply(this.gameEnvironment);
+    OptimizationPlan.delete();
+    ScanMetrics.recordPhase("applyOptimizationPlan", System.nanoTime() - startTime);
+    Constants.LOG.info(
+        "♻ Applied {} pre-computed optimizations in {} ms.",
+        numOptimizations,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+  }
+
   public void parseMods() {
     long startTime = System.nanoTime();
-    Constants.LOG.info("♻ Parsing Mods data ...");
-    ModData.parseMods(modsDir, ".jar");
+    if (ModsDatabaseConfig.isFastStartEnabled()) {
+      // Use the cached mods data for the decisions and verify them later in the background. New
+      // and changed mod files are parsed right away, so that they are part of the decisions.
+      Constants.LOG.info("♻ Reading cached Mods data ...");
+      List<Path> cachedModFiles = ModData.parseCachedMods(modsDir, ".jar");
+      if (!cachedModFiles.isEmpty()) {
+        this.modsScanVerifier = new ModsScanVerifier(this.gameEnvironment, cachedModFiles);
+      }
+    } else {
+      Constants.LOG.info("♻ Parsing Mods data ...");
+      ModData.parseMods(modsDir, ".jar");
+    }
+    ScanMetrics.recordPhase("parseMods", System.nanoTime() - startTime);
     if (ModData.getKnownMods().isEmpty()) {
       Constants.LOG.error("⚠ Unable to find any mods in {}", modsDir);
       return;
@@ -169,6 +208,7 @@ public class ModsOptimizerService {
     if (!ModData.getDuplicatedMods().isEmpty()) {
       long startTime = System.nanoTime();
       DuplicatedModsUtils.optimize(ModData.getDuplicatedMods());
+      ScanMetrics.recordPhase("optimizeDuplicatedMods", System.nanoTime() - startTime);
       Constants.LOG.info(
           "♻ Optimized {} duplicated mods in {} ms.",
           ModData.getDuplicatedMods().size(),
@@ -178,6 +218,32 @@ public class ModsOptimizerService {
     }
   }
 
+  public void startBackgroundVerification() {
+    if (this.modsScanVerifier != null) {
+      this.modsScanVerifier.start();
+    }
+  }
+
+  public void startWatchMode() {
+    if (!ModsDatabaseConfig.isWatchModeEnabled() || this.modsDirectoryWatcher != null) {
+      return;
+    }
+    try {
+      this.modsDirectoryWatcher =
+          new ModsDirectoryWatcher(
+              this.modsDir, this.gameEnvironment, ModsDatabaseConfig.getWatchModeDelay());
+      this.modsDirectoryWatcher.start();
+    } catch (IOException e) {
+      Constants.LOG.error("⚠ Unable to watch mods directory {}:", this.modsDir, e);
+    }
+  }
+
+  public void exportMetrics() {
+    ScanMetrics.recordPhase("total", System.nanoTime() - this.totalStartTime);
+    ScanMetrics.showSlowestJars(10);
+    ScanMetrics.export();
+  }
+
   public long getTotalStartTime() {
     return this.totalStartTime;
   }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.service;
+
+import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.data.GameEnvironment;
+import de.markusbordihn.modsoptimizer.data.ModData;
+import de.markusbordihn.modsoptimizer.data.ModFileData;
+import de.markusbordihn.modsoptimizer.data.OptimizationPlan;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the mods data of a fast start, which was read from the scan cache, by parsing the cached
+ * mod files again on a background thread. Stale decisions are logged and the mods data is updated,
+ * but the mods directory itself is not changed. Instead the optimization plan is re-computed, so
+ * that stale decisions are fixed on the next start.
+ */
+public class ModsScanVerifier implements Runnable {
+
+  private static final String LOG_PREFIX = "[Mods Scan Verifier]";
+
+  private final GameEnvironment gameEnvironment;
+  private final List<Path> cachedModFiles;
+  private Thread thread;
+
+  public ModsScanVerifier(GameEnvironment gameEnvironment, Collection<Path> cachedModFiles) {
+    this.gameEnvironment = gameEnvironment;
+    this.cachedModFiles = List.copyOf(cachedModFiles);
+  }
+
+  public static boolean isStale(ModFileData cachedModFileData, ModFileData modFileData) {
+    if (cachedModFileData == null || modFileData == null) {
+      return cachedModFileData != modFileData;
+    }
+    return !Objects.equals(cachedModFileData.id(), modFileData.id())
+        || cachedModFileData.modType() != modFileData.modType()
+        || !Objects.equals(cachedModFileData.version(), modFileData.version())
+        || cachedModFileData.environment() != modFileData.environment();
+  }
+
+  public synchronized void start() {
+    if (this.thread != null) {
+      return;
+    }
+    this.thread = new Thread(this, Constants.LOG_NAME + " Verifier");
+    this.thread.setDaemon(true);
+    this.thread.setPriority(Thread.MIN_PRIORITY);
+    this.thread.start();
+  }
+
+  public synchronized void join() throws InterruptedException {
+    if (this.thread != null) {
+      this.thread.join();
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      verify();
+    } catch (Exception e) {
+      Constants.LOG.error("{} ⚠ Unable to verify cached mods data:", LOG_PREFIX, e);
+    }
+  }
+
+  /**
+   * Parses the cached mod files again without the scan cache and updates the mods data.
+   *
+   * @return the number of stale cached mod files
+   */
+  public int verify() {
+    long startTime = System.nanoTime();
+    Constants.LOG.info(
+        "{} ♻ Verifying {} cached mod files ...", LOG_PREFIX, this.cachedModFiles.size());
+
+    // Compare the cached mods data with the actual mod files.
+    List<Path> changedModFiles = new ArrayList<>();
+    List<Path> removedModFiles = new ArrayList<>();
+    int numStaleModFiles = 0;
+    for (Path modFile : this.cachedModFiles) {
+      if (!Files.isRegularFile(modFile)) {
+        // Mod files which were removed or disabled during the start.
+        removedModFiles.add(modFile);
+        continue;
+      }
+      ModFileData cachedModFileData = ModData.getModFileData(modFile);
+      ModFileData modFileData = ModData.readUncachedModInfo(modFile);
+      if (isStale(cachedModFileData, modFileData)) {
+        Constants.LOG.warn(
+            "{} ⚠ Stale cached mod data for {}: {} != {}",
+            LOG_PREFIX,
+            modFile,
+            cachedModFileData,
+            modFileData);
+        changedModFiles.add(modFile);
+        numStaleModFiles++;
+      }
+    }
+
+    // Update mods data and store the optimization plan for the next start.
+    ModData.updateMods(changedModFiles, removedModFiles);
+    OptimizationPlan optimizationPlan = OptimizationPlan.create(this.gameEnvironment);
+    optimizationPlan.save();
+    if (numStaleModFiles > 0 || !optimizationPlan.getEntries().isEmpty()) {
+      Constants.LOG.warn(
+          "{} ⚠ Found {} stale cached mods and planned {} optimizations for the next start.",
+          LOG_PREFIX,
+          numStaleModFiles,
+          optimizationPlan.getEntries().size());
+    }
+    Constants.LOG.info(
+        "{} ✔ Verified mods data in {} ms.",
+        LOG_PREFIX,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    return numStaleModFiles;
+  }
+}
@@ -19,8 +19,10 @@
 package de.markusbordihn.modsoptimizer.utils;
 
 import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.data.DirectorySnapshot;
 import de.markusbordihn.modsoptimizer.data.ModFileData;
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Set;
 
 public class ClientSideModsUtils {
@@ -36,14 +38,15 @@ public class ClientSideModsUtils {
       Constants.LOG.error("{} unable to find valid mod path: {}", LOG_PREFIX, modPath);
       return result;
     }
-    File[] modsFiles = modPath.listFiles();
-    if (modsFiles == null || modsFiles.length == 0) {
+    DirectorySnapshot directorySnapshot = DirectorySnapshot.get(modPath.toPath());
+    if (directorySnapshot == null || directorySnapshot.getEntries().isEmpty()) {
       Constants.LOG.error("{} unable to find valid mod files in path: {}", LOG_PREFIX, modPath);
       return result;
     }
-    for (File modFile : modsFiles) {
-      String modFileName = modFile.getName();
+    for (DirectorySnapshot.Entry entry : directorySnapshot.getEntries()) {
+      String modFileName = entry.name();
       if (modFileName.endsWith(CLIENT_MOD_EXTENSION)) {
+        File modFile = entry.path().toFile();
         File clientFile =
             new File(
                 modFile
@@ -51,7 +54,7 @@ public class ClientSideModsUtils {
                     .toString()
                     .replace(".jar" + CLIENT_MOD_EXTENSION, ".jar"));
         Constants.LOG.info("{} ✔ Try to enable client side mod {} ...", LOG_PREFIX, modFileName);
-        if (clientFile.exists()) {
+        if (directorySnapshot.contains(clientFile.getName())) {
           if (!ModFileUtils.deleteModFile(modFile)) {
             Constants.LOG.error(
                 "{} ⚠ Was unable to remove duplicated client side mod {}!", LOG_PREFIX, modFile);
@@ -63,6 +66,7 @@ public class ClientSideModsUtils {
           Constants.LOG.error("{} ⚠ Was unable to enable client side mod {}!", LOG_PREFIX, modFile);
         } else {
           Constants.LOG.info("{} ✔ Enabled client side mod {}!", LOG_PREFIX, modFileName);
+          DirectorySnapshot.invalidate();
           result++;
         }
       }
@@ -77,30 +81,7 @@ public class ClientSideModsUtils {
     }
     for (ModFileData modFileData : modFiles) {
       if (modFileData.environment() == ModFileData.ModEnvironment.CLIENT) {
-        File modFile = modFileData.path().toFile();
-        File clientFile = new File(modFile.getAbsoluteFile() + CLIENT_MOD_EXTENSION);
-        Constants.LOG.info(
-            "{} ❌ Try to disable client side mod {} ...", LOG_PREFIX, modFileData.id());
-        if (clientFile.exists()) {
-          if (!ModFileUtils.deleteModFile(clientFile)) {
-            Constants.LOG.error(
-                "{} ⚠ Was unable to remove client side mod {} with {}!",
-                LOG_PREFIX,
-                modFileData.id(),
-                clientFile);
-          } else {
-            Constants.LOG.info(
-                "{} ✔ Removed duplicated client side mod {} with {}!",
-                LOG_PREFIX,
-                modFileData.id(),
-                clientFile);
-            result++;
-          }
-        } else if (!modFile.renameTo(clientFile)) {
-          Constants.LOG.error(
-              "{} ⚠ Was unable to disable client side mod {}!", LOG_PREFIX, modFile);
-        } else {
-          Constants.LOG.info("{} ✔ Disabled client side mod {}!", LOG_PREFIX, modFileData.id());
+        if (disable(modFileData.path(), modFileData.id())) {
           result++;
         }
       } else {
@@ -113,4 +94,27 @@ public class ClientSideModsUtils {
     }
     return result;
   }
+
+  /** Disables the given client side mod file, by renaming it to the client mod extension. */
+  public static boolean disable(Path modFilePath, String modId) {
+    File modFile = modFilePath.toFile();
+    File clientFile = new File(modFile.getAbsoluteFile() + CLIENT_MOD_EXTENSION);
+    Constants.LOG.info("{} ❌ Try to disable client side mod {} ...", LOG_PREFIX, modId);
+    if (clientFile.exists()) {
+      if (!ModFileUtils.deleteModFile(clientFile)) {
+        Constants.LOG.error(
+            "{} ⚠ Was unable to remove client side mod {} with {}!", LOG_PREFIX, modId, clientFile);
+        return false;
+      }
+      Constants.LOG.info(
+          "{} ✔ Removed duplicated client side mod {} with {}!", LOG_PREFIX, modId, clientFile);
+      return true;
+    } else if (!modFile.renameTo(clientFile)) {
+      Constants.LOG.error("{} ⚠ Was unable to disable client side mod {}!", LOG_PREFIX, modFile);
+      return false;
+    }
+    Constants.LOG.info("{} ✔ Disabled client side mod {}!", LOG_PREFIX, modId);
+    DirectorySnapshot.invalidate();
+    return true;
+  }
 }
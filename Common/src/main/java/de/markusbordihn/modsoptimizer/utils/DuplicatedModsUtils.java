@@ -20,7 +20,9 @@
 package de.markusbordihn.modsoptimizer.utils;
 
 import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.data.ModData;
 import de.markusbordihn.modsoptimizer.data.ModFileData;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,33 +40,72 @@ public class DuplicatedModsUtils {
       Set<ModFileData> modFiles = duplicatedMod.getValue();
 
       // Find latest mod file, based on the version number.
-      ModFileData latestModFile = null;
-      for (ModFileData modFile : modFiles) {
-        if (latestModFile == null || modFile.version().greaterThan(latestModFile.version())) {
-          latestModFile = modFile;
-        } else if (modFile.version().equals(latestModFile.version())) {
-          String modFileName = modFile.path().getFileName().toString().toLowerCase();
-          String latestModFileName = latestModFile.path().getFileName().toString().toLowerCase();
-          // Favor mod files without copy / kopie in the file name and shorter file names.
-          if ((latestModFileName.contains("copy") && !modFileName.contains("copy"))
-              || (latestModFileName.contains("kopie") && !modFileName.contains("kopie"))
-              || (latestModFileName.length() > modFileName.length())) {
-            latestModFile = modFile;
-          }
-        }
-      }
+      Set<ModFileData> removableModFiles = getRemovableModFiles(modFiles);
+      ModFileData latestModFile = getLatestModFile(removableModFiles);
 
       // Show warning and keep latest mod file.
       Constants.LOG.warn(
           "⚠ Found {} duplicated Mods with mod id {}: {}", modFiles.size(), modName, modFiles);
+      if (removableModFiles.size() < modFiles.size()) {
+        Constants.LOG.warn("⚠ Embedded Mods with mod id {} will not be removed!", modName);
+      }
+      if (removableModFiles.size() <= 1) {
+        continue;
+      }
       Constants.LOG.info("✔ Will keep most recent Mod: {}", latestModFile);
 
       // Archive all other mod files.
-      for (ModFileData modFile : modFiles) {
+      for (ModFileData modFile : removableModFiles) {
         if (modFile != latestModFile && !ModFileUtils.deleteModFile(modFile.path())) {
           Constants.LOG.error("⚠ Was unable to remove outdated mod {}!", modFile);
         }
       }
     }
   }
+
+  /**
+   * Returns the duplicated mod files, which could be removed. Embedded mods are part of other mod
+   * files and are therefore only reported.
+   */
+  public static Set<ModFileData> getRemovableModFiles(Set<ModFileData> modFiles) {
+    Set<ModFileData> removableModFiles = new LinkedHashSet<>();
+    for (ModFileData modFile : modFiles) {
+      if (!ModData.isNestedMod(modFile)) {
+        removableModFiles.add(modFile);
+      }
+    }
+    return removableModFiles;
+  }
+
+  public static ModFileData getLatestModFile(Set<ModFileData> modFiles) {
+    ModFileData latestModFile = null;
+    for (ModFileData modFile : modFiles) {
+      int result =
+          latestModFile == null ? 1 : modFile.versionKey().compareTo(latestModFile.versionKey());
+      if (result > 0) {
+        latestModFile = modFile;
+      } else if (result == 0) {
+        String modFileName = modFile.path().getFileName().toString();
+        String latestModFileName = latestModFile.path().getFileName().toString();
+        // Favor mod files without copy / kopie in the file name and shorter file names.
+        if ((containsIgnoreCase(latestModFileName, "copy")
+                && !containsIgnoreCase(modFileName, "copy"))
+            || (containsIgnoreCase(latestModFileName, "kopie")
+                && !containsIgnoreCase(modFileName, "kopie"))
+            || (latestModFileName.length() > modFileName.length())) {
+          latestModFile = modFile;
+        }
+      }
+    }
+    return latestModFile;
+  }
+
+  private static boolean containsIgnoreCase(String fileName, String part) {
+    for (int i = 0; i <= fileName.length() - part.length(); i++) {
+      if (fileName.regionMatches(true, i, part, 0, part.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
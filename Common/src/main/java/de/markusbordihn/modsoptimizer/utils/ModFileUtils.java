@@ -20,6 +20,7 @@
 package de.markusbordihn.modsoptimizer.utils;
 
 import de.markusbordihn.modsoptimizer.Constants;
+import de.markusbordihn.modsoptimizer.data.DirectorySnapshot;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -53,7 +54,11 @@ public class ModFileUtils {
     }
     Path filePath = file.toPath();
     try {
-      return Files.deleteIfExists(filePath);
+      boolean deleted = Files.deleteIfExists(filePath);
+      if (deleted) {
+        DirectorySnapshot.invalidate();
+      }
+      return deleted;
     } catch (IOException e) {
       log.error("{} ⚠ Was unable to delete mod file {}, because of: {}", LOG_PREFIX, file, e);
       return false;
@@ -20,35 +20,33 @@ package de.markusbordihn.modsoptimizer.utils;
 
 import com.github.zafarkhaja.semver.Version;
 import de.markusbordihn.modsoptimizer.Constants;
-import java.util.regex.Pattern;
+import de.markusbordihn.modsoptimizer.data.ScanMetrics;
+import de.markusbordihn.modsoptimizer.utils.VersionCache.ParsedVersion;
 
+/**
+ * Parser for the version numbers of mods, which are not always valid semantic versions. Wrongly
+ * formatted version numbers are normalized with a hand-written scanner, which works on a single
+ * char buffer without any regular expressions. The scanner keeps the exact behavior of the former
+ * regular expression chain, including the order of the cleanup steps.
+ *
+ * <p>All steps are linear in the length of the version and the length of the parsed versions is
+ * capped, so that absurd version numbers of a single mod are not able to stall the start.
+ */
 public class SemanticVersionUtils {
 
   public static final Version EMPTY_VERSION = Version.valueOf("0.0.0");
-  public static final Pattern MC_NAME_VERSION_PATTERN =
-      Pattern.compile("[+_-]?(mc|minecraft)[1,2]{1,2}\\.\\d{1,2}\\.?[0-9x]?");
-  public static final Pattern FORGE_VERSION_PATTERN = Pattern.compile("[+_-]?(forge)[+_-]?");
-  public static final Pattern BUILD_VERSION_PATTERN = Pattern.compile("[_.-]?(build)[_.-]?");
-  public static final Pattern LEADING_ZEROS_PATTERN = Pattern.compile("\\.0+\\d");
-  public static final Pattern RELEASE_VERSION_PATTERN = Pattern.compile("[+_-]?(release)[+_-]?");
-  public static final Pattern SNAPSHOT_VERSION_PATTERN = Pattern.compile("[+_-]?(snapshot)[+_-]?");
-  public static final Pattern VERSION_CLEANUP_DOUBLE_PATTERN =
-      Pattern.compile("([._+\\-\\s])[._+\\-\\s]");
-  public static final Pattern VERSION_CLEANUP_START_PATTERN = Pattern.compile("(^[._+\\-\\s])");
-  public static final Pattern VERSION_CLEANUP_END_PATTERN = Pattern.compile("([._+\\-\\s])$");
-  public static final Pattern VERSION_PATTERN_1 = Pattern.compile("^\\d+$");
-  public static final Pattern VERSION_PATTERN_2 = Pattern.compile("^\\d+\\.\\d+$");
-  public static final Pattern VERSION_PATTERN_3 =
-      Pattern.compile("^\\d+\\.\\d+\\.\\d+\\.[a-z0-9]+$");
-  public static final Pattern VERSION_PATTERN_4 = Pattern.compile("^\\d+\\.\\d+\\+[A-Za-z0-9]+$");
-  public static final Pattern VERSION_PATTERN_5 =
-      Pattern.compile("^\\d+\\.\\d+\\.\\d+_[A-Za-z0-9]+$");
-  public static final Pattern VERSION_PATTERN_6 =
-      Pattern.compile("^\\d+\\.\\d+(\\.\\d+)?-\\d+\\.\\d+\\.\\d+\\.\\d+$");
-  public static final Pattern VERSION_PATTERN_7 =
-      Pattern.compile("^\\d+\\.\\d+(\\.\\d+)?-\\d+\\.\\d+\\.\\d+$");
-  public static final Pattern VERSION_PATTERN_8 = Pattern.compile("^\\d+\\.\\d+-\\d+$");
-  public static final Pattern VERSION_PATTERN_9 = Pattern.compile("^\\d+\\.\\d+\\.[a-z]+$");
+  public static final int MAX_VERSION_LENGTH = 256;
+  private static final char[] MINECRAFT_VERSION = Constants.MINECRAFT_VERSION.toCharArray();
+  private static final char[] MC_KEYWORD = "mc".toCharArray();
+  private static final char[] MINECRAFT_KEYWORD = "minecraft".toCharArray();
+  private static final char[] FORGE_KEYWORD = "forge".toCharArray();
+  private static final char[] BUILD_KEYWORD = "build".toCharArray();
+  private static final char[] RELEASE_KEYWORD = "release".toCharArray();
+  private static final char[] SNAPSHOT_KEYWORD = "snapshot".toCharArray();
+  private static final String PLUS_DASH_SEPARATORS = "+_-";
+  private static final String DOT_DASH_SEPARATORS = "_.-";
+  private static final char NO_REPLACEMENT = 0;
+  private static final VersionCache versionCache = new VersionCache();
   private static boolean debugEnabled = false;
 
   protected SemanticVersionUtils() {}
@@ -61,37 +59,182 @@ public class SemanticVersionUtils {
     debugEnabled = false;
   }
 
+  public static VersionCache getVersionCache() {
+    return versionCache;
+  }
+
   public static Version parseVersion(String version) {
     return parseVersion(version, EMPTY_VERSION);
   }
 
   public static Version parseVersion(String versionNumber, Version defaultVersion) {
+    long startTime = System.nanoTime();
+    try {
+      return parseVersionNumber(versionNumber, defaultVersion);
+    } finally {
+      ScanMetrics.addStageTime(ScanMetrics.Stage.VERSION, System.nanoTime() - startTime);
+    }
+  }
+
+  private static Version parseVersionNumber(String versionNumber, Version defaultVersion) {
+    // Ignore the build metadata of too long versions or use the default version instead.
+    if (versionNumber != null && versionNumber.length() > MAX_VERSION_LENGTH) {
+      ScanMetrics.count(ScanMetrics.Heuristic.VERSION_LENGTH_CAPPED);
+      int buildMetadataStart = versionNumber.indexOf('+');
+      if (buildMetadataStart <= 0 || buildMetadataStart > MAX_VERSION_LENGTH) {
+        Constants.LOG.warn(
+            "⚠ Ignore too long version number with {} chars: {}...",
+            versionNumber.length(),
+            versionNumber.substring(0, 32));
+        ScanMetrics.count(ScanMetrics.Heuristic.VERSION_FALLBACK);
+        return defaultVersion;
+      }
+      versionNumber = versionNumber.substring(0, buildMetadataStart);
+    }
+
+    ParsedVersion parsedVersion = null;
     if (versionNumber != null && !versionNumber.isEmpty()) {
-      try {
-        return Version.valueOf(versionNumber);
-      } catch (Exception e) {
-        if (debugEnabled) {
-          Constants.LOG.debug(
-              "No valid semantic version {}, will try to normalize version.", versionNumber);
-        }
+      parsedVersion = versionCache.get(versionNumber);
+      ScanMetrics.count(
+          parsedVersion != null
+              ? ScanMetrics.Heuristic.VERSION_CACHE_HIT
+              : ScanMetrics.Heuristic.VERSION_CACHE_MISS);
+    }
+    if (parsedVersion == null) {
+      parsedVersion = parseVersionNumber(versionNumber);
+      if (versionNumber != null && !versionNumber.isEmpty()) {
+        versionCache.put(versionNumber, parsedVersion);
       }
     }
 
+    if (parsedVersion.version() == null) {
+      ScanMetrics.count(ScanMetrics.Heuristic.VERSION_FALLBACK);
+      return defaultVersion;
+    }
+    if (parsedVersion.normalized()) {
+      ScanMetrics.count(ScanMetrics.Heuristic.VERSION_NORMALIZED);
+    }
+    return parsedVersion.version();
+  }
+
+  private static ParsedVersion parseVersionNumber(String versionNumber) {
+    Version version = tryParseVersion(versionNumber);
+    if (version != null) {
+      return new ParsedVersion(version, false);
+    }
+    if (debugEnabled) {
+      Constants.LOG.debug(
+          "No valid semantic version {}, will try to normalize version.", versionNumber);
+    }
+
     // Try to normalize version number, because of wrong formatted version numbers.
     String normalizedVersion = normalizeVersion(versionNumber);
+    version = tryParseVersion(normalizedVersion);
+    if (version != null) {
+      return new ParsedVersion(version, true);
+    }
+    if (debugEnabled) {
+      Constants.LOG.error("Unable to parse version {} or {}.", versionNumber, normalizedVersion);
+    }
+    return new ParsedVersion(null, false);
+  }
+
+  /**
+   * Parses a strict semantic version without throwing an exception for invalid versions, which
+   * are very common for mods.
+   *
+   * @return the parsed version or null, if the version is not a valid semantic version
+   */
+  public static Version tryParseVersion(String version) {
+    if (!isValidSemanticVersion(version)) {
+      return null;
+    }
     try {
-      return Version.valueOf(normalizedVersion);
+      return Version.valueOf(version);
     } catch (Exception e) {
-      if (debugEnabled) {
-        Constants.LOG.error(
-            "Unable to parse version {} or {}, because of: {}",
-            versionNumber,
-            normalizedVersion,
-            e);
+      Constants.LOG.debug("Unexpected invalid semantic version {}: {}", version, e);
+      return null;
+    }
+  }
+
+  /**
+   * Validates the version against the semantic versioning grammar with MAJOR.MINOR.PATCH, an
+   * optional pre-release version and optional build metadata, like 1.2.3-beta.1+build.5. Numeric
+   * identifiers must not contain leading zeros and the normal version numbers need to fit into an
+   * integer.
+   */
+  public static boolean isValidSemanticVersion(String version) {
+    if (version == null || version.isEmpty()) {
+      return false;
+    }
+    int length = version.length();
+    int position = skipVersionNumber(version, 0, length);
+    position = skipVersionNumber(version, skipChar(version, position, length, '.'), length);
+    position = skipVersionNumber(version, skipChar(version, position, length, '.'), length);
+    if (position < 0) {
+      return false;
+    }
+    if (position < length && version.charAt(position) == '-') {
+      position = skipIdentifiers(version, position + 1, length, true);
+    }
+    if (position > 0 && position < length && version.charAt(position) == '+') {
+      position = skipIdentifiers(version, position + 1, length, false);
+    }
+    return position == length;
+  }
+
+  /** Skips a numeric version number without leading zeros, which fits into an integer. */
+  private static int skipVersionNumber(String version, int start, int length) {
+    if (start < 0) {
+      return -1;
+    }
+    long value = 0;
+    int i = start;
+    while (i < length && isDigit(version.charAt(i))) {
+      value = value * 10 + (version.charAt(i++) - '0');
+      if (value > Integer.MAX_VALUE) {
+        return -1;
+      }
+    }
+    if (i == start || (version.charAt(start) == '0' && i - start > 1)) {
+      return -1;
+    }
+    return i;
+  }
+
+  /**
+   * Skips dot separated, non-empty identifiers with alphanumerics and hyphens until the end or the
+   * start of the build metadata. Numeric pre-release identifiers must not contain leading zeros.
+   */
+  private static int skipIdentifiers(String version, int start, int length, boolean preRelease) {
+    int i = start;
+    while (true) {
+      int identifierStart = i;
+      boolean numeric = true;
+      while (i < length && isIdentifierChar(version.charAt(i))) {
+        numeric &= isDigit(version.charAt(i++));
+      }
+      if (i == identifierStart
+          || (preRelease
+              && numeric
+              && version.charAt(identifierStart) == '0'
+              && i - identifierStart > 1)) {
+        return -1;
+      }
+      if (i < length && version.charAt(i) == '.') {
+        i++;
+      } else {
+        return i;
       }
     }
+  }
 
-    return defaultVersion;
+  private static int skipChar(String version, int start, int length, char c) {
+    return start >= 0 && start < length && version.charAt(start) == c ? start + 1 : -1;
+  }
+
+  private static boolean isIdentifierChar(char c) {
+    return isDigit(c) || isLetter(c) || c == '-';
   }
 
   public static String normalizeVersion(String version) {
@@ -99,107 +242,386 @@ public class SemanticVersionUtils {
       return "";
     }
     // Make sure that version is lower case.
-    version = version.toLowerCase();
+    char[] chars = version.toLowerCase().toCharArray();
 
     // Clean up version string.
-    version = removeUnnecessaryVersionParts(version);
-    version = removeLeadingZeros(version);
+    int length = removeUnnecessaryVersionParts(chars, chars.length);
+    length = removeLeadingZeros(chars, length);
 
     // Normalize typical wrongly formatted version numbers.
-    if (VERSION_PATTERN_1.matcher(version).matches()) {
-      return version + ".0.0";
+    int end;
+    int numberEnd = skipDigits(chars, 0, length);
+    if (numberEnd > 0 && numberEnd == length) {
+      // Pattern: 1
+      return new String(chars, 0, length) + ".0.0";
     }
-    if (VERSION_PATTERN_2.matcher(version).matches()) {
-      return version + ".0";
+    int minorEnd = skipNumber(chars, skipChar(chars, numberEnd, length, '.'), length);
+    if (numberEnd == 0 || minorEnd < 0) {
+      return new String(chars, 0, length);
     }
-    if (VERSION_PATTERN_3.matcher(version).matches()) {
-      return version.substring(0, version.lastIndexOf('.'))
-          + "-"
-          + version.substring(version.lastIndexOf('.') + 1);
+    if (minorEnd == length) {
+      // Pattern: 1.2
+      return new String(chars, 0, length) + ".0";
     }
-    if (VERSION_PATTERN_4.matcher(version).matches()) {
-      return version.substring(0, version.lastIndexOf('+'))
-          + "."
-          + version.substring(version.lastIndexOf('+') + 1);
+    int patchEnd = skipNumber(chars, skipChar(chars, minorEnd, length, '.'), length);
+    if (patchEnd > 0
+        && (end = skipChar(chars, patchEnd, length, '.')) > 0
+        && skipLettersOrDigits(chars, end, length) == length) {
+      // Pattern: 1.2.3.a
+      chars[end - 1] = '-';
+      return new String(chars, 0, length);
     }
-    if (VERSION_PATTERN_5.matcher(version).matches()) {
-      return version.substring(0, version.lastIndexOf('_'))
-          + "-"
-          + version.substring(version.lastIndexOf('_') + 1);
+    if ((end = skipChar(chars, minorEnd, length, '+')) > 0
+        && skipLettersOrDigits(chars, end, length) == length) {
+      // Pattern: 1.2+a
+      chars[end - 1] = '.';
+      return new String(chars, 0, length);
     }
-    if (VERSION_PATTERN_6.matcher(version).matches()) {
-      version = version.substring(version.lastIndexOf('-') + 1);
-      return version.substring(0, version.lastIndexOf('.'))
-          + "-"
-          + version.substring(version.lastIndexOf('.') + 1);
+    if (patchEnd > 0
+        && (end = skipChar(chars, patchEnd, length, '_')) > 0
+        && skipLettersOrDigits(chars, end, length) == length) {
+      // Pattern: 1.2.3_a
+      chars[end - 1] = '-';
+      return new String(chars, 0, length);
     }
-    if (VERSION_PATTERN_7.matcher(version).matches()) {
-      return version.substring(version.lastIndexOf('-') + 1);
+    int suffixStart = skipChar(chars, patchEnd > 0 ? patchEnd : minorEnd, length, '-');
+    if (suffixStart > 0) {
+      int suffixEnd = skipNumber(chars, suffixStart, length);
+      suffixEnd = skipNumber(chars, skipChar(chars, suffixEnd, length, '.'), length);
+      suffixEnd = skipNumber(chars, skipChar(chars, suffixEnd, length, '.'), length);
+      if (suffixEnd == length) {
+        // Pattern: 1.2(.3)-4.5.6
+        return new String(chars, suffixStart, length - suffixStart);
+      }
+      int buildStart = skipChar(chars, suffixEnd, length, '.');
+      if (buildStart > 0 && skipNumber(chars, buildStart, length) == length) {
+        // Pattern: 1.2(.3)-4.5.6.7
+        chars[buildStart - 1] = '-';
+        return new String(chars, suffixStart, length - suffixStart);
+      }
     }
-    if (VERSION_PATTERN_8.matcher(version).matches()) {
-      return version.replace('-', '.');
+    if ((end = skipChar(chars, minorEnd, length, '-')) > 0
+        && skipNumber(chars, end, length) == length) {
+      // Pattern: 1.2-3
+      chars[end - 1] = '.';
+      return new String(chars, 0, length);
     }
-    if (VERSION_PATTERN_9.matcher(version).matches()) {
-      String lastVersionPart = version.substring(version.lastIndexOf('.') + 1);
-      lastVersionPart = Character.getNumericValue(lastVersionPart.charAt(0)) + "";
-      return version.substring(0, version.lastIndexOf('.')) + '.' + lastVersionPart;
+    if ((end = skipChar(chars, minorEnd, length, '.')) > 0
+        && skipLowerCaseLetters(chars, end, length) == length) {
+      // Pattern: 1.2.a
+      return new String(chars, 0, end) + Character.getNumericValue(chars[end]);
     }
 
-    return version;
+    return new String(chars, 0, length);
   }
 
   static String removeUnnecessaryVersionParts(String version) {
     if (version == null || version.isEmpty()) {
       return "";
     }
-    if (version.startsWith(Constants.MINECRAFT_VERSION)) {
-      version = version.substring(Constants.MINECRAFT_VERSION.length());
+    char[] chars = version.toCharArray();
+    return new String(chars, 0, removeUnnecessaryVersionParts(chars, chars.length));
+  }
+
+  static String removeLeadingZeros(String version) {
+    if (version == null || version.isEmpty()) {
+      return "";
+    }
+    char[] chars = version.toCharArray();
+    return new String(chars, 0, removeLeadingZeros(chars, chars.length));
+  }
+
+  /**
+   * Removes the Minecraft version, loader and build keywords and duplicated separators in place.
+   *
+   * @return the new length of the version
+   */
+  private static int removeUnnecessaryVersionParts(char[] chars, int length) {
+    if (startsWith(chars, 0, length, MINECRAFT_VERSION)) {
+      length -= MINECRAFT_VERSION.length;
+      System.arraycopy(chars, MINECRAFT_VERSION.length, chars, 0, length);
     }
-    if (MC_NAME_VERSION_PATTERN.matcher(version).find()) {
-      version = version.replaceAll(MC_NAME_VERSION_PATTERN.pattern(), "");
+    length = removeMinecraftVersions(chars, length);
+    length = replaceKeyword(chars, length, FORGE_KEYWORD, PLUS_DASH_SEPARATORS, NO_REPLACEMENT);
+    length = replaceKeyword(chars, length, BUILD_KEYWORD, DOT_DASH_SEPARATORS, '-');
+    length = replaceKeyword(chars, length, RELEASE_KEYWORD, PLUS_DASH_SEPARATORS, NO_REPLACEMENT);
+    length = replaceKeyword(chars, length, SNAPSHOT_KEYWORD, PLUS_DASH_SEPARATORS, '-');
+
+    // Remove leading and trailing separators and replace double separators with a single one.
+    if (length > 0 && isSeparator(chars[0])) {
+      System.arraycopy(chars, 1, chars, 0, --length);
+    }
+    length = removeTrailingSeparators(chars, length);
+    int newLength = 0;
+    for (int i = 0; i < length; i++) {
+      chars[newLength++] = chars[i];
+      if (isSeparator(chars[i]) && i + 1 < length && isSeparator(chars[i + 1])) {
+        i++;
+      }
     }
-    if (FORGE_VERSION_PATTERN.matcher(version).find()) {
-      version = version.replaceAll(FORGE_VERSION_PATTERN.pattern(), "");
+    return newLength;
+  }
+
+  /**
+   * Removes leading zeros from the version parts in place, like 01.02.03 to 1.2.3.
+   *
+   * @return the new length of the version
+   */
+  private static int removeLeadingZeros(char[] chars, int length) {
+    int start = 0;
+    if (length > 1 && chars[0] == '0' && chars[1] == '.') {
+      start = 2;
     }
-    if (BUILD_VERSION_PATTERN.matcher(version).find()) {
-      version = version.replaceAll(BUILD_VERSION_PATTERN.pattern(), "-");
+    if (start < length && chars[start] == '0') {
+      start++;
     }
-    if (RELEASE_VERSION_PATTERN.matcher(version).find()) {
-      version = version.replaceAll(RELEASE_VERSION_PATTERN.pattern(), "");
+    if (start > 0) {
+      System.arraycopy(chars, start, chars, 0, length - start);
+      length -= start;
     }
-    if (SNAPSHOT_VERSION_PATTERN.matcher(version).find()) {
-      version = version.replaceAll(SNAPSHOT_VERSION_PATTERN.pattern(), "-");
+    if (!hasLeadingZeros(chars, length)) {
+      return length;
     }
 
-    // Remove double dashes, dots, underscores and spaces with a single version.
-    version = version.replaceAll(VERSION_CLEANUP_START_PATTERN.pattern(), "");
-    version = version.replaceAll(VERSION_CLEANUP_END_PATTERN.pattern(), "");
-    version = version.replaceAll(VERSION_CLEANUP_DOUBLE_PATTERN.pattern(), "$1");
+    // Empty trailing version parts are dropped, like with String.split.
+    while (length > 0 && chars[length - 1] == '.') {
+      length--;
+    }
+    int newLength = 0;
+    int partStart = 0;
+    while (partStart <= length) {
+      int partEnd = partStart;
+      while (partEnd < length && chars[partEnd] != '.') {
+        partEnd++;
+      }
+      int numZeros = 0;
+      while (partStart + numZeros < partEnd && chars[partStart + numZeros] == '0') {
+        numZeros++;
+      }
+      // Keep at least one char of the version part.
+      if (numZeros > 0 && isEnd(chars, partStart, partEnd, partStart + numZeros)) {
+        numZeros--;
+      }
+      if (partStart > 0) {
+        chars[newLength++] = '.';
+      }
+      for (int i = partStart + numZeros; i < partEnd; i++) {
+        chars[newLength++] = chars[i];
+      }
+      partStart = partEnd + 1;
+    }
+    return newLength;
+  }
 
-    return version;
+  private static boolean hasLeadingZeros(char[] chars, int length) {
+    for (int i = 0; i + 2 < length; i++) {
+      if (chars[i] == '.' && chars[i + 1] == '0' && isDigit(chars[i + 2])) {
+        return true;
+      }
+    }
+    return false;
   }
 
-  static String removeLeadingZeros(String version) {
-    if (version == null || version.isEmpty()) {
-      return "";
+  /** Removes Minecraft versions like mc1.18.2, minecraft1.18.x and +mc1.18 in place. */
+  private static int removeMinecraftVersions(char[] chars, int length) {
+    int newLength = 0;
+    int i = 0;
+    while (i < length) {
+      int end = -1;
+      if (PLUS_DASH_SEPARATORS.indexOf(chars[i]) >= 0) {
+        end = matchMinecraftVersion(chars, i + 1, length);
+      }
+      if (end < 0) {
+        end = matchMinecraftVersion(chars, i, length);
+      }
+      if (end < 0) {
+        chars[newLength++] = chars[i++];
+      } else {
+        i = end;
+      }
+    }
+    return newLength;
+  }
+
+  private static int matchMinecraftVersion(char[] chars, int start, int length) {
+    int i;
+    if (startsWith(chars, start, length, MC_KEYWORD)) {
+      i = start + MC_KEYWORD.length;
+    } else if (startsWith(chars, start, length, MINECRAFT_KEYWORD)) {
+      i = start + MINECRAFT_KEYWORD.length;
+    } else {
+      return -1;
     }
-    if (version.startsWith("0.")) {
-      version = version.substring(2);
+
+    // Major version with one or two of the chars 1, 2 and , followed by a dot.
+    if (i < length && isMajorMinecraftVersion(chars[i])) {
+      i++;
+      if (i + 1 < length && isMajorMinecraftVersion(chars[i]) && chars[i + 1] == '.') {
+        i++;
+      }
+    } else {
+      return -1;
+    }
+    if (i >= length || chars[i++] != '.') {
+      return -1;
+    }
+
+    // Minor version with one or two digits and an optional patch version.
+    if (i >= length || !isDigit(chars[i])) {
+      return -1;
+    }
+    i++;
+    if (i < length && isDigit(chars[i])) {
+      i++;
+    }
+    if (i < length && chars[i] == '.') {
+      i++;
+    }
+    if (i < length && (isDigit(chars[i]) || chars[i] == 'x')) {
+      i++;
     }
-    if (version.startsWith("0")) {
-      version = version.substring(1);
+    return i;
+  }
+
+  /**
+   * Replaces the keyword together with an optional leading and trailing separator in place.
+   *
+   * @return the new length of the version
+   */
+  private static int replaceKeyword(
+      char[] chars, int length, char[] keyword, String separators, char replacement) {
+    int newLength = 0;
+    int i = 0;
+    while (i < length) {
+      int end = -1;
+      if (separators.indexOf(chars[i]) >= 0 && startsWith(chars, i + 1, length, keyword)) {
+        end = i + 1 + keyword.length;
+      } else if (startsWith(chars, i, length, keyword)) {
+        end = i + keyword.length;
+      }
+      if (end < 0) {
+        chars[newLength++] = chars[i++];
+        continue;
+      }
+      if (end < length && separators.indexOf(chars[end]) >= 0) {
+        end++;
+      }
+      if (replacement != NO_REPLACEMENT) {
+        chars[newLength++] = replacement;
+      }
+      i = end;
     }
-    if (LEADING_ZEROS_PATTERN.matcher(version).find()) {
-      String[] parts = version.split("\\.");
-      for (int i = 0; i < parts.length; i++) {
-        parts[i] = removeLeadingZerosFromPart(parts[i]);
+    return newLength;
+  }
+
+  /**
+   * Removes trailing separators, which are also matched before a final line terminator.
+   *
+   * @return the new length of the version
+   */
+  private static int removeTrailingSeparators(char[] chars, int length) {
+    int newLength = 0;
+    for (int i = 0; i < length; i++) {
+      if (i < length - 3 || !isSeparator(chars[i]) || !isEnd(chars, 0, length, i + 1)) {
+        chars[newLength++] = chars[i];
       }
-      return String.join(".", parts);
     }
-    return version;
+    return newLength;
+  }
+
+  /**
+   * Checks if the position is the end of the input or only followed by a final line terminator, to
+   * match the behavior of '$' in regular expressions.
+   */
+  private static boolean isEnd(char[] chars, int start, int end, int position) {
+    if (position == end) {
+      return true;
+    }
+    if (position == end - 2) {
+      return chars[position] == '\r' && chars[position + 1] == '\n';
+    }
+    if (position == end - 1) {
+      char c = chars[position];
+      if (c == '\n') {
+        return position == start || chars[position - 1] != '\r';
+      }
+      return c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+    return false;
+  }
+
+  private static boolean startsWith(char[] chars, int start, int length, char[] prefix) {
+    if (start < 0 || length - start < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (chars[start + i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Skips the given char and returns the next position, or -1 if the char does not match. */
+  private static int skipChar(char[] chars, int start, int length, char c) {
+    return start >= 0 && start < length && chars[start] == c ? start + 1 : -1;
+  }
+
+  /** Skips one or more digits and returns the next position, or -1 if there are no digits. */
+  private static int skipNumber(char[] chars, int start, int length) {
+    int end = skipDigits(chars, start, length);
+    return end > start ? end : -1;
+  }
+
+  private static int skipDigits(char[] chars, int start, int length) {
+    if (start < 0) {
+      return -1;
+    }
+    int i = start;
+    while (i < length && isDigit(chars[i])) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipLettersOrDigits(char[] chars, int start, int length) {
+    int i = start;
+    while (i < length && (isDigit(chars[i]) || isLetter(chars[i]))) {
+      i++;
+    }
+    return i > start ? i : -1;
+  }
+
+  private static int skipLowerCaseLetters(char[] chars, int start, int length) {
+    int i = start;
+    while (i < length && chars[i] >= 'a' && chars[i] <= 'z') {
+      i++;
+    }
+    return i > start ? i : -1;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isMajorMinecraftVersion(char c) {
+    return c == '1' || c == '2' || c == ',';
   }
 
-  static String removeLeadingZerosFromPart(String part) {
-    return part.replaceFirst("^0+(?!$)", "");
+  private static boolean isSeparator(char c) {
+    return c == '.'
+        || c == '_'
+        || c == '+'
+        || c == '-'
+        || c == ' '
+        || c == '\t'
+        || c == '\n'
+        || c == '\u000B'
+        || c == '\f'
+        || c == '\r';
   }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.utils;
+
+import com.github.zafarkhaja.semver.Version;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded and thread-safe cache from raw version strings to the parsed versions, which evicts the
+ * least recently used entries. Many mods are sharing the same version strings, so that the
+ * normalization and the parsing are only needed once per version string.
+ */
+public class VersionCache {
+
+  public static final int DEFAULT_MAX_SIZE = 1024;
+
+  private final int maxSize;
+  private final Map<String, ParsedVersion> cacheEntries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public VersionCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  public VersionCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Invalid max size " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.cacheEntries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, ParsedVersion> eldest) {
+            if (size() > VersionCache.this.maxSize) {
+              evictions.increment();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  public ParsedVersion get(String version) {
+    ParsedVersion parsedVersion;
+    synchronized (this.cacheEntries) {
+      parsedVersion = this.cacheEntries.get(version);
+    }
+    if (parsedVersion != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return parsedVersion;
+  }
+
+  public void put(String version, ParsedVersion parsedVersion) {
+    synchronized (this.cacheEntries) {
+      this.cacheEntries.put(version, parsedVersion);
+    }
+  }
+
+  public void clear() {
+    synchronized (this.cacheEntries) {
+      this.cacheEntries.clear();
+    }
+    hits.reset();
+    misses.reset();
+    evictions.reset();
+  }
+
+  public int size() {
+    synchronized (this.cacheEntries) {
+      return this.cacheEntries.size();
+    }
+  }
+
+  public int getMaxSize() {
+    return this.maxSize;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Result of the version parsing, where the version is null if the version string could not be
+   * parsed, even after the normalization.
+   */
+  public record ParsedVersion(Version version, boolean normalized) {}
+}
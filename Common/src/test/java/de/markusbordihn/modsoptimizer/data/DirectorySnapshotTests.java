@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectorySnapshotTests {
+
+  @Test
+  void testCreate(@TempDir Path tempDir) throws IOException {
+    Files.writeString(tempDir.resolve("b_mod.jar"), "b");
+    Files.writeString(tempDir.resolve("a_mod.jar"), "aa");
+    Files.writeString(tempDir.resolve("c_mod.jar.client"), "c");
+    Files.createDirectories(tempDir.resolve("d_directory.jar").resolve("nested.jar"));
+
+    DirectorySnapshot directorySnapshot = DirectorySnapshot.create(tempDir);
+    assertEquals(
+        List.of("a_mod.jar", "b_mod.jar", "c_mod.jar.client", "d_directory.jar"),
+        directorySnapshot.getEntries().stream().map(DirectorySnapshot.Entry::name).toList());
+    assertEquals(
+        List.of("a_mod.jar", "b_mod.jar"),
+        directorySnapshot.getFiles(".jar").stream().map(DirectorySnapshot.Entry::name).toList());
+    assertTrue(directorySnapshot.contains("c_mod.jar.client"));
+    assertFalse(directorySnapshot.contains("nested.jar"));
+
+    DirectorySnapshot.Entry entry = directorySnapshot.getEntry("a_mod.jar");
+    assertEquals(tempDir.resolve("a_mod.jar").toAbsolutePath().normalize(), entry.path());
+    assertEquals(2, entry.attributes().size());
+    assertTrue(entry.attributes().isRegularFile());
+    assertNull(directorySnapshot.getEntry("unknown.jar"));
+  }
+
+  @Test
+  void testCurrentSnapshot(@TempDir Path tempDir) throws IOException {
+    Path modFile = Files.writeString(tempDir.resolve("mod.jar"), "mod");
+    DirectorySnapshot directorySnapshot = DirectorySnapshot.get(tempDir);
+    try {
+      assertSame(directorySnapshot, DirectorySnapshot.get(tempDir.resolve(".")));
+
+      // Attributes of known files are served from the current snapshot.
+      Files.delete(modFile);
+      BasicFileAttributes attributes = DirectorySnapshot.readAttributes(modFile);
+      assertEquals(3, attributes.size());
+
+      // Unknown files are read from the file system.
+      Path otherFile = Files.writeString(tempDir.resolve("other.jar"), "other");
+      assertEquals(5, DirectorySnapshot.readAttributes(otherFile).size());
+    } finally {
+      DirectorySnapshot.invalidate();
+    }
+    assertThrows(NoSuchFileException.class, () -> DirectorySnapshot.readAttributes(modFile));
+    assertNotSame(directorySnapshot, DirectorySnapshot.get(tempDir));
+    DirectorySnapshot.invalidate();
+  }
+
+  @Test
+  void testMissingDirectory(@TempDir Path tempDir) {
+    Path missingDirectory = tempDir.resolve("missing");
+    assertThrows(NoSuchFileException.class, () -> DirectorySnapshot.create(missingDirectory));
+    assertNull(DirectorySnapshot.get(missingDirectory));
+  }
+}
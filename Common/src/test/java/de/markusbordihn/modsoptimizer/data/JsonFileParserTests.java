@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import de.markusbordihn.modsoptimizer.data.ScanMetrics.Heuristic;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+class JsonFileParserTests {
+
+  private static final Path FABRIC_MOD_JSON = Path.of(ModArchive.FABRIC_MOD_JSON_FILE);
+
+  private static JsonObject readJsonFile(String content) {
+    return JsonFileParser.readJsonFile(
+        content.getBytes(StandardCharsets.UTF_8), FABRIC_MOD_JSON, null);
+  }
+
+  @Test
+  void testReadJsonFile() {
+    JsonObject jsonObject = readJsonFile("{\"id\": \"example_mod\", \"version\": \"1.0.0\"}");
+    assertEquals("example_mod", jsonObject.get("id").getAsString());
+    assertEquals("1.0.0", jsonObject.get("version").getAsString());
+  }
+
+  @Test
+  void testReadJsonFileWithLenientRetry() {
+    ScanMetrics.reset();
+
+    // The strict parsing fails for the additional closing bracket, the lenient retry should be
+    // able to read the same content again.
+    JsonObject jsonObject = readJsonFile("{\"id\": \"example_mod\", \"environment\": \"*\"}\n}");
+    assertEquals("example_mod", jsonObject.get("id").getAsString());
+    assertEquals("*", jsonObject.get("environment").getAsString());
+    assertEquals(1, ScanMetrics.getCount(Heuristic.JSON_LENIENT_PARSING));
+  }
+
+  @Test
+  void testReadInvalidJsonFile() {
+    assertTrue(readJsonFile("{\"id\": ").entrySet().isEmpty());
+    assertTrue(readJsonFile("[]").entrySet().isEmpty());
+    assertTrue(JsonFileParser.readJsonFile(null, FABRIC_MOD_JSON, null).entrySet().isEmpty());
+  }
+}
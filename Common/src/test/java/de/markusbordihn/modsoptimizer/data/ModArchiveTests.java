@@ -0,0 +1,215 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import org.junit.jupiter.api.Test;
+
+class ModArchiveTests {
+
+  private final Path testModFiles = Path.of("src/test/resources/testfile");
+
+  private List<Path> getTestJarFiles() throws IOException {
+    try (Stream<Path> paths = Files.walk(testModFiles)) {
+      return paths.filter(path -> path.toString().endsWith(".jar")).toList();
+    }
+  }
+
+  @Test
+  void testReadEntries() throws IOException {
+    List<Path> testJarFiles = getTestJarFiles();
+    assertFalse(testJarFiles.isEmpty());
+    for (Path testJarFile : testJarFiles) {
+      try (JarFile jarFile = new JarFile(testJarFile.toFile());
+          ModArchive modArchive = ModArchive.open(testJarFile)) {
+        for (String entryName : ModArchive.DEFAULT_ENTRY_NAMES) {
+          ZipEntry zipEntry = jarFile.getEntry(entryName);
+          assertEquals(zipEntry != null, modArchive.hasEntry(entryName), entryName);
+          if (zipEntry != null && !zipEntry.isDirectory()) {
+            try (InputStream inputStream = jarFile.getInputStream(zipEntry)) {
+              assertArrayEquals(
+                  inputStream.readAllBytes(), modArchive.readEntry(entryName), entryName);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void testEntryNames() throws IOException {
+    for (Path testJarFile : getTestJarFiles()) {
+      try (JarFile jarFile = new JarFile(testJarFile.toFile());
+          ModArchive modArchive = ModArchive.open(testJarFile)) {
+        List<String> entryNames = new ArrayList<>();
+        jarFile.stream().forEach(zipEntry -> entryNames.add(zipEntry.getName()));
+        assertEquals(entryNames, modArchive.getEntryNames(), testJarFile.toString());
+      }
+    }
+  }
+
+  @Test
+  void testDescriptorSnapshot() throws IOException {
+    Path testJarFile = testModFiles.resolve("mods/fabric_test_mod_01.jar");
+    try (ModArchive modArchive = ModArchive.open(testJarFile)) {
+      ModDescriptorSnapshot snapshot = ModDescriptorSnapshot.create(testJarFile, modArchive);
+      assertTrue(snapshot.has(ModDescriptorSnapshot.FABRIC_MOD_JSON));
+      assertFalse(snapshot.has(ModDescriptorSnapshot.MODS_TOML));
+      assertArrayEquals(
+          modArchive.readEntry(ModArchive.FABRIC_MOD_JSON_FILE),
+          snapshot.getDescriptor(ModDescriptorSnapshot.FABRIC_MOD_JSON));
+      assertSame(snapshot.getFabricModJson(), snapshot.getFabricModJson());
+    }
+  }
+
+  @Test
+  void testLazyManifest() throws IOException {
+    for (Path testJarFile : getTestJarFiles()) {
+      try (JarFile jarFile = new JarFile(testJarFile.toFile());
+          ModArchive modArchive = ModArchive.open(testJarFile)) {
+        ScanMetrics.reset();
+        ModDescriptorSnapshot snapshot = ModDescriptorSnapshot.create(testJarFile, modArchive);
+        assertEquals(0, ScanMetrics.getCount(ScanMetrics.Heuristic.MANIFEST_READ));
+
+        // The main attributes should match the full parsed manifest.
+        Manifest manifest = snapshot.getManifest();
+        Manifest expected = jarFile.getManifest();
+        assertEquals(expected != null, manifest != null, testJarFile.toString());
+        if (expected != null) {
+          assertEquals(
+              expected.getMainAttributes(), manifest.getMainAttributes(), testJarFile.toString());
+          assertTrue(manifest.getEntries().isEmpty());
+        }
+        assertSame(manifest, snapshot.getManifest());
+        assertEquals(
+            manifest != null ? 1 : 0, ScanMetrics.getCount(ScanMetrics.Heuristic.MANIFEST_READ));
+      }
+    }
+  }
+
+  @Test
+  void testManifestMainSectionLength() {
+    assertEquals(0, ModDescriptorSnapshot.getMainSectionLength(new byte[0]));
+    assertEquals(
+        22,
+        ModDescriptorSnapshot.getMainSectionLength(
+            "Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(
+        22,
+        ModDescriptorSnapshot.getMainSectionLength(
+            "Manifest-Version: 1.0\n\nName: a.class\n".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(
+        23,
+        ModDescriptorSnapshot.getMainSectionLength(
+            "Manifest-Version: 1.0\r\n\r\nName: a.class\r\n".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(
+        22,
+        ModDescriptorSnapshot.getMainSectionLength(
+            "Manifest-Version: 1.0\r\rName: a.class\r".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(
+        26,
+        ModDescriptorSnapshot.getMainSectionLength(
+            "A: 1\r\nB: 2\nC: 3\rD: 4\r\n E\r\n\r\n".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void testTopLevelDirectoryClassifier() throws IOException {
+    Path testJarFile =
+        testModFiles.resolve("mods_sample/datapack/SmidgeonOBliss-1.19.2-1.3.2.jar");
+    try (ModArchive modArchive = ModArchive.open(testJarFile)) {
+      TopLevelDirectoryClassifier.Result result = TopLevelDirectoryClassifier.classify(modArchive);
+      assertTrue(result.isDataPack());
+      assertFalse(result.stoppedEarly());
+      assertTrue(result.roots().contains("data"));
+      assertTrue(result.roots().contains("assets"));
+    }
+  }
+
+  @Test
+  void testInMemoryArchive() throws IOException {
+    Path testJarFile = testModFiles.resolve("mods/fabric_test_mod_01.jar");
+    ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(testJarFile));
+    try (ModArchive modArchive = ModArchive.open(testJarFile);
+        ModArchive inMemoryModArchive =
+            ModArchive.open("in-memory", data, ModArchive.DEFAULT_ENTRY_NAMES)) {
+      assertArrayEquals(
+          modArchive.readEntry(ModArchive.FABRIC_MOD_JSON_FILE),
+          inMemoryModArchive.readEntry(ModArchive.FABRIC_MOD_JSON_FILE));
+      assertNull(inMemoryModArchive.readEntry("unknown.file"));
+    }
+  }
+
+  @Test
+  void testReusedDescriptorBuffers() throws IOException {
+    // Read all descriptors twice with the reused buffers and once again after releasing them.
+    List<byte[]> descriptors = new ArrayList<>();
+    for (int pass = 0; pass < 3; pass++) {
+      if (pass == 2) {
+        DescriptorBuffers.release();
+      }
+      int index = 0;
+      for (Path testJarFile : getTestJarFiles()) {
+        try (ModArchive modArchive = ModArchive.open(testJarFile)) {
+          for (String entryName : ModArchive.DEFAULT_ENTRY_NAMES) {
+            byte[] entryData = modArchive.readEntry(entryName);
+            if (pass == 0) {
+              descriptors.add(entryData);
+            } else {
+              assertArrayEquals(descriptors.get(index), entryData, testJarFile + ":" + entryName);
+            }
+            index++;
+          }
+        }
+      }
+    }
+    DescriptorBuffers.release();
+  }
+
+  @Test
+  void testDescriptorBuffersReader() throws IOException {
+    byte[] content = "{\"name\": \"Caf\u00e9\"}".getBytes(StandardCharsets.UTF_8);
+    char[] chars = new char[content.length];
+    int numChars = DescriptorBuffers.get().getReader(content).read(chars);
+    assertEquals("{\"name\": \"Caf\u00e9\"}", new String(chars, 0, numChars));
+
+    // Malformed input is replaced and not causing an exception.
+    numChars = DescriptorBuffers.get().getReader(new byte[] {'a', (byte) 0xff, 'b'}).read(chars);
+    assertEquals("a\ufffdb", new String(chars, 0, numChars));
+    DescriptorBuffers.release();
+  }
+}
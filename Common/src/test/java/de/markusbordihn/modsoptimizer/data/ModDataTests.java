@@ -20,13 +20,24 @@
 package de.markusbordihn.modsoptimizer.data;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.markusbordihn.modsoptimizer.data.ModFileData.ModEnvironment;
 import de.markusbordihn.modsoptimizer.data.ModFileData.ModType;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class ModDataTests {
 
@@ -52,6 +63,16 @@ class ModDataTests {
     assertTrue(testModFiles.exists());
   }
 
+  @Test
+  void testParseMods() {
+    ModData.parseMods(testModFiles);
+    Set<ModFileData> knownMods = ModData.getKnownMods();
+    assertFalse(knownMods.isEmpty());
+    for (ModFileData modFileData : knownMods) {
+      assertNotEquals(ModFileData.EMPTY_MOD_ID, modFileData.id());
+    }
+  }
+
   @Test
   void testReadModInfo_NeoForge() {
     ModFileData neoModFileData01 = ModData.readModInfo(testModFiles, "neoforge_test_mod_01.jar");
@@ -91,6 +112,17 @@ class ModDataTests {
     assertNotEquals(ModFileData.EMPTY_MOD_ID, fabricModFileData01.id());
   }
 
+  @Test
+  void testReadModInfo_WithoutManifest() {
+    // Complete mod descriptors and the file attributes should not need the manifest.
+    ScanMetrics.reset();
+    ModFileData fabricModFileData01 =
+        ModData.readUncachedModInfo(testModFiles.toPath().resolve("fabric_test_mod_01.jar"));
+    assertEquals(ModType.FABRIC, fabricModFileData01.modType());
+    assertNotEquals(ModFileData.EMPTY_TIMESTAMP, fabricModFileData01.timestamp());
+    assertEquals(0, ScanMetrics.getCount(ScanMetrics.Heuristic.MANIFEST_READ));
+  }
+
   @Test
   void testReadModInfo_Quilt() {
     ModFileData quiltModFileData01 = ModData.readModInfo(testModFiles, "quilt_test_mod_01.jar");
@@ -224,6 +256,36 @@ class ModDataTests {
     assertEquals("thedarkcolour.kotlinforforge", sampleModFileData01.id());
   }
 
+  @Test
+  void testReadModInfo_Fallback_Mod_Id(@TempDir Path tempDir) throws IOException {
+    Path libraryFile = createLibraryFile(tempDir.resolve("library-1.0.jar"), "Library 1.0");
+    ModFileData modFileData = ModData.readModInfo(libraryFile);
+    assertEquals(ModEnvironment.LIBRARY, modFileData.environment());
+    assertTrue(modFileData.id().startsWith("library-"));
+
+    // The fallback mod id should be stable for the same mod file.
+    assertEquals(modFileData.id(), ModData.readModInfo(libraryFile).id());
+
+    // The fallback mod id should change with the file name or the content.
+    Path copiedLibraryFile = Files.copy(libraryFile, tempDir.resolve("library-1.0-copy.jar"));
+    assertNotEquals(modFileData.id(), ModData.readModInfo(copiedLibraryFile).id());
+    createLibraryFile(libraryFile, "Library 1.1");
+    assertNotEquals(modFileData.id(), ModData.readModInfo(libraryFile).id());
+  }
+
+  private static Path createLibraryFile(Path path, String content) throws IOException {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().putValue(ModFileParser.MANIFEST_FML_MOD_TYPE, "GAMELIBRARY");
+    try (JarOutputStream jarOutputStream =
+        new JarOutputStream(Files.newOutputStream(path), manifest)) {
+      jarOutputStream.putNextEntry(new JarEntry("library.txt"));
+      jarOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+      jarOutputStream.closeEntry();
+    }
+    return path;
+  }
+
   @Test
   void testReadModInfo_Mixed_Service_Samples() {
     ModFileData sampleModFileData01 =
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.markusbordihn.modsoptimizer.data.ModFileData.ModType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+
+class ModDescriptorParsersTests {
+
+  private static final List<String> DESCRIPTOR_FILES =
+      List.of(
+          ModArchive.MODS_TOML_FILE,
+          ModArchive.FABRIC_MOD_JSON_FILE,
+          ModArchive.QUILT_MOD_JSON_FILE);
+
+  private final Path testModFiles = Path.of("src/test/resources/testfile/mods");
+
+  @Test
+  void testEntryNames() {
+    List<String> entryNames = ModDescriptorParsers.getEntryNames();
+    assertEquals(ModArchive.DEFAULT_ENTRY_NAMES, entryNames.subList(0, 5));
+    for (ModDescriptorParser parser : ModDescriptorParsers.getParsers()) {
+      assertTrue(entryNames.containsAll(parser.getEntryNames()), parser.toString());
+    }
+  }
+
+  @Test
+  void testGetParser() {
+    for (DefaultModDescriptorParser parser : DefaultModDescriptorParser.values()) {
+      assertSame(parser, ModDescriptorParsers.getParser(parser.getModType()));
+    }
+    assertNull(ModDescriptorParsers.getParser(ModType.UNKNOWN));
+  }
+
+  @Test
+  void testProbe() throws IOException {
+    assertEquals(
+        DefaultModDescriptorParser.FORGE, probe(testModFiles.resolve("forge_test_mod_01.jar")));
+    assertEquals(
+        DefaultModDescriptorParser.FABRIC, probe(testModFiles.resolve("fabric_test_mod_01.jar")));
+    assertEquals(
+        DefaultModDescriptorParser.QUILT, probe(testModFiles.resolve("quilt_test_mod_01.jar")));
+  }
+
+  @Test
+  void testProbeIsExclusive() throws IOException {
+    // Every combination of descriptors should be matched by at most one parser, so that the probe
+    // order could not change the result.
+    for (int combination = 0; combination < 1 << DESCRIPTOR_FILES.size(); combination++) {
+      List<String> descriptorFiles = new ArrayList<>();
+      for (int i = 0; i < DESCRIPTOR_FILES.size(); i++) {
+        if ((combination & 1 << i) != 0) {
+          descriptorFiles.add(DESCRIPTOR_FILES.get(i));
+        }
+      }
+      try (ModArchive modArchive =
+          ModArchive.open(
+              "combination-" + combination + ".jar",
+              createArchive(descriptorFiles),
+              ModDescriptorParsers.getEntryNames())) {
+        ModDescriptorSnapshot snapshot = ModDescriptorSnapshot.create(null, modArchive);
+        List<ModDescriptorParser> matchingParsers = new ArrayList<>();
+        for (ModDescriptorParser parser : ModDescriptorParsers.getParsers()) {
+          if (parser.matches(snapshot)) {
+            matchingParsers.add(parser);
+          }
+        }
+        assertEquals(
+            descriptorFiles.isEmpty() ? 0 : 1, matchingParsers.size(), descriptorFiles.toString());
+        if (!descriptorFiles.isEmpty()) {
+          assertSame(matchingParsers.get(0), ModDescriptorParsers.probe(snapshot));
+        }
+      }
+    }
+  }
+
+  @Test
+  void testAdditionalParser() throws IOException {
+    // The additional parser should be used before the manifest heuristics and should be able to
+    // read its claimed entry from the snapshot.
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      zipOutputStream.putNextEntry(new ZipEntry(ModArchive.MANIFEST_FILE));
+      zipOutputStream.write(
+          "Manifest-Version: 1.0\r\nFMLModType: LIBRARY\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+      zipOutputStream.putNextEntry(new ZipEntry(TestModDescriptorParser.TEST_MOD_FILE));
+      zipOutputStream.write("test_mod".getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+    }
+    try (ModArchive modArchive =
+        ModArchive.open(
+            "test-mod.jar",
+            ByteBuffer.wrap(outputStream.toByteArray()),
+            ModDescriptorParsers.getEntryNames())) {
+      ModDescriptorSnapshot snapshot = ModDescriptorSnapshot.create(null, modArchive);
+      assertArrayEquals(
+          "test_mod".getBytes(StandardCharsets.UTF_8),
+          snapshot.getDescriptor(TestModDescriptorParser.getDescriptor()));
+      assertTrue(ModDescriptorParsers.probe(snapshot) instanceof TestModDescriptorParser);
+      assertEquals("test_mod", ModFileParser.parseModFile(snapshot).id());
+    }
+  }
+
+  private ModDescriptorParser probe(Path modFile) throws IOException {
+    try (ModArchive modArchive = ModArchive.open(modFile, ModDescriptorParsers.getEntryNames())) {
+      return ModDescriptorParsers.probe(ModDescriptorSnapshot.create(modFile, modArchive));
+    }
+  }
+
+  private static ByteBuffer createArchive(List<String> entryNames) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      for (String entryName : entryNames) {
+        zipOutputStream.putNextEntry(new ZipEntry(entryName));
+        zipOutputStream.write('{');
+        zipOutputStream.write('}');
+        zipOutputStream.closeEntry();
+      }
+    }
+    return ByteBuffer.wrap(outputStream.toByteArray());
+  }
+}
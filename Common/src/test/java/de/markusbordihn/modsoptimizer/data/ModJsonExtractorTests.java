@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class ModJsonExtractorTests {
+
+  private final Path testModFiles = Path.of("src/test/resources/testfile");
+
+  private static ModJsonData extractFabric(String content) {
+    return ModJsonExtractor.extractFabricModJson(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static ModJsonData extractQuilt(String content) {
+    return ModJsonExtractor.extractQuiltModJson(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testExtractFabricModJson() {
+    assertEquals(
+        new ModJsonData("example_mod", "Example \"Mod\"", "1.2.3", "*"),
+        extractFabric(
+            """
+            {
+              "schemaVersion": 1,
+              "id": "example_mod",
+              "version": "1.2.3",
+              "name": "Example \\"Mod\\"",
+              "contact": {"homepage": "https://example.com", "sources": ["id", {"name": 1}]},
+              "environment": "*",
+              "mixins": ["example_mod.mixins.json"]
+            }
+            """));
+
+    // Numbers are returned like in the full json tree and missing fields are null.
+    assertEquals(
+        new ModJsonData("example_mod", null, "1.0", null),
+        extractFabric("{\"id\": \"example_mod\", \"version\": 1.0}"));
+    assertEquals(ModJsonData.EMPTY, extractFabric("{}"));
+  }
+
+  @Test
+  void testExtractFabricModJsonWithDuplicatedFields() {
+    // The last value should be used like in the full json tree.
+    assertEquals(
+        new ModJsonData("example_mod", "Example Mod", "1.0.0", "*"),
+        extractFabric(
+            """
+            {"id": "example_mod", "name": "Example Mod", "version": "1.0.0",
+             "environment": "client", "depends": {}, "environment": "*"}
+            """));
+  }
+
+  @Test
+  void testExtractQuiltModJson() {
+    assertEquals(
+        new ModJsonData("example_mod", "Example Mod", "1.2.3", "dedicated_server"),
+        extractQuilt(
+            """
+            {
+              "schema_version": 1,
+              "quilt_loader": {
+                "group": "com.example",
+                "id": "example_mod",
+                "version": "1.2.3",
+                "metadata": {
+                  "name": "Example Mod",
+                  "contributors": {"Example Author": "Owner"}
+                },
+                "depends": [{"id": "quilt_loader", "versions": ">=0.17.0"}]
+              },
+              "minecraft": {"environment": "dedicated_server"}
+            }
+            """));
+    assertEquals(ModJsonData.EMPTY, extractQuilt("{\"schema_version\": 1}"));
+  }
+
+  @Test
+  void testExtractUnsupportedContent() {
+    assertNull(ModJsonExtractor.extractFabricModJson(null));
+    assertNull(ModJsonExtractor.extractQuiltModJson(null));
+
+    // Unexpected value types.
+    assertNull(extractFabric("{\"id\": \"example_mod\", \"environment\": [\"client\"]}"));
+    assertNull(extractFabric("{\"id\": null}"));
+    assertNull(extractQuilt("{\"quilt_loader\": \"example_mod\"}"));
+    assertNull(extractFabric("[]"));
+
+    // Broken files.
+    assertNull(extractFabric("{\"id\": \"example_mod\", \"version\": "));
+    assertNull(extractQuilt("{\"quilt_loader\": {\"id\": \"example_mod\"}"));
+  }
+
+  @Test
+  void testExtractTestFiles() throws IOException {
+    try (Stream<Path> paths = Files.walk(testModFiles)) {
+      for (Path testJarFile : paths.filter(path -> path.toString().endsWith(".jar")).toList()) {
+        try (ModArchive modArchive = ModArchive.open(testJarFile)) {
+          ModDescriptorSnapshot snapshot = ModDescriptorSnapshot.create(testJarFile, modArchive);
+          byte[] fabricModJson = snapshot.getDescriptor(ModDescriptorSnapshot.FABRIC_MOD_JSON);
+          ModJsonData fabricModJsonData = ModJsonExtractor.extractFabricModJson(fabricModJson);
+          // Broken files, which could only be read by the extractor, are not compared.
+          if (fabricModJsonData != null && snapshot.getFabricModJson().size() > 0) {
+            assertEquals(
+                ModJsonData.ofFabricModJson(snapshot.getFabricModJson()),
+                fabricModJsonData,
+                testJarFile.toString());
+          }
+          byte[] quiltModJson = snapshot.getDescriptor(ModDescriptorSnapshot.QUILT_MOD_JSON);
+          ModJsonData quiltModJsonData = ModJsonExtractor.extractQuiltModJson(quiltModJson);
+          if (quiltModJsonData != null && snapshot.getQuiltModJson().size() > 0) {
+            assertEquals(
+                ModJsonData.ofQuiltModJson(snapshot.getQuiltModJson()),
+                quiltModJsonData,
+                testJarFile.toString());
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.markusbordihn.modsoptimizer.data.ModFileData.ModEnvironment;
+import de.markusbordihn.modsoptimizer.fixtures.ModPackGenerator;
+import de.markusbordihn.modsoptimizer.fixtures.ModPackGenerator.GeneratedMod;
+import de.markusbordihn.modsoptimizer.fixtures.ModPackGenerator.ModKind;
+import de.markusbordihn.modsoptimizer.utils.DuplicatedModsUtils;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ModPackScanTests {
+
+  private static final long SEED = 42L;
+  private static final int NUM_MOD_FILES = 300;
+
+  private static ModPackGenerator createGenerator() {
+    return new ModPackGenerator(SEED).oversizedPayloadSize(256 * 1024);
+  }
+
+  private static String getExpectedModId(GeneratedMod generatedMod) {
+    // Libraries are identified by their automatic module name.
+    return generatedMod.kind() == ModKind.LIBRARY
+        ? "com.example." + generatedMod.modId()
+        : generatedMod.modId();
+  }
+
+  @Test
+  void testDeterministicModPack(@TempDir Path tempDir) throws Exception {
+    List<GeneratedMod> generatedMods = createGenerator().generate(tempDir.resolve("a"), 50);
+    List<GeneratedMod> otherGeneratedMods = createGenerator().generate(tempDir.resolve("b"), 50);
+    assertEquals(generatedMods.size(), otherGeneratedMods.size());
+    for (int i = 0; i < generatedMods.size(); i++) {
+      Path modFile = generatedMods.get(i).path();
+      Path otherModFile = otherGeneratedMods.get(i).path();
+      assertEquals(modFile.getFileName(), otherModFile.getFileName());
+      assertArrayEquals(Files.readAllBytes(modFile), Files.readAllBytes(otherModFile));
+      assertEquals(Files.getLastModifiedTime(modFile), Files.getLastModifiedTime(otherModFile));
+    }
+  }
+
+  @Test
+  void testParseGeneratedModPack(@TempDir Path tempDir) throws Exception {
+    List<GeneratedMod> generatedMods = createGenerator().generate(tempDir, NUM_MOD_FILES);
+    ModData.parseMods(tempDir.toFile());
+
+    // All valid mods should be detected.
+    Set<String> knownModIds =
+        ModData.getKnownMods().stream().map(ModFileData::id).collect(Collectors.toSet());
+    for (GeneratedMod generatedMod : generatedMods) {
+      if (generatedMod.kind() != ModKind.MALFORMED) {
+        assertTrue(knownModIds.contains(getExpectedModId(generatedMod)), generatedMod.toString());
+      }
+    }
+
+    // All duplicated mods should be detected.
+    Map<String, Set<ModFileData>> duplicatedMods = ModData.getDuplicatedMods();
+    for (GeneratedMod generatedMod : generatedMods) {
+      if (generatedMod.duplicate()) {
+        assertTrue(
+            duplicatedMods.containsKey(getExpectedModId(generatedMod)), generatedMod.toString());
+      }
+    }
+
+    // Data packs should be detected as such.
+    Set<String> dataPackModIds =
+        ModData.getKnownMods().stream()
+            .filter(modFileData -> modFileData.environment() == ModEnvironment.DATA_PACK)
+            .map(ModFileData::id)
+            .collect(Collectors.toSet());
+    for (GeneratedMod generatedMod : generatedMods) {
+      if (generatedMod.kind() == ModKind.DATA_PACK) {
+        assertTrue(dataPackModIds.contains(generatedMod.modId()), generatedMod.toString());
+      }
+    }
+
+    // Only one mod file per mod should be left after the optimization.
+    DuplicatedModsUtils.optimize(duplicatedMods);
+    ModData.parseMods(tempDir.toFile());
+    assertTrue(ModData.getDuplicatedMods().isEmpty());
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.markusbordihn.modsoptimizer.config.ModsDatabaseConfig;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ModScanCacheTests {
+
+  private final File testModFiles = new File("src/test/resources/testfile/mods");
+
+  @AfterEach
+  void reset() {
+    ModScanCache.reset();
+    ModsDatabaseConfig.reset();
+  }
+
+  @Test
+  void testCacheRoundTrip(@TempDir Path tempDir) throws Exception {
+    Path cacheFile = tempDir.resolve(ModScanCache.CACHE_FILE_NAME);
+    Path modFile = tempDir.resolve("forge_test_mod_01.jar");
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), modFile);
+
+    // First scan, should parse the mod file and store the result.
+    ModScanCache.load(cacheFile);
+    ModFileData modFileData = ModData.readModInfo(modFile);
+    assertNotNull(modFileData);
+    assertEquals(1, ModScanCache.getCacheMisses());
+    ModScanCache.save(cacheFile);
+    assertTrue(Files.exists(cacheFile));
+
+    // Second scan, should use the cached result.
+    ModScanCache.load(cacheFile);
+    ModFileData cachedModFileData = ModScanCache.get(modFile);
+    assertNotNull(cachedModFileData);
+    assertEquals(1, ModScanCache.getCacheHits());
+    assertEquals(modFileData.id(), cachedModFileData.id());
+    assertEquals(modFileData.modType(), cachedModFileData.modType());
+    assertEquals(modFileData.name(), cachedModFileData.name());
+    assertEquals(modFileData.version(), cachedModFileData.version());
+    assertEquals(modFileData.timestamp(), cachedModFileData.timestamp());
+    assertEquals(modFile, cachedModFileData.path());
+    assertEquals(
+        List.of(
+            new ModDependency(
+                "forge",
+                ModDependency.Type.REQUIRED,
+                "[39,)",
+                ModDependency.Side.BOTH,
+                ModDependency.Ordering.NONE),
+            new ModDependency(
+                "minecraft",
+                ModDependency.Type.REQUIRED,
+                "[1.18.1,1.19)",
+                ModDependency.Side.BOTH,
+                ModDependency.Ordering.NONE)),
+        cachedModFileData.dependencies());
+    assertEquals(modFileData.dependencies(), cachedModFileData.dependencies());
+  }
+
+  @Test
+  void testCacheNestedMods(@TempDir Path tempDir) throws Exception {
+    Path cacheFile = tempDir.resolve(ModScanCache.CACHE_FILE_NAME);
+    Path modFile =
+        Files.write(
+            tempDir.resolve("example.jar"),
+            NestedModScannerTests.createFabricModFile(
+                "example",
+                "1.0.0",
+                Map.of(
+                    "META-INF/jars/library.jar",
+                    NestedModScannerTests.createFabricModFile("library", "2.0.0", Map.of()))));
+
+    ModScanCache.load(cacheFile);
+    ModsDatabaseConfig.setNestedScanEnabled(true);
+    ModFileData modFileData = ModData.readModInfo(modFile);
+    assertEquals(1, modFileData.nestedMods().size());
+    ModScanCache.save(cacheFile);
+
+    // Embedded mods should be restored with their path inside the mod file.
+    ModScanCache.load(cacheFile);
+    ModFileData cachedModFileData = ModScanCache.get(modFile);
+    assertNotNull(cachedModFileData);
+    assertEquals(modFileData.nestedMods(), cachedModFileData.nestedMods());
+    assertEquals(
+        modFile.resolve("META-INF/jars/library.jar"), cachedModFileData.nestedMods().get(0).path());
+  }
+
+  @Test
+  void testCacheNestedScanConfig(@TempDir Path tempDir) throws Exception {
+    Path cacheFile = tempDir.resolve(ModScanCache.CACHE_FILE_NAME);
+    Path modFile =
+        Files.write(
+            tempDir.resolve("example.jar"),
+            NestedModScannerTests.createFabricModFile(
+                "example",
+                "1.0.0",
+                Map.of(
+                    "META-INF/jars/library.jar",
+                    NestedModScannerTests.createFabricModFile("library", "2.0.0", Map.of()))));
+
+    ModScanCache.load(cacheFile);
+    assertTrue(ModData.readModInfo(modFile).nestedMods().isEmpty());
+    ModScanCache.save(cacheFile);
+
+    // Entries without nested scan should not be used, after the nested scan was enabled.
+    ModsDatabaseConfig.setNestedScanEnabled(true);
+    ModScanCache.load(cacheFile);
+    assertNull(ModScanCache.get(modFile));
+    assertEquals(1, ModData.readModInfo(modFile).nestedMods().size());
+    assertNotNull(ModScanCache.get(modFile));
+  }
+
+  @Test
+  void testCacheIncompleteNestedScan(@TempDir Path tempDir) throws Exception {
+    Path cacheFile = tempDir.resolve(ModScanCache.CACHE_FILE_NAME);
+    Path modFile =
+        Files.write(
+            tempDir.resolve("example.jar"),
+            NestedModScannerTests.createFabricModFile(
+                "example",
+                "1.0.0",
+                Map.of(
+                    "META-INF/jars/library.jar",
+                    NestedModScannerTests.createFabricModFile("library", "2.0.0", Map.of()))));
+
+    // Results with skipped embedded jar files because of the memory limit should not be cached.
+    ModScanCache.load(cacheFile);
+    ModsDatabaseConfig.setNestedScanEnabled(true);
+    ModsDatabaseConfig.setNestedScanMemoryLimit(0);
+    assertTrue(ModData.readModInfo(modFile).nestedMods().isEmpty());
+    assertNull(ModScanCache.get(modFile));
+  }
+
+  @Test
+  void testCacheInvalidation(@TempDir Path tempDir) throws Exception {
+    Path cacheFile = tempDir.resolve(ModScanCache.CACHE_FILE_NAME);
+    Path modFile = tempDir.resolve("fabric_test_mod_01.jar");
+    Files.copy(testModFiles.toPath().resolve("fabric_test_mod_01.jar"), modFile);
+
+    ModScanCache.load(cacheFile);
+    assertNotNull(ModData.readModInfo(modFile));
+    ModScanCache.save(cacheFile);
+
+    // Changed modification time should invalidate the cache entry.
+    Files.setLastModifiedTime(
+        modFile,
+        FileTime.fromMillis(Files.getLastModifiedTime(modFile).toMillis() + 60_000));
+    ModScanCache.load(cacheFile);
+    assertNull(ModScanCache.get(modFile));
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.markusbordihn.modsoptimizer.data.ModsTomlData.Dependency;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class ModsTomlExtractorTests {
+
+  private final Path testModFiles = Path.of("src/test/resources/testfile");
+
+  private static ModsTomlData extract(String content) {
+    return ModsTomlExtractor.extract(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testExtract() {
+    ModsTomlData modsTomlData =
+        extract(
+            """
+            # Comment with [[mods]] and modId="wrong"
+            modLoader="javafml" # Comment
+            loaderVersion="[40,)"
+            showAsResourcePack=false
+
+            [[mods]]
+            modId="example_mod"
+            version = '1.2.3'
+            displayName="Example \\"Mod\\" \\u00e9"
+            description='''
+            Multi-line description with version="wrong" and
+            [[dependencies.example_mod]]
+            '''
+            displayTest="IGNORE_SERVER_VERSION"
+
+            [modproperties.example_mod]
+            catalogue = { banner = "banner.png", items = ["a", ["b"]] }
+
+            [[dependencies.example_mod]]
+              modId="forge"
+              mandatory=true
+              versionRange="[40,)"
+              side="CLIENT"
+
+            [[dependencies.example_mod]]
+              modId="minecraft"
+              side="BOTH"
+
+            [[mods]]
+            modId="second_mod"
+            version="2.0.0"
+            """);
+    assertNotNull(modsTomlData);
+    assertEquals("javafml", modsTomlData.modLoader());
+    assertNull(modsTomlData.version());
+    assertEquals("example_mod", modsTomlData.modId());
+    assertEquals("Example \"Mod\" é", modsTomlData.displayName());
+    assertEquals("1.2.3", modsTomlData.modVersion());
+    assertEquals("IGNORE_SERVER_VERSION", modsTomlData.displayTest());
+    assertEquals(
+        List.of(
+            new Dependency("example_mod", "forge", true, null, "[40,)", "CLIENT", null),
+            new Dependency("example_mod", "minecraft", null, null, null, "BOTH", null)),
+        modsTomlData.getDependencies("example_mod"));
+    assertTrue(modsTomlData.getDependencies("second_mod").isEmpty());
+  }
+
+  @Test
+  void testExtractDependencies() {
+    ModsTomlData modsTomlData =
+        extract(
+            """
+            [[mods]]
+            modId="example_mod"
+
+            [[dependencies.example_mod]]
+            modId="neoforge"
+            type="required"
+            versionRange="[20.4,)"
+            ordering="NONE"
+            side="SERVER"
+
+            [[dependencies.example_mod]]
+            modId="optional_mod"
+            mandatory=false
+            ordering="AFTER"
+            side="client"
+
+            [[dependencies.example_mod]]
+            modId="incompatible_mod"
+            type="incompatible"
+            ordering="BEFORE"
+            side="unknown"
+            """);
+    assertNotNull(modsTomlData);
+    List<ModDependency> dependencies =
+        modsTomlData.getDependencies("example_mod").stream().map(ModDependency::of).toList();
+    assertEquals(
+        List.of(
+            new ModDependency(
+                "neoforge",
+                ModDependency.Type.REQUIRED,
+                "[20.4,)",
+                ModDependency.Side.SERVER,
+                ModDependency.Ordering.NONE),
+            new ModDependency(
+                "optional_mod",
+                ModDependency.Type.OPTIONAL,
+                null,
+                ModDependency.Side.CLIENT,
+                ModDependency.Ordering.AFTER),
+            new ModDependency(
+                "incompatible_mod",
+                ModDependency.Type.INCOMPATIBLE,
+                null,
+                null,
+                ModDependency.Ordering.BEFORE)),
+        dependencies);
+    assertTrue(dependencies.get(0).isModLoader());
+    assertFalse(dependencies.get(1).isModLoader());
+
+    // Mandatory is a boolean value.
+    assertNull(extract("[[dependencies.example_mod]]\nmodId=\"forge\"\nmandatory=\"true\"\n"));
+  }
+
+  @Test
+  void testExtractWithWindowsLineEndings() {
+    ModsTomlData modsTomlData =
+        extract("modLoader=\"lowcodefml\"\r\nversion=\"1.0\"\r\n[[mods]]\r\nmodId=\"data\"\r\n");
+    assertNotNull(modsTomlData);
+    assertEquals("lowcodefml", modsTomlData.modLoader());
+    assertEquals("1.0", modsTomlData.version());
+    assertEquals("data", modsTomlData.modId());
+  }
+
+  @Test
+  void testExtractEmpty() {
+    assertNull(ModsTomlExtractor.extract(null));
+    assertTrue(extract("").isEmpty());
+    assertTrue(extract("# Comment only\n\n").isEmpty());
+    assertFalse(extract("[[mods]]\nmodId=\"example_mod\"").isEmpty());
+  }
+
+  @Test
+  void testExtractUnsupportedSyntax() {
+    // Inline mods and dependencies.
+    assertNull(extract("mods=[{modId=\"example_mod\"}]\n"));
+    assertNull(extract("[dependencies]\nexample_mod=[{modId=\"forge\"}]\n"));
+    assertNull(extract("[mods]\nmodId=\"example_mod\"\n"));
+
+    // Relevant keys with multi-line strings, other value types or duplicated keys.
+    assertNull(extract("[[mods]]\nmodId=\"\"\"example_mod\"\"\"\n"));
+    assertNull(extract("[[mods]]\nversion=1\n"));
+    assertNull(extract("[[mods]]\nmodId=\"example_mod\"\nmodId=\"example_mod\"\n"));
+    assertNull(extract("[[mods]]\nmod.modId=\"example_mod\"\n"));
+
+    // Broken files.
+    assertNull(extract("[[mods]]\nmodId=\"example_mod\nversion=\"1.0.0\n"));
+    assertNull(extract("[[mods]\nmodId=\"example_mod\"\n"));
+    assertNull(extract("[[mods]]\nmodId=\"example_mod\" version=\"1.0.0\"\n"));
+    assertNull(extract("[[mods]]\ndescription='''\nUnterminated\n"));
+  }
+
+  @Test
+  void testExtractTestFiles() throws IOException {
+    try (Stream<Path> paths = Files.walk(testModFiles)) {
+      for (Path testJarFile : paths.filter(path -> path.toString().endsWith(".jar")).toList()) {
+        try (ModArchive modArchive = ModArchive.open(testJarFile)) {
+          ModDescriptorSnapshot snapshot = ModDescriptorSnapshot.create(testJarFile, modArchive);
+          byte[] content = snapshot.getDescriptor(ModDescriptorSnapshot.MODS_TOML);
+          ModsTomlData modsTomlData = ModsTomlExtractor.extract(content);
+          if (modsTomlData == null) {
+            continue;
+          }
+
+          // The extracted data should match the full parsed TOML file.
+          ModsTomlData expected = ModsTomlData.of(snapshot.getModsToml());
+          String message = testJarFile.toString();
+          assertEquals(expected.modLoader(), modsTomlData.modLoader(), message);
+          assertEquals(expected.version(), modsTomlData.version(), message);
+          assertEquals(expected.modId(), modsTomlData.modId(), message);
+          assertEquals(expected.displayName(), modsTomlData.displayName(), message);
+          assertEquals(expected.modVersion(), modsTomlData.modVersion(), message);
+          assertEquals(expected.displayTest(), modsTomlData.displayTest(), message);
+          String modId =
+              expected.modId() != null ? expected.modId() : ModFileData.EMPTY_MOD_ID;
+          assertEquals(
+              expected.getDependencies(modId), modsTomlData.getDependencies(modId), message);
+        }
+      }
+    }
+  }
+}
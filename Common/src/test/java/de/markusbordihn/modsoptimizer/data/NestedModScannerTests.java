@@ -0,0 +1,239 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.zafarkhaja.semver.Version;
+import de.markusbordihn.modsoptimizer.config.ModsDatabaseConfig;
+import de.markusbordihn.modsoptimizer.utils.DuplicatedModsUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NestedModScannerTests {
+
+  @AfterEach
+  void reset() {
+    ModsDatabaseConfig.reset();
+  }
+
+  @Test
+  void testScanNestedJars(@TempDir Path tempDir) throws IOException {
+    byte[] innerLibrary = createFabricModFile("inner_library", "1.0.0", Map.of());
+    byte[] library =
+        createFabricModFile("library", "2.1.0", Map.of("META-INF/jars/inner.jar", innerLibrary));
+    Map<String, byte[]> nestedJars = new LinkedHashMap<>();
+    nestedJars.put("META-INF/jarjar/library.jar", library);
+    nestedJars.put("META-INF/jarjar/readme.txt", new byte[] {'a'});
+    Path modFile =
+        Files.write(
+            tempDir.resolve("example.jar"), createFabricModFile("example", "1.0.0", nestedJars));
+
+    ModsDatabaseConfig.setNestedScanEnabled(true);
+    ModFileData modFileData = ModData.readModInfo(modFile);
+    assertNotNull(modFileData);
+    assertEquals("example", modFileData.id());
+    List<ModFileData> nestedMods = modFileData.nestedMods();
+    assertEquals(2, nestedMods.size());
+    assertEquals("library", nestedMods.get(0).id());
+    assertEquals(Version.valueOf("2.1.0"), nestedMods.get(0).version());
+    assertEquals(modFile.resolve("META-INF/jarjar/library.jar"), nestedMods.get(0).path());
+    assertEquals("inner_library", nestedMods.get(1).id());
+    assertEquals(
+        modFile.resolve("META-INF/jarjar/library.jar").resolve("META-INF/jars/inner.jar"),
+        nestedMods.get(1).path());
+    assertEquals(0, NestedModScanner.getUsedMemory());
+  }
+
+  @Test
+  void testPlainLibraries() throws IOException {
+    // Plain libraries without any mod descriptor are not reported, but their embedded jar files
+    // are scanned.
+    byte[] library =
+        createJarFile(
+            Map.of(
+                "library/Library.class",
+                new byte[] {'a'},
+                "META-INF/jars/inner.jar",
+                createFabricModFile("inner_library", "1.0.0", Map.of())));
+    NestedModScanner.Result result =
+        scan(createFabricModFile("example", "1.0.0", Map.of("META-INF/jars/library.jar", library)));
+    assertTrue(result.complete());
+    assertEquals(1, result.nestedMods().size());
+    assertEquals("inner_library", result.nestedMods().get(0).id());
+  }
+
+  @Test
+  void testTooLargeNestedJar() throws IOException {
+    // Too large embedded jar files are always skipped, so that the result is still complete.
+    NestedModScanner.Result result =
+        scan(
+            createFabricModFile(
+                "example",
+                "1.0.0",
+                Map.of("META-INF/jars/large.jar", new byte[16 * 1024 * 1024 + 1])));
+    assertTrue(result.complete());
+    assertTrue(result.nestedMods().isEmpty());
+    assertEquals(0, NestedModScanner.getUsedMemory());
+  }
+
+  @Test
+  void testNestedScanMemoryLimit() throws IOException {
+    // Embedded jar files, which exceed the memory limit, are making the result incomplete.
+    ModsDatabaseConfig.setNestedScanMemoryLimit(0);
+    NestedModScanner.Result result =
+        scan(
+            createFabricModFile(
+                "example",
+                "1.0.0",
+                Map.of(
+                    "META-INF/jars/library.jar",
+                    createFabricModFile("library", "1.0.0", Map.of()))));
+    assertFalse(result.complete());
+    assertTrue(result.nestedMods().isEmpty());
+    assertEquals(0, NestedModScanner.getUsedMemory());
+  }
+
+  @Test
+  void testDuplicatedNestedMods(@TempDir Path tempDir) throws IOException {
+    Path libraryFile =
+        Files.write(
+            tempDir.resolve("library.jar"), createFabricModFile("library", "1.0.0", Map.of()));
+    Files.write(
+        tempDir.resolve("example.jar"),
+        createFabricModFile(
+            "example",
+            "1.0.0",
+            Map.of(
+                "META-INF/jars/library.jar", createFabricModFile("library", "2.0.0", Map.of()))));
+
+    parseModsWithNestedScan(tempDir);
+    assertEquals(2, ModData.getModFiles().size());
+    assertEquals(1, ModData.getNestedMods().size());
+
+    // Embedded mods are reported as duplicates, but only the mod files could be removed.
+    Map<String, Set<ModFileData>> duplicatedMods = ModData.getDuplicatedMods();
+    assertEquals(Set.of("library"), duplicatedMods.keySet());
+    assertEquals(2, duplicatedMods.get("library").size());
+    Set<ModFileData> removableModFiles =
+        DuplicatedModsUtils.getRemovableModFiles(duplicatedMods.get("library"));
+    assertEquals(1, removableModFiles.size());
+    assertFalse(ModData.isNestedMod(removableModFiles.iterator().next()));
+    DuplicatedModsUtils.optimize(duplicatedMods);
+    assertTrue(Files.exists(libraryFile));
+  }
+
+  @Test
+  void testSharedNestedLibraries(@TempDir Path tempDir) throws IOException {
+    byte[] library = createFabricModFile("library", "1.0.0", Map.of());
+    Files.write(tempDir.resolve("library.jar"), library);
+    Files.write(
+        tempDir.resolve("example_a.jar"),
+        createFabricModFile("example_a", "1.0.0", Map.of("META-INF/jars/library.jar", library)));
+    Files.write(
+        tempDir.resolve("example_b.jar"),
+        createFabricModFile("example_b", "1.0.0", Map.of("META-INF/jars/library.jar", library)));
+    Files.write(
+        tempDir.resolve("example_c.jar"),
+        createFabricModFile(
+            "example_c",
+            "1.0.0",
+            Map.of(
+                "META-INF/jars/shared.jar", createFabricModFile("shared", "1.0.0", Map.of()))));
+    Files.write(
+        tempDir.resolve("example_d.jar"),
+        createFabricModFile(
+            "example_d",
+            "1.0.0",
+            Map.of(
+                "META-INF/jars/shared.jar", createFabricModFile("shared", "2.0.0", Map.of()))));
+
+    // Embedded libraries with the same version as the mod file or only embedded in other mods are
+    // not reported as duplicates.
+    parseModsWithNestedScan(tempDir);
+    assertEquals(4, ModData.getNestedMods().size());
+    assertTrue(ModData.getDuplicatedMods().isEmpty());
+  }
+
+  private static NestedModScanner.Result scan(byte[] modFile) throws IOException {
+    try (ModArchive modArchive =
+        ModArchive.open(
+            "example.jar", ByteBuffer.wrap(modFile), ModDescriptorParsers.getEntryNames())) {
+      return NestedModScanner.scan(Path.of("example.jar"), modArchive);
+    }
+  }
+
+  private static void parseModsWithNestedScan(Path modsDir) {
+    ModsDatabaseConfig.setScanCacheEnabled(false);
+    ModsDatabaseConfig.setNestedScanEnabled(true);
+    ModData.parseMods(modsDir.toFile());
+  }
+
+  private static byte[] createJarFile(Map<String, byte[]> entries) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
+        zipOutputStream.write(entry.getValue());
+        zipOutputStream.closeEntry();
+      }
+    }
+    return outputStream.toByteArray();
+  }
+
+  static byte[] createFabricModFile(String id, String version, Map<String, byte[]> entries)
+      throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      zipOutputStream.putNextEntry(new ZipEntry(ModArchive.FABRIC_MOD_JSON_FILE));
+      zipOutputStream.write(
+          ("{\"schemaVersion\": 1, \"id\": \""
+                  + id
+                  + "\", \"version\": \""
+                  + version
+                  + "\", \"environment\": \"*\"}")
+              .getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
+        zipOutputStream.write(entry.getValue());
+        zipOutputStream.closeEntry();
+      }
+    }
+    return outputStream.toByteArray();
+  }
+}
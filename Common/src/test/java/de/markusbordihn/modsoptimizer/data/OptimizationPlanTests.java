@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.markusbordihn.modsoptimizer.data.OptimizationPlan.Action;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OptimizationPlanTests {
+
+  private final File testModFiles = new File("src/test/resources/testfile/mods");
+
+  @Test
+  void testPlanRoundTrip(@TempDir Path tempDir) throws Exception {
+    Path modsDir = Files.createDirectory(tempDir.resolve("mods"));
+    Path modFile = modsDir.resolve("forge_test_mod_01.jar");
+    Path copyModFile = modsDir.resolve("forge_test_mod_01 copy.jar");
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), modFile);
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), copyModFile);
+
+    ModData.parseMods(modsDir.toFile());
+    assertEquals(1, ModData.getDuplicatedMods().size());
+
+    // Only the copy should be removed.
+    Path planFile = tempDir.resolve(OptimizationPlan.PLAN_FILE_NAME);
+    OptimizationPlan.create(GameEnvironment.CLIENT).save(planFile);
+    OptimizationPlan optimizationPlan = OptimizationPlan.load(planFile);
+    assertNotNull(optimizationPlan);
+    assertEquals(GameEnvironment.CLIENT, optimizationPlan.getGameEnvironment());
+    assertEquals(1, optimizationPlan.getEntries().size());
+    assertEquals(Action.REMOVE_DUPLICATED_MOD, optimizationPlan.getEntries().get(0).action());
+    assertEquals(copyModFile, optimizationPlan.getEntries().get(0).path());
+    assertEquals(modFile, optimizationPlan.getEntries().get(0).keptPath());
+
+    // Plan should not be applied in a different environment.
+    assertEquals(0, optimizationPlan.apply(GameEnvironment.SERVER));
+    assertEquals(1, optimizationPlan.apply(GameEnvironment.CLIENT));
+    assertTrue(Files.exists(modFile));
+    assertFalse(Files.exists(copyModFile));
+  }
+
+  @Test
+  void testOutdatedPlanEntry(@TempDir Path tempDir) throws Exception {
+    Path modsDir = Files.createDirectory(tempDir.resolve("mods"));
+    Path modFile = modsDir.resolve("forge_test_mod_01.jar");
+    Path copyModFile = modsDir.resolve("forge_test_mod_01 copy.jar");
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), modFile);
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), copyModFile);
+
+    ModData.parseMods(modsDir.toFile());
+    OptimizationPlan optimizationPlan = OptimizationPlan.create(GameEnvironment.CLIENT);
+
+    // Changed mod files should be skipped.
+    Files.setLastModifiedTime(
+        copyModFile,
+        FileTime.fromMillis(Files.getLastModifiedTime(copyModFile).toMillis() + 60_000));
+    assertEquals(0, optimizationPlan.apply(GameEnvironment.CLIENT));
+    assertTrue(Files.exists(copyModFile));
+  }
+
+  @Test
+  void testRemovedKeptModFile(@TempDir Path tempDir) throws Exception {
+    Path modsDir = Files.createDirectory(tempDir.resolve("mods"));
+    Path modFile = modsDir.resolve("forge_test_mod_01.jar");
+    Path copyModFile = modsDir.resolve("forge_test_mod_01 copy.jar");
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), modFile);
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), copyModFile);
+
+    ModData.parseMods(modsDir.toFile());
+    Path planFile = tempDir.resolve(OptimizationPlan.PLAN_FILE_NAME);
+    OptimizationPlan.create(GameEnvironment.CLIENT).save(planFile);
+    OptimizationPlan optimizationPlan = OptimizationPlan.load(planFile);
+    assertNotNull(optimizationPlan);
+
+    // The last copy of a mod should never be removed.
+    Files.delete(modFile);
+    assertEquals(0, optimizationPlan.apply(GameEnvironment.CLIENT));
+    assertTrue(Files.exists(copyModFile));
+  }
+
+  @Test
+  void testUpdateMods(@TempDir Path tempDir) throws Exception {
+    Path modsDir = Files.createDirectory(tempDir.resolve("mods"));
+    Path modFile = modsDir.resolve("forge_test_mod_01.jar");
+    Path copyModFile = modsDir.resolve("forge_test_mod_01 copy.jar");
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), modFile);
+
+    ModData.parseMods(modsDir.toFile());
+    assertEquals(1, ModData.getKnownMods().size());
+    assertTrue(ModData.getDuplicatedMods().isEmpty());
+
+    // Added mod file should be detected as duplicate.
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), copyModFile);
+    ModData.updateMods(List.of(copyModFile), List.of());
+    assertEquals(1, ModData.getDuplicatedMods().size());
+    assertEquals(2, ModData.getModFiles().size());
+
+    // Removed mod file should resolve the duplicate.
+    Files.delete(copyModFile);
+    ModData.updateMods(List.of(), List.of(copyModFile));
+    assertTrue(ModData.getDuplicatedMods().isEmpty());
+    assertEquals(1, ModData.getModFiles().size());
+  }
+}
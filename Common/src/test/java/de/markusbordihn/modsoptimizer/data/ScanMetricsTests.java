@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.markusbordihn.modsoptimizer.data.ScanMetrics.Heuristic;
+import de.markusbordihn.modsoptimizer.data.ScanMetrics.JarMetrics;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScanMetricsTests {
+
+  private final File testModFiles = new File("src/test/resources/testfile/mods");
+
+  @Test
+  void testJarMetrics(@TempDir Path tempDir) throws Exception {
+    // Use a copy of the mod file, which could not be served from the scan cache.
+    Path modFile = tempDir.resolve("forge_test_mod_01.jar");
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), modFile);
+    ScanMetrics.reset();
+    ModData.readModInfo(modFile);
+
+    List<JarMetrics> jarMetricsList = ScanMetrics.getJarMetrics();
+    assertEquals(1, jarMetricsList.size());
+    JarMetrics jarMetrics = jarMetricsList.get(0);
+    assertEquals(modFile, jarMetrics.path());
+    assertTrue(jarMetrics.totalTime() > 0);
+    assertTrue(jarMetrics.openTime() > 0);
+    assertTrue(
+        jarMetrics.totalTime()
+            >= jarMetrics.openTime()
+                + jarMetrics.manifestTime()
+                + jarMetrics.descriptorTime()
+                + jarMetrics.versionTime());
+    assertTrue(
+        ScanMetrics.getCount(Heuristic.MOD_TYPE_BY_FILE_NAME)
+                + ScanMetrics.getCount(Heuristic.MOD_TYPE_BY_MIXED_DESCRIPTORS)
+                + ScanMetrics.getCount(Heuristic.MOD_TYPE_BY_MANIFEST)
+                + ScanMetrics.getCount(Heuristic.MOD_TYPE_BY_DESCRIPTOR)
+            > 0);
+  }
+
+  @Test
+  void testSlowestJars() {
+    ScanMetrics.reset();
+    ModData.readModInfo(testModFiles.toPath().resolve("forge_test_mod_01.jar"));
+    ModData.readModInfo(testModFiles.toPath().resolve("fabric_test_mod_01.jar"));
+    ModData.readModInfo(testModFiles.toPath().resolve("quilt_test_mod_01.jar"));
+
+    List<JarMetrics> slowestJars = ScanMetrics.getSlowestJars(2);
+    assertEquals(2, slowestJars.size());
+    assertTrue(slowestJars.get(0).totalTime() >= slowestJars.get(1).totalTime());
+  }
+
+  @Test
+  void testExport(@TempDir Path tempDir) throws Exception {
+    ScanMetrics.reset();
+    ScanMetrics.recordPhase("parseMods", 1_500_000);
+    ModData.readModInfo(testModFiles.toPath().resolve("forge_test_mod_01.jar"));
+
+    Path metricsFile = tempDir.resolve(ScanMetrics.METRICS_FILE_NAME);
+    ScanMetrics.export(metricsFile);
+    assertTrue(Files.exists(metricsFile));
+    String metrics = Files.readString(metricsFile);
+    assertTrue(metrics.contains("\"parseMods\": 1.5"));
+    assertTrue(metrics.contains("\"count\": 1"));
+    assertTrue(metrics.contains("\"file\": \"forge_test_mod_01.jar\""));
+    assertTrue(metrics.contains("\"" + Heuristic.SCAN_CACHE_HIT.name() + "\""));
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package de.markusbordihn.modsoptimizer.data;
+
+import de.markusbordihn.modsoptimizer.data.ModFileData.ModEnvironment;
+import de.markusbordihn.modsoptimizer.data.ModFileData.ModType;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/** Additional mod descriptor parser, which is registered as service for the tests. */
+public class TestModDescriptorParser implements ModDescriptorParser {
+
+  public static final String TEST_MOD_FILE = "META-INF/test.mod.txt";
+
+  @Override
+  public ModType getModType() {
+    return ModType.FORGE;
+  }
+
+  @Override
+  public List<String> getEntryNames() {
+    return List.of(TEST_MOD_FILE);
+  }
+
+  @Override
+  public boolean matches(ModDescriptorSnapshot snapshot) {
+    return snapshot.has(getDescriptor());
+  }
+
+  @Override
+  public ModFileData parse(ModDescriptorSnapshot snapshot) {
+    byte[] content = snapshot.getDescriptor(getDescriptor());
+    return new ModFileData(
+        snapshot.getPath(),
+        content != null ? new String(content, StandardCharsets.UTF_8).trim() : null,
+        getModType(),
+        ModFileData.EMPTY_MOD_NAME,
+        ModFileData.EMPTY_VERSION,
+        ModEnvironment.DEFAULT,
+        ModFileData.EMPTY_TIMESTAMP);
+  }
+
+  static int getDescriptor() {
+    return 1 << ModDescriptorParsers.getEntryNames().indexOf(TEST_MOD_FILE);
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.zafarkhaja.semver.Version;
+import org.junit.jupiter.api.Test;
+
+class VersionKeyTests {
+
+  private static final String[] VERSIONS = {
+    // @formatter:off
+    "0.0.0",
+    "0.0.1",
+    "0.1.0",
+    "1.0.0-0",
+    "1.0.0-1",
+    "1.0.0-2",
+    "1.0.0-10",
+    "1.0.0-alpha",
+    "1.0.0-alpha.1",
+    "1.0.0-alpha.beta",
+    "1.0.0-beta",
+    "1.0.0-beta.2",
+    "1.0.0-beta.11",
+    "1.0.0-rc.1",
+    "1.0.0-rc.1+build.1",
+    "1.0.0",
+    "1.0.0+20221104",
+    "1.0.1",
+    "1.2.0",
+    "2.0.0",
+    "2097151.2097151.2097151",
+    "2097152.0.0",
+    "20221104.0.0",
+    "1.0.20221104"
+    // @formatter:on
+  };
+
+  @Test
+  void testSameOrderAsVersion() {
+    for (String version : VERSIONS) {
+      for (String otherVersion : VERSIONS) {
+        int expected =
+            Integer.signum(Version.valueOf(version).compareTo(Version.valueOf(otherVersion)));
+        int result =
+            Integer.signum(
+                VersionKey.of(Version.valueOf(version))
+                    .compareTo(VersionKey.of(Version.valueOf(otherVersion))));
+        assertEquals(expected, result, version + " <=> " + otherVersion);
+        assertEquals(
+            expected == 0,
+            VersionKey.of(Version.valueOf(version))
+                .equals(VersionKey.of(Version.valueOf(otherVersion))),
+            version + " == " + otherVersion);
+      }
+    }
+  }
+
+  @Test
+  void testInternedPreRelease() {
+    VersionKey versionKey = VersionKey.of(Version.valueOf("1.0.0-beta.36+1.20.1"));
+    VersionKey otherVersionKey = VersionKey.of(Version.valueOf("2.0.0-beta.36"));
+    assertSame(versionKey.getPreReleaseVersion(), otherVersionKey.getPreReleaseVersion());
+    assertTrue(otherVersionKey.isNewerThan(versionKey));
+    assertEquals("1.0.0-beta.36", versionKey.toString());
+    assertEquals(VersionKey.EMPTY, VersionKey.of(null));
+  }
+
+  @Test
+  void testModFileDataVersionKey() {
+    ModFileData modFileData =
+        new ModFileData(
+            null,
+            "test_mod",
+            ModFileData.ModType.FORGE,
+            "Test Mod",
+            Version.valueOf("1.2.3-beta"),
+            ModFileData.ModEnvironment.DEFAULT,
+            ModFileData.EMPTY_TIMESTAMP);
+    assertEquals(VersionKey.of(Version.valueOf("1.2.3-beta")), modFileData.versionKey());
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.markusbordihn.modsoptimizer.data.GameEnvironment;
+import de.markusbordihn.modsoptimizer.data.ModData;
+import de.markusbordihn.modsoptimizer.data.ModFileData;
+import de.markusbordihn.modsoptimizer.data.ModScanCache;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ModsScanVerifierTests {
+
+  private final File testModFiles = new File("src/test/resources/testfile/mods");
+
+  @AfterEach
+  void reset() {
+    ModScanCache.reset();
+  }
+
+  @Test
+  void testVerifyCachedMods(@TempDir Path tempDir) throws Exception {
+    Path cacheFile = tempDir.resolve(ModScanCache.CACHE_FILE_NAME);
+    Path modsDir = Files.createDirectory(tempDir.resolve("mods"));
+    Path modFile = modsDir.resolve("forge_test_mod_01.jar");
+    Path newModFile = modsDir.resolve("fabric_test_mod_01.jar");
+    Files.copy(testModFiles.toPath().resolve("forge_test_mod_01.jar"), modFile);
+
+    // Store a stale cache entry, which does not match the content of the mod file.
+    ModScanCache.load(cacheFile);
+    ModFileData modFileData = ModData.readModInfo(modFile);
+    assertNotNull(modFileData);
+    ModScanCache.put(
+        modFile,
+        new ModFileData(
+            modFile,
+            "stale_mod",
+            modFileData.modType(),
+            modFileData.name(),
+            modFileData.version(),
+            modFileData.environment(),
+            modFileData.timestamp()));
+    Files.copy(testModFiles.toPath().resolve("fabric_test_mod_01.jar"), newModFile);
+
+    // Fast start should use the cached data and parse the new mod file right away.
+    List<Path> cachedModFiles = ModData.parseCachedMods(modsDir.toFile(), ".jar");
+    assertEquals(List.of(modFile), cachedModFiles);
+    assertEquals("stale_mod", ModData.getModFileData(modFile).id());
+    assertNotNull(ModData.getModFileData(newModFile));
+
+    // Verification should only re-check the cached mod file and detect the stale entry.
+    ModsScanVerifier modsScanVerifier =
+        new ModsScanVerifier(GameEnvironment.CLIENT, cachedModFiles);
+    assertEquals(1, modsScanVerifier.verify());
+    assertEquals(modFileData.id(), ModData.getModFileData(modFile).id());
+    assertNotNull(ModData.getModFileData(newModFile));
+    assertEquals(2, ModData.getModFiles().size());
+    assertTrue(ModsScanVerifier.isStale(modFileData, null));
+  }
+}
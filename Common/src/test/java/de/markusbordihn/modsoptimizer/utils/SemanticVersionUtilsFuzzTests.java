@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.zafarkhaja.semver.Version;
+import de.markusbordihn.modsoptimizer.Constants;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SemanticVersionUtilsFuzzTests {
+
+  // Linear code needs about 4 times longer for 4 times longer input, quadratic code 16 times.
+  private static final int MAX_SCALING_FACTOR = 10;
+  private static final long MAX_P99_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+  private static final long TIMER_NOISE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final int WARMUP_RUNS = 3;
+  private static final int MEASUREMENT_RUNS = 5;
+  private static final String[] TOKENS = {
+    "0", "1", "2", "9", "00", "18", "1.18.2", "mc1.18", "mc1.20.x", "minecraft1,", "forge",
+    "build", "release", "snapshot", "beta", "rc", "x", ".", "..", "-", "_", "+", " ", "\n", "\r\n"
+  };
+
+  private static String[] getHostileVersions(int length) {
+    return new String[] {
+      "-".repeat(length),
+      "1." + "._-+ ".repeat(length / 5),
+      "1.0.0+" + "a".repeat(length),
+      "1.0.0-" + "alpha.".repeat(length / 6) + "1",
+      "mc1.18.".repeat(length / 7),
+      Constants.MINECRAFT_VERSION.repeat(length / 6),
+      "0".repeat(length) + ".01",
+      ".0".repeat(length / 2) + "1",
+      "forgebuildreleasesnapshot".repeat(length / 25),
+      "9".repeat(length)
+    };
+  }
+
+  /** Returns the best time of several runs after a warm-up, to ignore JIT and GC pauses. */
+  private static long measureNanos(Runnable runnable) {
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      runnable.run();
+    }
+    long bestTime = Long.MAX_VALUE;
+    for (int i = 0; i < MEASUREMENT_RUNS; i++) {
+      long startTime = System.nanoTime();
+      runnable.run();
+      bestTime = Math.min(bestTime, System.nanoTime() - startTime);
+    }
+    return bestTime;
+  }
+
+  private static void assertLinearScaling(long smallTime, long largeTime, int inputFactor) {
+    assertTrue(
+        largeTime < smallTime * inputFactor * MAX_SCALING_FACTOR / 4 + TIMER_NOISE_NANOS,
+        "Time of "
+            + largeTime
+            + " ns for "
+            + inputFactor
+            + "x input is not linear to "
+            + smallTime
+            + " ns");
+  }
+
+  private static void normalizeVersions(String[] versions) {
+    for (String version : versions) {
+      assertNotNull(SemanticVersionUtils.normalizeVersion(version));
+      SemanticVersionUtils.isValidSemanticVersion(version);
+    }
+  }
+
+  private static void parseVersions(String[] versions) {
+    for (String version : versions) {
+      assertNotNull(SemanticVersionUtils.parseVersion(version));
+    }
+  }
+
+  @Test
+  void testHostileVersionsAreNormalizedInLinearTime() {
+    String[] smallVersions = getHostileVersions(1 << 14);
+    String[] largeVersions = getHostileVersions(1 << 16);
+    long smallTime = measureNanos(() -> normalizeVersions(smallVersions));
+    long largeTime = measureNanos(() -> normalizeVersions(largeVersions));
+    assertLinearScaling(smallTime, largeTime, 4);
+  }
+
+  @Test
+  void testHostileVersionsAreCapped() {
+    String[] smallVersions = getHostileVersions(1 << 18);
+    String[] largeVersions = getHostileVersions(1 << 20);
+    long smallTime = measureNanos(() -> parseVersions(smallVersions));
+    long largeTime = measureNanos(() -> parseVersions(largeVersions));
+    assertLinearScaling(smallTime, largeTime, 4);
+
+    // Long build metadata is ignored and too long versions are using the default version.
+    String longBuildMetadata = "1.2.3+" + "build.".repeat(100) + "1";
+    assertTrue(longBuildMetadata.length() > SemanticVersionUtils.MAX_VERSION_LENGTH);
+    assertEquals(Version.valueOf("1.2.3"), SemanticVersionUtils.parseVersion(longBuildMetadata));
+    Version defaultVersion = Version.valueOf("1.0.0");
+    assertEquals(
+        defaultVersion,
+        SemanticVersionUtils.parseVersion(
+            "1.".repeat(SemanticVersionUtils.MAX_VERSION_LENGTH), defaultVersion));
+  }
+
+  @Test
+  void testRandomVersionsLatency() {
+    Random random = new Random(20221104L);
+    String[] versions = new String[20_000];
+    for (int i = 0; i < versions.length; i++) {
+      StringBuilder version = new StringBuilder();
+      int numTokens = 1 + random.nextInt(64);
+      for (int j = 0; j < numTokens; j++) {
+        if (random.nextInt(4) == 0) {
+          version.append((char) (' ' + random.nextInt(95)));
+        } else {
+          version.append(TOKENS[random.nextInt(TOKENS.length)]);
+        }
+      }
+      versions[i] = version.toString();
+    }
+
+    // Warm-up with other versions, so that the measured versions are not cached.
+    for (int i = 0; i < versions.length / 2; i++) {
+      assertNotNull(SemanticVersionUtils.parseVersion(versions[i]));
+      assertNotNull(SemanticVersionUtils.normalizeVersion(versions[i]));
+    }
+    long[] latencies = new long[versions.length / 2];
+    for (int i = 0; i < latencies.length; i++) {
+      String version = versions[versions.length / 2 + i];
+      long startTime = System.nanoTime();
+      assertNotNull(SemanticVersionUtils.parseVersion(version));
+      assertNotNull(SemanticVersionUtils.normalizeVersion(version));
+      latencies[i] = System.nanoTime() - startTime;
+    }
+    Arrays.sort(latencies);
+    long p99Latency = latencies[latencies.length * 99 / 100];
+    assertTrue(
+        p99Latency < MAX_P99_LATENCY_NANOS,
+        "P99 latency of " + p99Latency + " ns is above " + MAX_P99_LATENCY_NANOS + " ns");
+  }
+}
@@ -20,7 +20,10 @@
 package de.markusbordihn.modsoptimizer.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.zafarkhaja.semver.Version;
 import de.markusbordihn.modsoptimizer.Constants;
@@ -38,6 +41,36 @@ class SemanticVersionUtilsTests {
     }
   }
 
+  @Test
+  void testTryParseVersion() {
+    assertEquals(Version.valueOf("1.2.3"), SemanticVersionUtils.tryParseVersion("1.2.3"));
+    assertEquals(
+        Version.valueOf("1.0.0-beta.36+1.20.1"),
+        SemanticVersionUtils.tryParseVersion("1.0.0-beta.36+1.20.1"));
+    assertNull(SemanticVersionUtils.tryParseVersion(null));
+    assertNull(SemanticVersionUtils.tryParseVersion(""));
+    assertNull(SemanticVersionUtils.tryParseVersion("1.2"));
+    assertNull(SemanticVersionUtils.tryParseVersion("1.18.2_1.3.1"));
+  }
+
+  @Test
+  void testIsValidSemanticVersion() {
+    for (String version :
+        new String[] {
+          "0.0.0", "1.2.3", "10.20.30", "1.0.0-0", "1.0.0-alpha-1", "1.0.0-0a", "1.0.0+001",
+          "1.2.3-beta.1+build.5", "2147483647.0.0"
+        }) {
+      assertTrue(SemanticVersionUtils.isValidSemanticVersion(version), version);
+    }
+    for (String version :
+        new String[] {
+          "1", "1.0", "01.0.0", "1.0.0-", "1.0.0+", "1.0.0-01", "1.0.0-a..b", "1.0.0-a+b+c",
+          "1.0.0_1", "1.0.0 ", "2147483648.0.0"
+        }) {
+      assertFalse(SemanticVersionUtils.isValidSemanticVersion(version), version);
+    }
+  }
+
   @Test
   void testRemoveUnnecessaryVersionParts() {
     assertEquals("1.2", SemanticVersionUtils.removeUnnecessaryVersionParts("1.2+mc1.18.x"));
@@ -66,6 +99,54 @@ class SemanticVersionUtilsTests {
     assertEquals("1.3.1+1", SemanticVersionUtils.normalizeVersion("1.18.2-forge1.3.1+build.1"));
   }
 
+  @Test
+  void testNormalizeVersionTestData() {
+    String[] normalizedVersionList = {
+      // @formatter:off
+      "1.4.5-1",
+      "3.6.0",
+      "2.0.146",
+      "2.6.3",
+      "9.0.22",
+      "5.0.14",
+      "5.3.0-0",
+      "6.0.19",
+      "2.22.59",
+      "1.8.31",
+      "2.1.0",
+      "0.4.12",
+      "1.2.0",
+      "14.15.348",
+      "1.3.1",
+      "1.4.5-43",
+      "2.4.1",
+      "1.18.139.0.9-1.1.2",
+      "1.0.966"
+      // @formatter:on
+    };
+    assertEquals(VersionTestData.versionList.length, normalizedVersionList.length);
+    for (int i = 0; i < VersionTestData.versionList.length; i++) {
+      assertEquals(
+          normalizedVersionList[i],
+          SemanticVersionUtils.normalizeVersion(VersionTestData.versionList[i]));
+    }
+  }
+
+  @Test
+  void testNormalizeVersionEdgeCases() {
+    assertEquals("", SemanticVersionUtils.normalizeVersion(null));
+    assertEquals("", SemanticVersionUtils.normalizeVersion(""));
+    assertEquals("", SemanticVersionUtils.normalizeVersion(Constants.MINECRAFT_VERSION));
+    assertEquals("1.0.0", SemanticVersionUtils.normalizeVersion("1"));
+    assertEquals("1.2.10", SemanticVersionUtils.normalizeVersion("1.2.a"));
+    assertEquals("1.2.3", SemanticVersionUtils.normalizeVersion("1.02.03."));
+    assertEquals("1.2.3", SemanticVersionUtils.normalizeVersion("1.2-build-3"));
+    assertEquals("1.2.3-beta", SemanticVersionUtils.normalizeVersion("1.2.3_Beta"));
+    assertEquals("1.0.1", SemanticVersionUtils.normalizeVersion("minecraft1.18.2-1.0..1"));
+    assertEquals("1.0-beta", SemanticVersionUtils.normalizeVersion("1.0-beta"));
+    assertEquals("v1.2.3", SemanticVersionUtils.normalizeVersion("v1.2.3"));
+  }
+
   @Test
   void testRemoveLeadingZeros() {
     assertEquals("1.2.3", SemanticVersionUtils.removeLeadingZeros("01.02.03"));
@@ -77,5 +158,6 @@ class SemanticVersionUtilsTests {
     assertEquals("2.3", SemanticVersionUtils.removeLeadingZeros("0.2.3"));
     assertEquals("1.2.3", SemanticVersionUtils.removeLeadingZeros("01.02.03"));
     assertEquals("9.0+22", SemanticVersionUtils.removeLeadingZeros("9.0+22"));
+    assertEquals("1.0.3", SemanticVersionUtils.removeLeadingZeros("1.000.03.."));
   }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package de.markusbordihn.modsoptimizer.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.github.zafarkhaja.semver.Version;
+import de.markusbordihn.modsoptimizer.utils.VersionCache.ParsedVersion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class VersionCacheTests {
+
+  @Test
+  void testLeastRecentlyUsedEviction() {
+    VersionCache versionCache = new VersionCache(2);
+    versionCache.put("1.0.0", new ParsedVersion(Version.valueOf("1.0.0"), false));
+    versionCache.put("1.2", new ParsedVersion(Version.valueOf("1.2.0"), true));
+    assertNotNull(versionCache.get("1.0.0"));
+
+    // The least recently used entry should be evicted.
+    versionCache.put("invalid", new ParsedVersion(null, false));
+    assertEquals(2, versionCache.size());
+    assertEquals(1, versionCache.getEvictions());
+    assertNull(versionCache.get("1.2"));
+    assertNotNull(versionCache.get("1.0.0"));
+    assertNotNull(versionCache.get("invalid"));
+    assertEquals(3, versionCache.getHits());
+    assertEquals(1, versionCache.getMisses());
+  }
+
+  @Test
+  void testParseVersionWithCache() {
+    VersionCache versionCache = SemanticVersionUtils.getVersionCache();
+    Version version = SemanticVersionUtils.parseVersion("1.18.2-7.4.2-build.99");
+    long hits = versionCache.getHits();
+    assertSame(version, SemanticVersionUtils.parseVersion("1.18.2-7.4.2-build.99"));
+    assertEquals(hits + 1, versionCache.getHits());
+
+    // Default versions should not be cached for unparsable versions.
+    Version defaultVersion = Version.valueOf("1.2.3");
+    assertEquals(SemanticVersionUtils.EMPTY_VERSION, SemanticVersionUtils.parseVersion("abc"));
+    assertSame(defaultVersion, SemanticVersionUtils.parseVersion("abc", defaultVersion));
+  }
+
+  @Test
+  void testParallelParseVersion() throws Exception {
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Version>> futures = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        String versionNumber = "2." + (i % 50) + "+mc1.20.1";
+        futures.add(executorService.submit(() -> SemanticVersionUtils.parseVersion(versionNumber)));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        assertEquals(Version.valueOf("2." + (i % 50) + ".0"), futures.get(i).get());
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,614 @@
+/*
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.modsoptimizer.fixtures;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Deterministic generator for synthetic mod packs, which could be used to test and benchmark the
+ * mod scanning with a few hundred or thousand mod files. The same seed always creates the same mod
+ * files with the same content, file names and modification times.
+ *
+ * <p>The generated mod packs contain Forge, NeoForge, Fabric, Quilt and mixed mods with
+ * dependencies, libraries, language providers, services, data packs, duplicated mods with
+ * different versions, mods with oversized asset payloads and malformed mod files.
+ */
+public class ModPackGenerator {
+
+  private static final String[] ID_PARTS = {
+    "aqua", "arcane", "better", "bio", "block", "cave", "chisel", "craft", "crystal", "deco",
+    "dragon", "dungeon", "ender", "farm", "ferro", "forge", "frost", "gem", "iron", "jei",
+    "light", "lore", "magic", "mob", "nature", "nether", "ore", "pipe", "quest", "rail", "rune",
+    "sky", "storage", "stone", "tech", "terra", "tool", "villager", "waystone", "world", "zen"
+  };
+  private static final String[] MINECRAFT_VERSIONS = {"1.18.2", "1.19.2", "1.20.1", "1.20.4"};
+  private static final String[] FORGE_SIDES = {"BOTH", "BOTH", "BOTH", "CLIENT", "SERVER"};
+  private static final String[] FABRIC_ENVIRONMENTS = {"*", "*", "*", "client", "server"};
+  private static final String[] QUILT_ENVIRONMENTS = {"*", "*", "client", "dedicated_server"};
+  private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssZ").withZone(ZoneOffset.UTC);
+  private static final long BASE_TIME = Instant.parse("2023-01-01T00:00:00Z").toEpochMilli();
+  private static final long MAX_TIME_OFFSET = 365L * 24 * 60 * 60 * 1000;
+
+  private final long seed;
+  private double duplicateRatio = 0.03;
+  private double oversizedRatio = 0.02;
+  private double malformedRatio = 0.02;
+  private int oversizedPayloadSize = 4 * 1024 * 1024;
+
+  public ModPackGenerator(long seed) {
+    this.seed = seed;
+  }
+
+  public ModPackGenerator duplicateRatio(double duplicateRatio) {
+    this.duplicateRatio = duplicateRatio;
+    return this;
+  }
+
+  public ModPackGenerator oversizedRatio(double oversizedRatio) {
+    this.oversizedRatio = oversizedRatio;
+    return this;
+  }
+
+  public ModPackGenerator malformedRatio(double malformedRatio) {
+    this.malformedRatio = malformedRatio;
+    return this;
+  }
+
+  public ModPackGenerator oversizedPayloadSize(int oversizedPayloadSize) {
+    this.oversizedPayloadSize = oversizedPayloadSize;
+    return this;
+  }
+
+  /** Generates the given number of mod files in the mods directory. */
+  public List<GeneratedMod> generate(Path modsDir, int numModFiles) throws IOException {
+    Random random = new Random(this.seed);
+    Files.createDirectories(modsDir);
+    List<GeneratedMod> generatedMods = new ArrayList<>(numModFiles);
+    List<GeneratedMod> validMods = new ArrayList<>();
+    Set<String> modIds = new HashSet<>();
+    Set<String> fileNames = new HashSet<>();
+
+    for (int i = 0; i < numModFiles; i++) {
+      GeneratedMod generatedMod;
+      double kindChance = random.nextDouble();
+      if (kindChance < this.malformedRatio) {
+        generatedMod = createMalformedMod(random, modsDir, i);
+      } else if (kindChance < this.malformedRatio + this.duplicateRatio && !validMods.isEmpty()) {
+        GeneratedMod originalMod = validMods.get(random.nextInt(validMods.size()));
+        generatedMod =
+            createMod(
+                random,
+                modsDir,
+                originalMod.kind(),
+                originalMod.modId(),
+                createDuplicatedVersion(random, originalMod.version()),
+                true,
+                validMods);
+      } else {
+        ModKind modKind = nextModKind(random);
+        String modId = createModId(random, modIds);
+        generatedMod =
+            createMod(random, modsDir, modKind, modId, createVersion(random), false, validMods);
+      }
+
+      // Make sure that no mod file is overwritten by a later mod file.
+      if (!fileNames.add(generatedMod.path().getFileName().toString())) {
+        throw new IllegalStateException("Duplicated mod file name " + generatedMod.path());
+      }
+      Files.setLastModifiedTime(generatedMod.path(), FileTime.fromMillis(nextTime(random)));
+      generatedMods.add(generatedMod);
+      if (generatedMod.kind() != ModKind.MALFORMED && !generatedMod.duplicate()) {
+        validMods.add(generatedMod);
+      }
+    }
+    return generatedMods;
+  }
+
+  private GeneratedMod createMod(
+      Random random,
+      Path modsDir,
+      ModKind modKind,
+      String modId,
+      String version,
+      boolean duplicate,
+      List<GeneratedMod> validMods)
+      throws IOException {
+    String minecraftVersion = MINECRAFT_VERSIONS[random.nextInt(MINECRAFT_VERSIONS.length)];
+    String loaderName =
+        switch (modKind) {
+          case NEOFORGE -> "-neoforge";
+          case FABRIC -> "-fabric";
+          case QUILT -> "-quilt";
+          case FORGE -> random.nextBoolean() ? "-forge" : "";
+          default -> "";
+        };
+    String fileName =
+        modId + loaderName + "-" + minecraftVersion + "-" + version.replace('+', '_') + ".jar";
+    if (duplicate && random.nextBoolean()) {
+      fileName = fileName.replace(".jar", random.nextBoolean() ? " copy.jar" : " (1).jar");
+    }
+    Path path = modsDir.resolve(fileName);
+    for (int i = 1; Files.exists(path); i++) {
+      path = modsDir.resolve(fileName.replace(".jar", "-" + i + ".jar"));
+    }
+    boolean oversized = random.nextDouble() < this.oversizedRatio;
+    long time = nextTime(random);
+
+    try (ZipOutputStream zipOutputStream =
+        new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      JarContent jarContent = new JarContent(zipOutputStream, time);
+      jarContent.add("META-INF/MANIFEST.MF", createManifest(random, modKind, modId, version, time));
+
+      // Mod descriptors
+      switch (modKind) {
+        case FORGE, NEOFORGE ->
+            jarContent.add(
+                "META-INF/mods.toml",
+                createModsToml(random, modKind, modId, version, validMods, false));
+        case FABRIC ->
+            jarContent.add(
+                "fabric.mod.json", createFabricModJson(random, modId, version, validMods));
+        case QUILT -> jarContent.add("quilt.mod.json", createQuiltModJson(random, modId, version));
+        case MIXED -> {
+          jarContent.add(
+              "META-INF/mods.toml",
+              createModsToml(random, modKind, modId, version, validMods, false));
+          jarContent.add(
+              "fabric.mod.json", createFabricModJson(random, modId, version, validMods));
+        }
+        case SERVICE ->
+            jarContent.add(
+                "META-INF/services/cpw.mods.modlauncher.api.ITransformationService",
+                "com.example." + modId + ".TransformationService\n");
+        case DATA_PACK -> {
+          jarContent.add(
+              "META-INF/mods.toml",
+              createModsToml(random, modKind, modId, version, validMods, true));
+          jarContent.add("pack.mcmeta", "{\"pack\":{\"pack_format\":15,\"description\":\"\"}}");
+        }
+        default -> {
+          // Libraries and language providers are only using the manifest.
+        }
+      }
+
+      // Classes, which are not included in data packs.
+      if (modKind != ModKind.DATA_PACK) {
+        int numClasses = 5 + random.nextInt(60);
+        for (int i = 0; i < numClasses; i++) {
+          jarContent.add(
+              "com/example/" + modId + "/" + (i < 3 ? "" : "impl/") + "Class" + i + ".class",
+              createClassFile(random));
+        }
+      }
+
+      // Assets and data
+      if (modKind != ModKind.LIBRARY
+          && modKind != ModKind.LANGUAGE_PROVIDER
+          && modKind != ModKind.SERVICE) {
+        jarContent.add("assets/" + modId + "/lang/en_us.json", createLangFile(random, modId));
+        int numTextures = random.nextInt(40);
+        for (int i = 0; i < numTextures; i++) {
+          jarContent.addStored(
+              "assets/" + modId + "/textures/block/texture_" + i + ".png",
+              createRandomBytes(random, 256 + random.nextInt(4096)));
+        }
+        int numRecipes = random.nextInt(20);
+        for (int i = 0; i < numRecipes; i++) {
+          jarContent.add(
+              "data/" + modId + "/recipes/recipe_" + i + ".json",
+              "{\"type\":\"minecraft:crafting_shaped\",\"result\":{\"item\":\""
+                  + modId
+                  + ":item_"
+                  + i
+                  + "\"}}");
+        }
+      }
+
+      // Oversized asset payload, which should never be read.
+      if (oversized) {
+        jarContent.addStored(
+            "assets/" + modId + "/sounds/music.ogg",
+            createRandomBytes(random, this.oversizedPayloadSize));
+      }
+    }
+    return new GeneratedMod(path, modKind, modId, version, duplicate, oversized);
+  }
+
+  private GeneratedMod createMalformedMod(Random random, Path modsDir, int index)
+      throws IOException {
+    String modId = "malformed" + index;
+    Path path = modsDir.resolve(modId + "-1.0.0.jar");
+    long time = nextTime(random);
+    int variant = random.nextInt(5);
+    if (variant == 0) {
+      // Not a zip file at all.
+      Files.write(path, createRandomBytes(random, 1024 + random.nextInt(8192)));
+    } else {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+        JarContent jarContent = new JarContent(zipOutputStream, time);
+        jarContent.add(
+            "META-INF/MANIFEST.MF",
+            createManifest(random, ModKind.FORGE, modId, "1.0.0", time));
+        switch (variant) {
+          case 1 ->
+              jarContent.add(
+                  "META-INF/mods.toml",
+                  "modLoader=\"javafml\"\n[[mods]]\nmodId=\"" + modId + "\nversion=\"1.0.0\n");
+          case 2 ->
+              jarContent.add(
+                  "fabric.mod.json",
+                  "{\"schemaVersion\":1,\"id\":\"" + modId + "\",\"version\":\"1.0.0\",}");
+          default ->
+              jarContent.add(
+                  "META-INF/mods.toml",
+                  createModsToml(random, ModKind.FORGE, modId, "1.0.0", List.of(), false));
+        }
+        jarContent.add("com/example/" + modId + "/Main.class", createClassFile(random));
+      }
+      byte[] content = outputStream.toByteArray();
+      if (variant >= 3) {
+        // Truncated jar file without central directory.
+        Files.write(path, Arrays.copyOf(content, content.length / 2));
+      } else {
+        Files.write(path, content);
+      }
+    }
+    return new GeneratedMod(path, ModKind.MALFORMED, modId, "1.0.0", false, false);
+  }
+
+  private static ModKind nextModKind(Random random) {
+    int chance = random.nextInt(100);
+    if (chance < 45) {
+      return ModKind.FORGE;
+    } else if (chance < 52) {
+      return ModKind.NEOFORGE;
+    } else if (chance < 68) {
+      return ModKind.FABRIC;
+    } else if (chance < 72) {
+      return ModKind.QUILT;
+    } else if (chance < 78) {
+      return ModKind.MIXED;
+    } else if (chance < 88) {
+      return ModKind.LIBRARY;
+    } else if (chance < 90) {
+      return ModKind.LANGUAGE_PROVIDER;
+    } else if (chance < 93) {
+      return ModKind.SERVICE;
+    }
+    return ModKind.DATA_PACK;
+  }
+
+  private static String createModId(Random random, Set<String> modIds) {
+    while (true) {
+      String modId =
+          ID_PARTS[random.nextInt(ID_PARTS.length)] + ID_PARTS[random.nextInt(ID_PARTS.length)];
+      if (modIds.size() > ID_PARTS.length * ID_PARTS.length / 2 || !modIds.add(modId)) {
+        modId = modId + modIds.size();
+        if (!modIds.add(modId)) {
+          continue;
+        }
+      }
+      return modId;
+    }
+  }
+
+  private static String createVersion(Random random) {
+    int major = random.nextInt(10);
+    int minor = random.nextInt(20);
+    int patch = random.nextInt(30);
+    return switch (random.nextInt(8)) {
+      case 0 -> major + "." + minor;
+      case 1 -> major + "." + minor + "." + patch + "+mc1.20.1";
+      case 2 -> major + "." + minor + "." + patch + "-beta." + random.nextInt(10);
+      case 3 -> major + "." + minor + "." + patch + "." + random.nextInt(200);
+      case 4 -> "1.20.1-" + major + "." + minor + "." + patch;
+      default -> major + "." + minor + "." + patch;
+    };
+  }
+
+  private static String createDuplicatedVersion(Random random, String version) {
+    // Replace the last number of the version, which is either a newer or older version.
+    int end = version.length();
+    while (end > 0 && !Character.isDigit(version.charAt(end - 1))) {
+      end--;
+    }
+    int start = end;
+    while (start > 0 && Character.isDigit(version.charAt(start - 1))) {
+      start--;
+    }
+    if (start == end) {
+      return version + ".1";
+    }
+    int number = Integer.parseInt(version.substring(start, end));
+    int newNumber = number > 0 && random.nextBoolean() ? number - 1 : number + 1;
+    return version.substring(0, start) + newNumber + version.substring(end);
+  }
+
+  private static String createManifest(
+      Random random, ModKind modKind, String modId, String version, long time) {
+    StringBuilder manifest = new StringBuilder();
+    manifest.append("Manifest-Version: 1.0\r\n");
+    manifest.append("Specification-Title: ").append(modId).append("\r\n");
+    manifest.append("Implementation-Title: ").append(modId).append("\r\n");
+    manifest.append("Implementation-Version: ").append(version).append("\r\n");
+    if (random.nextInt(4) > 0) {
+      manifest
+          .append("Implementation-Timestamp: ")
+          .append(TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(time)))
+          .append("\r\n");
+    }
+    switch (modKind) {
+      case LIBRARY -> {
+        manifest.append("Automatic-Module-Name: com.example.").append(modId).append("\r\n");
+        manifest
+            .append("FMLModType: ")
+            .append(random.nextBoolean() ? "LIBRARY" : "GAMELIBRARY")
+            .append("\r\n");
+      }
+      case LANGUAGE_PROVIDER -> manifest.append("FMLModType: LANGPROVIDER\r\n");
+      case FABRIC, QUILT, SERVICE -> manifest.append("Fabric-Loader-Version: 0.14.24\r\n");
+      case FORGE -> manifest.append("FMLModType: MOD\r\n");
+      default -> {
+        // No additional attributes.
+      }
+    }
+    return manifest.append("\r\n").toString();
+  }
+
+  private static String createModsToml(
+      Random random,
+      ModKind modKind,
+      String modId,
+      String version,
+      List<GeneratedMod> validMods,
+      boolean dataPack) {
+    String loader = modKind == ModKind.NEOFORGE ? "neoforge" : "forge";
+    StringBuilder modsToml = new StringBuilder();
+    modsToml.append("modLoader=\"").append(dataPack ? "lowcodefml" : "javafml").append("\"\n");
+    modsToml.append("loaderVersion=\"[40,)\"\n");
+    modsToml.append("license=\"MIT\"\n");
+    modsToml.append("issueTrackerURL=\"https://example.com/").append(modId).append("/issues\"\n");
+    modsToml.append("\n[[mods]]\n");
+    modsToml.append("modId=\"").append(modId).append("\"\n");
+    modsToml
+        .append("version=\"")
+        .append(random.nextInt(5) == 0 ? "${file.jarVersion}" : version)
+        .append("\"\n");
+    modsToml.append("displayName=\"").append(createDisplayName(modId)).append("\"\n");
+    modsToml.append("authors=\"Example Author\"\n");
+    modsToml.append("description='''\n").append(createText(random, 40)).append("\n'''\n");
+    if (random.nextInt(10) == 0) {
+      modsToml.append("displayTest=\"IGNORE_SERVER_VERSION\"\n");
+    }
+
+    // Dependencies
+    String side = FORGE_SIDES[random.nextInt(FORGE_SIDES.length)];
+    appendModsTomlDependency(modsToml, modId, loader, "[40,)", side);
+    appendModsTomlDependency(modsToml, modId, "minecraft", "[1.18.2,1.21)", "BOTH");
+    int numDependencies = validMods.isEmpty() ? 0 : random.nextInt(4);
+    for (int i = 0; i < numDependencies; i++) {
+      GeneratedMod dependency = validMods.get(random.nextInt(validMods.size()));
+      appendModsTomlDependency(modsToml, modId, dependency.modId(), "[0,)", "BOTH");
+    }
+    return modsToml.toString();
+  }
+
+  private static void appendModsTomlDependency(
+      StringBuilder modsToml, String modId, String dependencyId, String versionRange, String side) {
+    modsToml.append("\n[[dependencies.").append(modId).append("]]\n");
+    modsToml.append("modId=\"").append(dependencyId).append("\"\n");
+    modsToml.append("mandatory=true\n");
+    modsToml.append("versionRange=\"").append(versionRange).append("\"\n");
+    modsToml.append("ordering=\"NONE\"\n");
+    modsToml.append("side=\"").append(side).append("\"\n");
+  }
+
+  private static String createFabricModJson(
+      Random random, String modId, String version, List<GeneratedMod> validMods) {
+    StringBuilder fabricModJson = new StringBuilder();
+    fabricModJson.append("{\n  \"schemaVersion\": 1,\n");
+    fabricModJson.append("  \"id\": \"").append(modId).append("\",\n");
+    fabricModJson.append("  \"version\": \"").append(version).append("\",\n");
+    fabricModJson.append("  \"name\": \"").append(createDisplayName(modId)).append("\",\n");
+    fabricModJson.append("  \"description\": \"").append(createText(random, 20)).append("\",\n");
+    fabricModJson.append("  \"authors\": [\"Example Author\"],\n");
+    fabricModJson
+        .append("  \"environment\": \"")
+        .append(FABRIC_ENVIRONMENTS[random.nextInt(FABRIC_ENVIRONMENTS.length)])
+        .append("\",\n");
+    fabricModJson.append("  \"entrypoints\": {\n    \"main\": [\"com.example.");
+    fabricModJson.append(modId).append(".Class0\"]\n  },\n");
+    fabricModJson.append("  \"mixins\": [\"").append(modId).append(".mixins.json\"],\n");
+    fabricModJson.append("  \"depends\": {\n    \"fabricloader\": \">=0.14.0\",\n");
+    int numDependencies = validMods.isEmpty() ? 0 : random.nextInt(4);
+    for (int i = 0; i < numDependencies; i++) {
+      GeneratedMod dependency = validMods.get(random.nextInt(validMods.size()));
+      fabricModJson.append("    \"").append(dependency.modId()).append("\": \"*\",\n");
+    }
+    fabricModJson.append("    \"minecraft\": \"~1.20.1\"\n  }\n}\n");
+    return fabricModJson.toString();
+  }
+
+  private static String createQuiltModJson(Random random, String modId, String version) {
+    return "{\n  \"schema_version\": 1,\n  \"quilt_loader\": {\n"
+        + "    \"group\": \"com.example\",\n"
+        + "    \"id\": \""
+        + modId
+        + "\",\n    \"version\": \""
+        + version
+        + "\",\n    \"metadata\": {\n      \"name\": \""
+        + createDisplayName(modId)
+        + "\",\n      \"description\": \""
+        + createText(random, 20)
+        + "\"\n    },\n    \"depends\": [\"quilt_loader\", \"minecraft\"]\n  },\n"
+        + "  \"minecraft\": {\n    \"environment\": \""
+        + QUILT_ENVIRONMENTS[random.nextInt(QUILT_ENVIRONMENTS.length)]
+        + "\"\n  }\n}\n";
+  }
+
+  private static String createLangFile(Random random, String modId) {
+    StringBuilder langFile = new StringBuilder("{\n");
+    int numEntries = 5 + random.nextInt(100);
+    for (int i = 0; i < numEntries; i++) {
+      langFile.append("  \"item.").append(modId).append(".item_").append(i).append("\": \"");
+      langFile.append(createText(random, 3)).append(i + 1 < numEntries ? "\",\n" : "\"\n");
+    }
+    return langFile.append("}\n").toString();
+  }
+
+  private static String createDisplayName(String modId) {
+    return modId.substring(0, 1).toUpperCase(Locale.ROOT) + modId.substring(1) + " Mod";
+  }
+
+  private static String createText(Random random, int numWords) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < numWords; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      text.append(ID_PARTS[random.nextInt(ID_PARTS.length)]);
+    }
+    return text.toString();
+  }
+
+  private static byte[] createClassFile(Random random) {
+    // Class files are compressible, so only parts of the content are random.
+    byte[] content = new byte[512 + random.nextInt(4096)];
+    content[0] = (byte) 0xCA;
+    content[1] = (byte) 0xFE;
+    content[2] = (byte) 0xBA;
+    content[3] = (byte) 0xBE;
+    for (int i = 4; i < content.length; i++) {
+      content[i] = random.nextInt(4) == 0 ? (byte) random.nextInt(256) : (byte) (i % 64);
+    }
+    return content;
+  }
+
+  private static byte[] createRandomBytes(Random random, int size) {
+    byte[] content = new byte[size];
+    random.nextBytes(content);
+    return content;
+  }
+
+  private static long nextTime(Random random) {
+    // Zip files only store the time with a resolution of two seconds.
+    return BASE_TIME + (random.nextLong() & Long.MAX_VALUE) % MAX_TIME_OFFSET / 2000 * 2000;
+  }
+
+  public enum ModKind {
+    FORGE,
+    NEOFORGE,
+    FABRIC,
+    QUILT,
+    MIXED,
+    LIBRARY,
+    LANGUAGE_PROVIDER,
+    SERVICE,
+    DATA_PACK,
+    MALFORMED
+  }
+
+  /** Generated mod file with the expected mod data. */
+  public record GeneratedMod(
+      Path path,
+      ModKind kind,
+      String modId,
+      String version,
+      boolean duplicate,
+      boolean oversized) {}
+
+  /** Writes jar entries with the needed parent directories and a fixed modification time. */
+  private static class JarContent {
+
+    private final ZipOutputStream zipOutputStream;
+    private final long time;
+    private final Set<String> directories = new LinkedHashSet<>();
+
+    private JarContent(ZipOutputStream zipOutputStream, long time) {
+      this.zipOutputStream = zipOutputStream;
+      this.zipOutputStream.setLevel(Deflater.BEST_SPEED);
+      this.time = time;
+    }
+
+    private void add(String name, String content) throws IOException {
+      add(name, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void add(String name, byte[] content) throws IOException {
+      addDirectories(name);
+      putEntry(new ZipEntry(name), content);
+    }
+
+    /** Adds already compressed content like images and sounds without compression. */
+    private void addStored(String name, byte[] content) throws IOException {
+      addDirectories(name);
+      CRC32 crc32 = new CRC32();
+      crc32.update(content);
+      ZipEntry zipEntry = new ZipEntry(name);
+      zipEntry.setMethod(ZipEntry.STORED);
+      zipEntry.setSize(content.length);
+      zipEntry.setCrc(crc32.getValue());
+      putEntry(zipEntry, content);
+    }
+
+    private void addDirectories(String name) throws IOException {
+      int index = name.indexOf('/');
+      while (index > 0) {
+        String directory = name.substring(0, index + 1);
+        if (this.directories.add(directory)) {
+          putEntry(new ZipEntry(directory), null);
+        }
+        index = name.indexOf('/', index + 1);
+      }
+    }
+
+    private void putEntry(ZipEntry zipEntry, byte[] content) throws IOException {
+      zipEntry.setTime(this.time);
+      this.zipOutputStream.putNextEntry(zipEntry);
+      if (content != null) {
+        this.zipOutputStream.write(content);
+      }
+      this.zipOutputStream.closeEntry();
+    }
+  }
+}
@@ -57,6 +57,9 @@ public class ModLocatorService implements IModLocator {
     // Re-enable client side mods on client.
     modsOptimizer.enableClientSideMods();
 
+    // Apply pre-computed optimizations from the last watch mode session or verification.
+    modsOptimizer.applyOptimizationPlan();
+
     // Parsing mods data.
     modsOptimizer.parseMods();
 
@@ -66,10 +69,19 @@ public class ModLocatorService implements IModLocator {
     // Disable client side mods on ded-server.
     modsOptimizer.disableClientSideMods();
 
+    // Keep mods data in sync with the mods directory, if enabled.
+    modsOptimizer.startWatchMode();
+
     // Record total time.
     Constants.LOG.info(
         "⏱ Mod Optimizer needs {} ms in total.",
         TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - modsOptimizer.getTotalStartTime()));
+
+    // Export metrics of this start.
+    modsOptimizer.exportMetrics();
+
+    // Verify cached mods data in the background, if the fast start was used.
+    modsOptimizer.startBackgroundVerification();
   }
 
   @Override